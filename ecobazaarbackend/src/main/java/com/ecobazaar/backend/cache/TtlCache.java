@@ -0,0 +1,135 @@
+package com.ecobazaar.backend.cache;
+
+import com.ecobazaar.backend.dto.CacheStatsDto;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Small bounded in-process cache: least-recently-used entries are dropped
+ * once maxEntries is reached, and every entry expires after its TTL.
+ * Access is serialized on the instance, which is plenty for the short
+ * critical sections here; loaders always run outside the lock.
+ */
+public class TtlCache<K, V> {
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+
+        private Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TtlCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        // accessOrder = true turns insertion order into LRU order
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Returns the cached value, or null if absent or expired. */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAtNanos - System.nanoTime() <= 0) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Read-through lookup. Concurrent misses on the same key may both call the
+     * loader; the last one wins. Null results are not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlNanos);
+    }
+
+    /** Stores an entry that expires after the shorter of ttl and the cache-wide TTL. */
+    public void put(K key, V value, Duration ttl) {
+        put(key, value, Math.min(ttl.toNanos(), ttlNanos));
+    }
+
+    private synchronized void put(K key, V value, long entryTtlNanos) {
+        if (entryTtlNanos <= 0) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + entryTtlNanos));
+    }
+
+    /** Removes and returns the entry, or null if absent or expired; at most one caller gets a given entry. */
+    public synchronized V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null || entry.expiresAtNanos - System.nanoTime() <= 0) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(BiPredicate<K, V> predicate) {
+        entries.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value));
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public CacheStatsDto stats(String name) {
+        return new CacheStatsDto(name, size(), maxEntries, hits.get(), misses.get(), evictions.get());
+    }
+
+    public int getMaxEntries() { return maxEntries; }
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+}
@@ -0,0 +1,46 @@
+package com.ecobazaar.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entities that moved from IDENTITY to a pooled sequence keep their existing
+ * AUTO_INCREMENT rows. MySQL has no sequences, so Hibernate emulates each one
+ * with a single-row table that starts at 1; this pushes that table past the
+ * current MAX(id) at startup so new ids never collide with old rows.
+ */
+@Component
+public class SequenceTableAligner implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceTableAligner.class);
+
+    // sequence table -> entity table; the gap must cover one allocationSize block
+    private static final Map<String, String> SEQUENCE_TABLES = new LinkedHashMap<>();
+    private static final int ALLOCATION_GAP = 51;
+
+    static {
+        SEQUENCE_TABLES.put("order_items_seq", "order_items");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SEQUENCE_TABLES.forEach((sequenceTable, table) -> {
+            try {
+                jdbcTemplate.update("UPDATE " + sequenceTable + " SET next_val = GREATEST(next_val, " +
+                                    "(SELECT COALESCE(MAX(id), 0) + " + ALLOCATION_GAP + " FROM " + table + "))");
+            } catch (Exception e) {
+                log.warn("Could not align sequence table {} with {}: {}", sequenceTable, table, e.getMessage());
+            }
+        });
+    }
+}
@@ -6,7 +6,13 @@ import com.ecobazaar.backend.entity.Role;
 import com.ecobazaar.backend.entity.User;
 import com.ecobazaar.backend.entity.Product;
 import com.ecobazaar.backend.service.AdminService;
+import com.ecobazaar.backend.service.CatalogueCacheService;
+import com.ecobazaar.backend.service.EcoPointsLedgerService;
+import com.ecobazaar.backend.service.ImageUploadService;
+import com.ecobazaar.backend.service.NotificationFanoutService;
+import com.ecobazaar.backend.service.NotificationRetentionService;
 import com.ecobazaar.backend.service.NotificationService;
+import com.ecobazaar.backend.service.UploadBlobStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +32,24 @@ public class AdminController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationFanoutService notificationFanoutService;
+
+    @Autowired
+    private NotificationRetentionService notificationRetentionService;
+
+    @Autowired
+    private CatalogueCacheService catalogueCacheService;
+
+    @Autowired
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private UploadBlobStore uploadBlobStore;
+
     // Overview Dashboard Endpoints
     @GetMapping("/overview")
     public ResponseEntity<AdminOverviewDto> getAdminOverview() {
@@ -33,6 +57,17 @@ public class AdminController {
         return ResponseEntity.ok(overview);
     }
 
+    @GetMapping("/cache/catalogue")
+    public ResponseEntity<List<CacheStatsDto>> getCatalogueCacheStats() {
+        return ResponseEntity.ok(catalogueCacheService.getStats());
+    }
+
+    @DeleteMapping("/cache/catalogue")
+    public ResponseEntity<String> clearCatalogueCache() {
+        catalogueCacheService.invalidateAll();
+        return ResponseEntity.ok("Catalogue cache cleared");
+    }
+
     @GetMapping("/recent-activity")
     public ResponseEntity<List<RecentActivityDto>> getRecentActivity() {
         List<RecentActivityDto> activities = adminService.getRecentActivity();
@@ -46,6 +81,17 @@ public class AdminController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/users/page")
+    public ResponseEntity<PageDto<UserManagementDto>> getUsersPage(
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "totalSpent") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Role userRole = role != null && !role.isBlank() ? Role.valueOf(role.toUpperCase()) : null;
+        return ResponseEntity.ok(adminService.getUsersWithStatsPage(userRole, sortBy, direction, page, size));
+    }
+
     @GetMapping("/users/role/{role}")
     public ResponseEntity<List<UserManagementDto>> getUsersByRole(@PathVariable String role) {
         Role userRole = Role.valueOf(role.toUpperCase());
@@ -75,6 +121,15 @@ public class AdminController {
         return ResponseEntity.ok(sellers);
     }
 
+    @GetMapping("/sellers/leaderboard")
+    public ResponseEntity<PageDto<SellerWithStatsDto>> getSellerLeaderboard(
+            @RequestParam(defaultValue = "totalRevenue") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(adminService.getSellerLeaderboard(sortBy, direction, page, size));
+    }
+
     @PutMapping("/sellers/{sellerId}/approve")
     public ResponseEntity<String> approveSeller(@PathVariable Long sellerId, @RequestBody Map<String, String> request) {
         String adminNotes = request.get("adminNotes");
@@ -220,6 +275,65 @@ public class AdminController {
         return ResponseEntity.ok("Notification marked as read");
     }
 
+    /**
+     * Sends an announcement to an audience: ALL_USERS, CUSTOMERS, SELLERS,
+     * ADMINS or CATEGORY_BUYERS (which also needs categoryId).
+     */
+    @PostMapping("/notifications/broadcast")
+    public ResponseEntity<String> broadcastNotification(@RequestBody Map<String, String> request) {
+        String title = request.get("title");
+        String message = request.get("message");
+        if (title == null || title.isBlank() || message == null || message.isBlank()) {
+            return ResponseEntity.badRequest().body("Title and message are required");
+        }
+        try {
+            NotificationFanoutService.Audience audience = NotificationFanoutService.Audience.valueOf(request.get("audience"));
+            Long categoryId = request.get("categoryId") != null ? Long.valueOf(request.get("categoryId")) : null;
+            notificationFanoutService.broadcast(audience, categoryId, "announcement",
+                Map.of("title", title.trim(), "message", message.trim()));
+            return ResponseEntity.accepted().body("Broadcast queued");
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return ResponseEntity.badRequest().body("Invalid audience or category");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/notifications/fanout/stats")
+    public ResponseEntity<NotificationFanoutStatsDto> getNotificationFanoutStats() {
+        return ResponseEntity.ok(notificationFanoutService.getStats());
+    }
+
+    @GetMapping("/notifications/retention")
+    public ResponseEntity<NotificationRetentionStatsDto> getNotificationRetentionStats() {
+        return ResponseEntity.ok(notificationRetentionService.getStats());
+    }
+
+    // Runs the archival sweep now instead of waiting for the schedule
+    @PostMapping("/notifications/retention/run")
+    public ResponseEntity<NotificationRetentionStatsDto> runNotificationRetention() {
+        notificationRetentionService.archiveExpired();
+        return ResponseEntity.ok(notificationRetentionService.getStats());
+    }
+
+    // Recomputes every stored eco-points balance from the ledger
+    @PostMapping("/eco-points/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildEcoPointsBalances() {
+        return ResponseEntity.ok(ecoPointsLedgerService.rebuildBalances());
+    }
+
+    // Generates resized variants for uploaded images that do not have them yet
+    @PostMapping("/images/variants/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildImageVariants() {
+        int queued = imageUploadService.regenerateMissingVariants();
+        return ResponseEntity.ok(Map.of("queued", queued));
+    }
+
+    @GetMapping("/uploads/blobs/stats")
+    public ResponseEntity<Map<String, Object>> getUploadBlobStats() {
+        return ResponseEntity.ok(uploadBlobStore.getStats());
+    }
+
     @PutMapping("/notifications/{userId}/read-all")
     public ResponseEntity<String> markAllNotificationsAsRead(@PathVariable Long userId) {
         notificationService.markAllAsRead(userId);
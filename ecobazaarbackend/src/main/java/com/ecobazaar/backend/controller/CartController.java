@@ -1,6 +1,7 @@
 package com.ecobazaar.backend.controller;
 
 import com.ecobazaar.backend.dto.CartItemDto;
+import com.ecobazaar.backend.dto.CartSummaryDto;
 import com.ecobazaar.backend.entity.Cart;
 import com.ecobazaar.backend.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,6 +36,11 @@ public class CartController {
         return ResponseEntity.ok(cartService.getUserCartDetails(userId));
     }
 
+    @GetMapping("/summary/{userId}")
+    public ResponseEntity<CartSummaryDto> getCartSummary(@PathVariable Long userId) {
+        return ResponseEntity.ok(cartService.getUserCartSummary(userId));
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<List<Cart>> getCartRaw(@PathVariable Long userId) {
         return ResponseEntity.ok(cartService.getCartItems(userId));
@@ -102,7 +102,6 @@ public class CustomerController {
     
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userDetailsService.getUserIdByUsername(username);
+        return userDetailsService.getUserId(authentication);
     }
 }
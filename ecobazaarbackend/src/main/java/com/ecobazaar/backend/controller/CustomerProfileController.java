@@ -3,7 +3,9 @@ package com.ecobazaar.backend.controller;
 import com.ecobazaar.backend.dto.CarbonAnalyticsDto;
 import com.ecobazaar.backend.dto.CustomerProfileUpdateDto;
 import com.ecobazaar.backend.entity.CustomerProfile;
+import com.ecobazaar.backend.entity.EcoPointsLedgerEntry;
 import com.ecobazaar.backend.service.CustomerProfileService;
+import com.ecobazaar.backend.service.EcoPointsLedgerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +19,9 @@ public class CustomerProfileController {
     @Autowired
     private CustomerProfileService customerProfileService;
 
+    @Autowired
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
     @GetMapping("/{userId}")
     public ResponseEntity<CustomerProfile> getCustomerProfile(@PathVariable Long userId) {
         try {
@@ -49,13 +54,18 @@ public class CustomerProfileController {
         }
     }
 
+        // Read-only: balances change only through ledger entries (orders, redemptions, award-eco-points)
         @PostMapping("/{userId}/update-eco-points")
-        public ResponseEntity<String> updateEcoPoints(@PathVariable Long userId) {
+        public ResponseEntity<Map<String, Object>> updateEcoPoints(@PathVariable Long userId) {
             try {
-                customerProfileService.updateEcoPoints(userId);
-                return ResponseEntity.ok("Eco points updated successfully");
+                Map<String, Object> result = new java.util.HashMap<>();
+                result.put("userId", userId);
+                result.put("ecoPoints", customerProfileService.getEcoPointsBalance(userId));
+                return ResponseEntity.ok(result);
             } catch (Exception e) {
-                return ResponseEntity.badRequest().body("Error updating eco points: " + e.getMessage());
+                Map<String, Object> error = new java.util.HashMap<>();
+                error.put("error", "Error reading eco points: " + e.getMessage());
+                return ResponseEntity.badRequest().body(error);
             }
         }
 
@@ -65,7 +75,7 @@ public class CustomerProfileController {
                 CustomerProfile profile = customerProfileService.getCustomerProfile(userId);
                 Map<String, Object> debug = new java.util.HashMap<>();
                 debug.put("userId", userId);
-                debug.put("ecoPoints", profile.getEcoPoints());
+                debug.put("ecoPoints", ecoPointsLedgerService.getBalance(userId));
                 debug.put("firstName", profile.getFirstName());
                 debug.put("lastName", profile.getLastName());
                 debug.put("email", profile.getEmail());
@@ -81,20 +91,11 @@ public class CustomerProfileController {
         public ResponseEntity<Map<String, Object>> awardEcoPoints(@PathVariable Long userId, @RequestBody Map<String, Object> request) {
             try {
                 Integer points = Integer.parseInt(request.get("points").toString());
-                CustomerProfile profile = customerProfileService.getCustomerProfile(userId);
-                
-                int currentPoints = profile.getEcoPoints() != null ? profile.getEcoPoints() : 0;
-                int newPoints = currentPoints + points;
-                profile.setEcoPoints(newPoints);
+                customerProfileService.getCustomerProfile(userId);
                 
-                CustomerProfile savedProfile = customerProfileService.updateCustomerProfile(userId, 
-                    new CustomerProfileUpdateDto(
-                        profile.getEmail(), profile.getFirstName(), profile.getLastName(),
-                        profile.getPhone(), profile.getDateOfBirth(), profile.getStreetAddress(),
-                        profile.getCity(), profile.getState(), profile.getZipCode(), profile.getCountry(),
-                        profile.getEmailNotifications(), profile.getSmsNotifications(),
-                        profile.getNewsletter(), profile.getEcoTips()
-                    ));
+                int currentPoints = ecoPointsLedgerService.getBalance(userId);
+                int newPoints = ecoPointsLedgerService.credit(userId, points,
+                    EcoPointsLedgerEntry.Reason.ADJUSTMENT, null);
                 
                 Map<String, Object> result = new java.util.HashMap<>();
                 result.put("success", true);
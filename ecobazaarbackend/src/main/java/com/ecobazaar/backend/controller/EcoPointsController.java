@@ -1,5 +1,7 @@
 package com.ecobazaar.backend.controller;
 
+import com.ecobazaar.backend.entity.EcoPointsLedgerEntry;
+import com.ecobazaar.backend.service.EcoPointsLedgerService;
 import com.ecobazaar.backend.service.EcoPointsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +21,9 @@ public class EcoPointsController {
     @Autowired
     private EcoPointsService ecoPointsService;
 
+    @Autowired
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
     @Autowired
     private com.ecobazaar.backend.security.UserDetailsServiceImpl userDetailsService;
 
@@ -79,6 +84,17 @@ public class EcoPointsController {
         }
     }
 
+    // Most recent balance changes first
+    @GetMapping("/history")
+    public ResponseEntity<List<EcoPointsLedgerEntry>> getHistory(@RequestParam(defaultValue = "50") int limit) {
+        try {
+            Long userId = getCurrentUserId();
+            return ResponseEntity.ok(ecoPointsLedgerService.getRecentEntries(userId, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/rules")
     public ResponseEntity<Map<String, Object>> getRedemptionRules() {
         try {
@@ -95,7 +111,6 @@ public class EcoPointsController {
 
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userDetailsService.getUserIdByUsername(username);
+        return userDetailsService.getUserId(authentication);
     }
 }
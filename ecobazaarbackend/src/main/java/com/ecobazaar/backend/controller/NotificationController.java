@@ -1,12 +1,23 @@
 package com.ecobazaar.backend.controller;
 
+import com.ecobazaar.backend.dto.CursorPageDto;
 import com.ecobazaar.backend.dto.NotificationDto;
+import com.ecobazaar.backend.security.StreamTicketService;
+import com.ecobazaar.backend.security.UserDetailsServiceImpl;
 import com.ecobazaar.backend.service.NotificationService;
+import com.ecobazaar.backend.service.NotificationStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -16,6 +27,39 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
+    @Autowired
+    private StreamTicketService streamTicketService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    // Single-use ticket for opening the stream; requires the usual bearer token
+    @PostMapping("/stream/ticket")
+    public ResponseEntity<Map<String, Object>> createStreamTicket() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Long userId = userDetailsService.getUserId(authentication);
+        return ResponseEntity.ok(Map.of(
+            "ticket", streamTicketService.issue(userId),
+            "expiresInSeconds", streamTicketService.getTicketTtlSeconds()
+        ));
+    }
+
+    // Live notifications and unread count for the ticket's user (replaces polling)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(@RequestParam(required = false) String ticket) {
+        Long userId = streamTicketService.redeem(ticket);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(notificationStreamService.subscribe(userId));
+    }
+
     // Get all notifications for a user
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<NotificationDto>> getUserNotifications(@PathVariable Long userId) {
@@ -23,6 +67,20 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    // Keyset-paged notifications for a user, newest first
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<CursorPageDto<NotificationDto>> getNotificationPage(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(notificationService.getNotificationPage(userId, unreadOnly, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Get unread notifications for a user
     @GetMapping("/user/{userId}/unread")
     public ResponseEntity<List<NotificationDto>> getUnreadNotifications(@PathVariable Long userId) {
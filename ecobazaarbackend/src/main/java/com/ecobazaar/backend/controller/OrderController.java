@@ -120,7 +120,6 @@ public class OrderController {
     
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userDetailsService.getUserIdByUsername(username);
+        return userDetailsService.getUserId(authentication);
     }
 }
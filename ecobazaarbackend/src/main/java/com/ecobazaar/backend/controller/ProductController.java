@@ -1,11 +1,18 @@
 package com.ecobazaar.backend.controller;
 
+import com.ecobazaar.backend.dto.CursorPageDto;
+import com.ecobazaar.backend.dto.ProductSearchResultDto;
+import com.ecobazaar.backend.dto.ProductSummaryDto;
+import com.ecobazaar.backend.dto.SuggestionDto;
 import com.ecobazaar.backend.entity.Product;
+import com.ecobazaar.backend.service.AutocompleteService;
+import com.ecobazaar.backend.service.ProductSearchService;
 import com.ecobazaar.backend.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -16,6 +23,12 @@ public class ProductController {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private ProductSearchService productSearchService;
+    
+    @Autowired
+    private AutocompleteService autocompleteService;
+    
     @GetMapping
     public ResponseEntity<List<Product>> getAllProducts() {
         return ResponseEntity.ok(productService.getAllActiveProducts());
@@ -24,7 +37,7 @@ public class ProductController {
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
         try {
-            Product product = productService.getProductById(id);
+            Product product = productService.getProductDetail(id);
             return ResponseEntity.ok(product);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -33,18 +46,69 @@ public class ProductController {
         }
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDto<ProductSummaryDto>> getProductPage(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long sellerId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean ecoFriendly,
+            @RequestParam(required = false) BigDecimal maxCarbonScore,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productService.getActiveProductPage(
+                    categoryId, sellerId, minPrice, maxPrice, ecoFriendly, maxCarbonScore, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Ranked full-text search over name, description and category, with facet counts
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResultDto> searchProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean ecoFriendly,
+            @RequestParam(defaultValue = "true") boolean boostEco,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(productSearchService.search(q, categoryId, minPrice, maxPrice,
+                                                             ecoFriendly, boostEco, page, size));
+    }
+    
+    // Product and category suggestions for the search box, most ordered first
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<SuggestionDto>> autocomplete(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(autocompleteService.suggest(q, limit));
+    }
+    
+    // The list endpoints below return the first page of the keyset listing;
+    // use /page with the nextCursor to read further
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(productService.getProductsByCategory(categoryId));
+    public ResponseEntity<List<ProductSummaryDto>> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.getActiveProductPage(
+                categoryId, null, null, null, null, null, null, limit).getItems());
     }
     
     @GetMapping("/eco-friendly")
-    public ResponseEntity<List<Product>> getEcoFriendlyProducts() {
-        return ResponseEntity.ok(productService.getEcoFriendlyProducts());
+    public ResponseEntity<List<ProductSummaryDto>> getEcoFriendlyProducts(
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.getActiveProductPage(
+                null, null, null, null, true, null, null, limit).getItems());
     }
     
     @GetMapping("/seller/{sellerId}")
-    public ResponseEntity<List<Product>> getProductsBySeller(@PathVariable Long sellerId) {
-        return ResponseEntity.ok(productService.getProductsBySeller(sellerId));
+    public ResponseEntity<List<ProductSummaryDto>> getProductsBySeller(
+            @PathVariable Long sellerId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.getActiveProductPage(
+                null, sellerId, null, null, null, null, null, limit).getItems());
     }
 }
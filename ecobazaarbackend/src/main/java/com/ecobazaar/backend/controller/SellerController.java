@@ -4,12 +4,13 @@ import com.ecobazaar.backend.dto.DashboardStatsDto;
 import com.ecobazaar.backend.entity.Order;
 import com.ecobazaar.backend.entity.Product;
 import com.ecobazaar.backend.entity.Profile;
-import com.ecobazaar.backend.entity.User;
+import com.ecobazaar.backend.security.UserDetailsServiceImpl;
+import com.ecobazaar.backend.service.ImageUploadService;
 import com.ecobazaar.backend.service.OrderService;
 import com.ecobazaar.backend.service.ProductService;
 import com.ecobazaar.backend.service.ProfileService;
 import com.ecobazaar.backend.service.SellerService;
-import com.ecobazaar.backend.service.UserService;
+import com.ecobazaar.backend.service.UploadBlobStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -17,13 +18,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/seller")
@@ -40,28 +35,30 @@ public class SellerController {
     private OrderService orderService;
 
     @Autowired
-    private UserService userService;
+    private UserDetailsServiceImpl userDetailsService;
 
     @Autowired
     private ProfileService profileService;
 
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private UploadBlobStore uploadBlobStore;
+
     @GetMapping("/dashboard/stats")
     public ResponseEntity<DashboardStatsDto> getDashboardStats() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User seller = userService.findByUsername(username);
+        Long sellerId = getCurrentUserId();
         
-        DashboardStatsDto stats = sellerService.getDashboardStats(seller.getId());
+        DashboardStatsDto stats = sellerService.getDashboardStats(sellerId);
         return ResponseEntity.ok(stats);
     }
 
     @GetMapping("/products")
     public ResponseEntity<List<Product>> getSellerProducts() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User seller = userService.findByUsername(username);
+        Long sellerId = getCurrentUserId();
         
-        List<Product> products = productService.getProductsBySeller(seller.getId());
+        List<Product> products = productService.getProductsBySeller(sellerId);
         return ResponseEntity.ok(products);
     }
 
@@ -77,10 +74,9 @@ public class SellerController {
                                               @RequestParam("ecoFriendly") String ecoFriendly,
                                               @RequestParam(value = "image", required = false) MultipartFile image,
                                               @RequestParam(value = "imageUrl", required = false) String imageUrl) {
+        String uploadedImageUrl = null;
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User seller = userService.findByUsername(username);
+            Long sellerId = getCurrentUserId();
             
             Product product = new Product();
             product.setName(name);
@@ -102,45 +98,28 @@ public class SellerController {
             // Handle image upload or URL
             if (image != null && !image.isEmpty()) {
                 // Handle file upload
-                String uploadedImageUrl = saveUploadedFile(image);
+                uploadedImageUrl = imageUploadService.store(image);
                 product.setImageUrl(uploadedImageUrl);
             } else if (imageUrl != null && !imageUrl.trim().isEmpty()) {
-                // Handle URL
+                // Handle URL; a stored blob's URL takes its own reference, as an upload does
+                if (uploadBlobStore.retain(imageUrl.trim())) {
+                    uploadedImageUrl = imageUrl.trim();
+                }
                 product.setImageUrl(imageUrl.trim());
             }
             
-            Product newProduct = productService.createProduct(product, seller.getId());
+            Product newProduct = productService.createProduct(product, sellerId);
             return ResponseEntity.ok(newProduct);
         } catch (Exception e) {
             e.printStackTrace();
+            // The product was not saved, so it holds no reference to the upload
+            if (uploadedImageUrl != null) {
+                uploadBlobStore.release(uploadedImageUrl);
+            }
             return ResponseEntity.badRequest().build();
         }
     }
     
-    private String saveUploadedFile(MultipartFile file) throws IOException {
-        // Create upload directory if it doesn't exist
-        String uploadDir = "uploads/images";
-        File dir = new File(uploadDir);
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
-        
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null || originalFilename.isEmpty()) {
-            throw new IllegalArgumentException("File name cannot be null or empty");
-        }
-        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String filename = UUID.randomUUID().toString() + extension;
-        
-        // Save file
-        Path filePath = Paths.get(uploadDir, filename);
-        Files.copy(file.getInputStream(), filePath);
-        
-        // Return URL path
-        return "/uploads/images/" + filename;
-    }
-
     @PutMapping("/products/{id}")
     public ResponseEntity<Product> updateProduct(@PathVariable Long id,
                                                  @RequestParam("name") String name,
@@ -154,72 +133,80 @@ public class SellerController {
                                                  @RequestParam("ecoFriendly") String ecoFriendly,
                                                  @RequestParam(value = "image", required = false) MultipartFile image,
                                                  @RequestParam(value = "imageUrl", required = false) String imageUrl) {
+        String uploadedImageUrl = null;
         try {
             System.out.println("=== UPDATE PRODUCT DEBUG ===");
             System.out.println("Product ID: " + id);
             System.out.println("Image file: " + (image != null ? image.getOriginalFilename() : "null"));
             System.out.println("Image URL: " + imageUrl);
             System.out.println("=============================");
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User seller = userService.findByUsername(username);
+            Long sellerId = getCurrentUserId();
             
             // Verify the product belongs to the seller
             Product existingProduct = productService.getProductById(id);
-            if (!existingProduct.getSeller().getId().equals(seller.getId())) {
+            if (!existingProduct.getSeller().getId().equals(sellerId)) {
                 return ResponseEntity.badRequest().build();
             }
             
-            // Update product details
-            existingProduct.setName(name);
-            existingProduct.setDescription(description);
-            existingProduct.setPrice(new java.math.BigDecimal(price));
-            existingProduct.setStockQuantity(Integer.parseInt(stockQuantity));
-            existingProduct.setWeightKg(new java.math.BigDecimal(weight));
-            existingProduct.setShippingDistanceKm(new java.math.BigDecimal(shippingDistance));
-            existingProduct.setCarbonScore(new java.math.BigDecimal(carbonFootprintScore));
-            existingProduct.setIsEcoFriendly(Boolean.parseBoolean(ecoFriendly));
+            // Collect the new details separately so the loaded product keeps its
+            // original state until ProductService applies the update
+            Product productDetails = new Product();
+            productDetails.setCategory(existingProduct.getCategory());
+            productDetails.setImageUrl(existingProduct.getImageUrl());
+            productDetails.setName(name);
+            productDetails.setDescription(description);
+            productDetails.setPrice(new java.math.BigDecimal(price));
+            productDetails.setStockQuantity(Integer.parseInt(stockQuantity));
+            productDetails.setWeightKg(new java.math.BigDecimal(weight));
+            productDetails.setShippingDistanceKm(new java.math.BigDecimal(shippingDistance));
+            productDetails.setCarbonScore(new java.math.BigDecimal(carbonFootprintScore));
+            productDetails.setIsEcoFriendly(Boolean.parseBoolean(ecoFriendly));
             
             // Handle category
             if (categoryId != null && !categoryId.isEmpty()) {
                 com.ecobazaar.backend.entity.Category category = new com.ecobazaar.backend.entity.Category();
                 category.setId(Long.parseLong(categoryId));
-                existingProduct.setCategory(category);
+                productDetails.setCategory(category);
             }
             
             // Handle image upload or URL update
             if (image != null && !image.isEmpty()) {
                 // Handle file upload
                 System.out.println("Handling file upload: " + image.getOriginalFilename());
-                String uploadedImageUrl = saveUploadedFile(image);
-                existingProduct.setImageUrl(uploadedImageUrl);
+                uploadedImageUrl = imageUploadService.store(image);
+                productDetails.setImageUrl(uploadedImageUrl);
                 System.out.println("Saved file with URL: " + uploadedImageUrl);
             } else if (imageUrl != null && !imageUrl.trim().isEmpty()) {
                 // Handle URL update
                 System.out.println("Handling URL update: " + imageUrl.trim());
-                existingProduct.setImageUrl(imageUrl.trim());
+                // A stored blob's URL takes its own reference, as an upload does
+                if (uploadBlobStore.retain(imageUrl.trim())) {
+                    uploadedImageUrl = imageUrl.trim();
+                }
+                productDetails.setImageUrl(imageUrl.trim());
                 System.out.println("Updated image URL to: " + imageUrl.trim());
             } else {
                 System.out.println("No image update provided");
             }
             
-            Product updatedProduct = productService.updateProduct(id, existingProduct);
+            Product updatedProduct = productService.updateProduct(id, productDetails, uploadedImageUrl != null);
             return ResponseEntity.ok(updatedProduct);
         } catch (Exception e) {
             e.printStackTrace();
+            if (uploadedImageUrl != null) {
+                uploadBlobStore.release(uploadedImageUrl);
+            }
             return ResponseEntity.badRequest().build();
         }
     }
 
     @DeleteMapping("/products/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User seller = userService.findByUsername(username);
+        Long sellerId = getCurrentUserId();
         
         // Verify the product belongs to the seller
         Product existingProduct = productService.getProductById(id);
-        if (!existingProduct.getSeller().getId().equals(seller.getId())) {
+        if (!existingProduct.getSeller().getId().equals(sellerId)) {
             return ResponseEntity.badRequest().build();
         }
         
@@ -229,51 +216,46 @@ public class SellerController {
 
     @GetMapping("/orders")
     public ResponseEntity<List<Order>> getSellerOrders() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User seller = userService.findByUsername(username);
+        Long sellerId = getCurrentUserId();
         
-        List<Order> orders = orderService.getSellerOrders(seller.getId());
+        List<Order> orders = orderService.getSellerOrders(sellerId);
         return ResponseEntity.ok(orders);
     }
 
     @PutMapping("/orders/{id}/confirm")
     public ResponseEntity<Order> confirmOrder(@PathVariable Long id) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User seller = userService.findByUsername(username);
+        Long sellerId = getCurrentUserId();
         
-        Order order = orderService.confirmOrder(id, seller.getId());
+        Order order = orderService.confirmOrder(id, sellerId);
         return ResponseEntity.ok(order);
     }
 
     @PutMapping("/orders/{id}/ship")
     public ResponseEntity<Order> markAsShipped(@PathVariable Long id, @RequestParam(required = false) String trackingNumber) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User seller = userService.findByUsername(username);
+        Long sellerId = getCurrentUserId();
         
-        Order order = orderService.markAsShipped(id, seller.getId(), trackingNumber);
+        Order order = orderService.markAsShipped(id, sellerId, trackingNumber);
         return ResponseEntity.ok(order);
     }
 
     @GetMapping("/profile")
     public ResponseEntity<Profile> getSellerProfile() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User seller = userService.findByUsername(username);
+        Long sellerId = getCurrentUserId();
         
-        Profile profile = profileService.getProfileByUserId(seller.getId());
+        Profile profile = profileService.getProfileByUserId(sellerId);
         return ResponseEntity.ok(profile);
     }
 
     @PutMapping("/profile")
     public ResponseEntity<Profile> updateSellerProfile(@RequestBody Profile profileData) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User seller = userService.findByUsername(username);
+        Long sellerId = getCurrentUserId();
         
-        Profile updatedProfile = profileService.updateProfile(seller.getId(), profileData);
+        Profile updatedProfile = profileService.updateProfile(sellerId, profileData);
         return ResponseEntity.ok(updatedProfile);
     }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return userDetailsService.getUserId(authentication);
+    }
 }
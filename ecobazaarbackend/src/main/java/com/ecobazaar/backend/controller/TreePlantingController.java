@@ -1,15 +1,19 @@
 package com.ecobazaar.backend.controller;
 
+import com.ecobazaar.backend.dto.CursorPageDto;
+import com.ecobazaar.backend.dto.TreePlantingReviewItemDto;
 import com.ecobazaar.backend.entity.TreePlantingSubmission;
 import com.ecobazaar.backend.service.TreePlantingService;
 import com.ecobazaar.backend.security.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -69,6 +73,43 @@ public class TreePlantingController {
         }
     }
     
+    // Admin review queue: one keyset page of lean rows, sort=newest (default) or risk; pass back nextCursor as cursor for the next page
+    @GetMapping("/review-queue")
+    public ResponseEntity<CursorPageDto<TreePlantingReviewItemDto>> getReviewQueue(
+            @RequestParam(required = false) TreePlantingSubmission.SubmissionStatus status,
+            @RequestParam(required = false) Boolean ecoFriendly,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (!sort.equals("newest") && !sort.equals("risk")) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(treePlantingService.getReviewQueuePage(status, ecoFriendly, from, to,
+                                                                            sort.equals("risk"), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/review/bulk")
+    public ResponseEntity<?> bulkReview(@RequestBody Map<String, Object> request) {
+        try {
+            Long adminId = getCurrentUserId();
+            boolean approved = (Boolean) request.get("approved");
+            String adminNotes = (String) request.get("adminNotes");
+            List<Long> submissionIds = ((List<?>) request.get("submissionIds")).stream()
+                    .map(id -> ((Number) id).longValue())
+                    .toList();
+            
+            return ResponseEntity.ok(treePlantingService.bulkReview(submissionIds, approved, adminNotes, adminId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+    
     @PostMapping("/review/{submissionId}")
     public ResponseEntity<?> reviewSubmission(
             @PathVariable Long submissionId,
@@ -102,7 +143,6 @@ public class TreePlantingController {
     
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userDetailsService.getUserIdByUsername(username);
+        return userDetailsService.getUserId(authentication);
     }
 }
@@ -0,0 +1,23 @@
+package com.ecobazaar.backend.controller;
+
+import com.ecobazaar.backend.service.UploadServingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+// Uploaded files; GET mappings also answer HEAD
+@RestController
+public class UploadController {
+
+    @Autowired
+    private UploadServingService uploadServingService;
+
+    @GetMapping("/uploads/**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        uploadServingService.serve(request, response);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecobazaar.backend.dto;
+
+public class CacheStatsDto {
+    private String name;
+    private Integer size;
+    private Integer maxEntries;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Double hitRate;
+
+    public CacheStatsDto() {}
+
+    public CacheStatsDto(String name, Integer size, Integer maxEntries, Long hits, Long misses, Long evictions) {
+        this.name = name;
+        this.size = size;
+        this.maxEntries = maxEntries;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        long lookups = hits + misses;
+        this.hitRate = lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+
+    public Integer getMaxEntries() { return maxEntries; }
+    public void setMaxEntries(Integer maxEntries) { this.maxEntries = maxEntries; }
+
+    public Long getHits() { return hits; }
+    public void setHits(Long hits) { this.hits = hits; }
+
+    public Long getMisses() { return misses; }
+    public void setMisses(Long misses) { this.misses = misses; }
+
+    public Long getEvictions() { return evictions; }
+    public void setEvictions(Long evictions) { this.evictions = evictions; }
+
+    public Double getHitRate() { return hitRate; }
+    public void setHitRate(Double hitRate) { this.hitRate = hitRate; }
+}
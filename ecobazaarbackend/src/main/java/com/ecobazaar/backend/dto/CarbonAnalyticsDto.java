@@ -1,5 +1,7 @@
 package com.ecobazaar.backend.dto;
 
+import com.ecobazaar.backend.entity.OrderStatus;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -128,6 +130,12 @@ public class CarbonAnalyticsDto {
         this.ecoPointsEarned = ecoPointsEarned;
     }
 
+    // JPQL projection; ecoPointsEarned is filled in by the service
+    public OrderCarbonDto(Long orderId, BigDecimal totalPrice, BigDecimal carbonScore,
+                         OrderStatus status, LocalDateTime orderDate) {
+        this(orderId, totalPrice, carbonScore, status != null ? status.toString() : null, orderDate, 0);
+    }
+
     public Long getOrderId() { return orderId; }
     public void setOrderId(Long orderId) { this.orderId = orderId; }
 
@@ -1,5 +1,7 @@
 package com.ecobazaar.backend.dto;
 
+import java.math.BigDecimal;
+
 public class CartItemDto {
     private Long cartId;
     private Long productId;
@@ -25,6 +27,13 @@ public class CartItemDto {
         this.carbonSaved = carbonSaved;
     }
 
+    // Used by the cart JPQL constructor projection, which reads the price column as BigDecimal
+    public CartItemDto(Long cartId, Long productId, String name, String image,
+                       BigDecimal price, Integer quantity, Integer ecoPoints, Double carbonSaved) {
+        this(cartId, productId, name, image, price != null ? price.doubleValue() : 0.0,
+             quantity, ecoPoints, carbonSaved);
+    }
+
     public Long getCartId() {
         return cartId;
     }
@@ -0,0 +1,47 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+/**
+ * Cart page payload: the line items plus their totals, so clients do not
+ * recompute subtotal, eco points and carbon reduction themselves.
+ */
+public class CartSummaryDto {
+    private List<CartItemDto> items;
+    private Integer itemCount;
+    private Integer totalQuantity;
+    private Double subtotal;
+    private Integer totalEcoPoints;
+    private Double totalCarbonReduction;
+
+    public CartSummaryDto() {}
+
+    public CartSummaryDto(List<CartItemDto> items, Integer itemCount, Integer totalQuantity,
+                          Double subtotal, Integer totalEcoPoints, Double totalCarbonReduction) {
+        this.items = items;
+        this.itemCount = itemCount;
+        this.totalQuantity = totalQuantity;
+        this.subtotal = subtotal;
+        this.totalEcoPoints = totalEcoPoints;
+        this.totalCarbonReduction = totalCarbonReduction;
+    }
+
+    // Getters and Setters
+    public List<CartItemDto> getItems() { return items; }
+    public void setItems(List<CartItemDto> items) { this.items = items; }
+
+    public Integer getItemCount() { return itemCount; }
+    public void setItemCount(Integer itemCount) { this.itemCount = itemCount; }
+
+    public Integer getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(Integer totalQuantity) { this.totalQuantity = totalQuantity; }
+
+    public Double getSubtotal() { return subtotal; }
+    public void setSubtotal(Double subtotal) { this.subtotal = subtotal; }
+
+    public Integer getTotalEcoPoints() { return totalEcoPoints; }
+    public void setTotalEcoPoints(Integer totalEcoPoints) { this.totalEcoPoints = totalEcoPoints; }
+
+    public Double getTotalCarbonReduction() { return totalCarbonReduction; }
+    public void setTotalCarbonReduction(Double totalCarbonReduction) { this.totalCarbonReduction = totalCarbonReduction; }
+}
@@ -0,0 +1,31 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass nextCursor back as the
+ * "cursor" request parameter to fetch the following page.
+ */
+public class CursorPageDto<T> {
+    private List<T> items;
+    private String nextCursor;
+    private Boolean hasMore;
+
+    public CursorPageDto() {}
+
+    public CursorPageDto(List<T> items, String nextCursor, Boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Boolean getHasMore() { return hasMore; }
+    public void setHasMore(Boolean hasMore) { this.hasMore = hasMore; }
+}
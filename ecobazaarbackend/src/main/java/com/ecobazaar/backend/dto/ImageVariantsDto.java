@@ -0,0 +1,93 @@
+package com.ecobazaar.backend.dto;
+
+/**
+ * Resized copies of an uploaded image. A variant of /uploads/{folder}/{file}
+ * lives at /uploads/{folder}/{variant}/{file}; until it has been generated
+ * (or for formats that are not resized) that URL serves the original, so
+ * clients can always use the smallest variant that fits. Images hosted
+ * elsewhere have no variants and every field is the original URL.
+ */
+public class ImageVariantsDto {
+
+    public enum Variant {
+        THUMBNAIL("thumb", 160),
+        CARD("card", 480),
+        DETAIL("detail", 1200);
+
+        private final String directory;
+        private final int maxDimension;
+
+        Variant(String directory, int maxDimension) {
+            this.directory = directory;
+            this.maxDimension = maxDimension;
+        }
+
+        public String getDirectory() { return directory; }
+        public int getMaxDimension() { return maxDimension; }
+
+        public static Variant fromDirectory(String directory) {
+            for (Variant variant : values()) {
+                if (variant.directory.equals(directory)) {
+                    return variant;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final String UPLOADS_PREFIX = "/uploads/";
+
+    private String thumbnail;
+    private String card;
+    private String detail;
+
+    public ImageVariantsDto() {}
+
+    public ImageVariantsDto(String thumbnail, String card, String detail) {
+        this.thumbnail = thumbnail;
+        this.card = card;
+        this.detail = detail;
+    }
+
+    public static ImageVariantsDto of(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return null;
+        }
+        return new ImageVariantsDto(urlFor(imageUrl, Variant.THUMBNAIL), urlFor(imageUrl, Variant.CARD),
+                                    urlFor(imageUrl, Variant.DETAIL));
+    }
+
+    public static String urlFor(String imageUrl, Variant variant) {
+        if (!imageUrl.startsWith(UPLOADS_PREFIX)) {
+            return imageUrl;
+        }
+        int slash = imageUrl.lastIndexOf('/');
+        return imageUrl.substring(0, slash + 1) + variant.directory + imageUrl.substring(slash);
+    }
+
+    /**
+     * Maps a path relative to the uploads root ("images/card/x.jpg") back to
+     * its original ("images/x.jpg"); returns null if it is not a variant path.
+     */
+    public static String originalPath(String variantPath) {
+        int fileSlash = variantPath.lastIndexOf('/');
+        if (fileSlash <= 0) {
+            return null;
+        }
+        int dirSlash = variantPath.lastIndexOf('/', fileSlash - 1);
+        if (Variant.fromDirectory(variantPath.substring(dirSlash + 1, fileSlash)) == null) {
+            return null;
+        }
+        return variantPath.substring(0, dirSlash + 1) + variantPath.substring(fileSlash + 1);
+    }
+
+    // Getters and Setters
+    public String getThumbnail() { return thumbnail; }
+    public void setThumbnail(String thumbnail) { this.thumbnail = thumbnail; }
+
+    public String getCard() { return card; }
+    public void setCard(String card) { this.card = card; }
+
+    public String getDetail() { return detail; }
+    public void setDetail(String detail) { this.detail = detail; }
+}
@@ -0,0 +1,71 @@
+package com.ecobazaar.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque (timestamp, id) position used for keyset pagination, optionally
+ * led by an integer rank for orderings such as "highest risk first".
+ * Encoded as URL-safe base64 so clients treat it as a token rather than
+ * parsing it.
+ */
+public class KeysetCursor {
+    private final Integer rank;
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public KeysetCursor(LocalDateTime timestamp, Long id) {
+        this(null, timestamp, id);
+    }
+
+    public KeysetCursor(Integer rank, LocalDateTime timestamp, Long id) {
+        this.rank = rank;
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public Integer getRank() { return rank; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public Long getId() { return id; }
+
+    public String encode() {
+        if (timestamp == null || id == null) {
+            // "null|5" would only fail later, when the client sends it back
+            throw new IllegalStateException("Cannot encode a cursor without a timestamp and id");
+        }
+        String raw = timestamp + "|" + id + (rank != null ? "|" + rank : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a missing cursor (first page) and throws
+     * IllegalArgumentException for one that cannot be decoded.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2 && parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(parts.length == 3 ? Integer.valueOf(parts[2]) : null,
+                                    LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    /** Like decode, but rejects a cursor that does not carry a rank. */
+    public static KeysetCursor decodeRanked(String cursor) {
+        KeysetCursor decoded = decode(cursor);
+        if (decoded != null && decoded.rank == null) {
+            throw new IllegalArgumentException("Cursor belongs to a different ordering");
+        }
+        return decoded;
+    }
+}
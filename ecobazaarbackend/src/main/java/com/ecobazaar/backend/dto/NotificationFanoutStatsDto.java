@@ -0,0 +1,52 @@
+package com.ecobazaar.backend.dto;
+
+public class NotificationFanoutStatsDto {
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long enqueued;
+    private Long rowsWritten;
+    private Long batchesWritten;
+    private Long callerWrites;
+    private Long failedRows;
+    private Double lastBatchRowsPerSecond;
+
+    public NotificationFanoutStatsDto() {}
+
+    public NotificationFanoutStatsDto(Integer queueDepth, Integer queueCapacity, Long enqueued, Long rowsWritten,
+                                      Long batchesWritten, Long callerWrites, Long failedRows,
+                                      Double lastBatchRowsPerSecond) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.enqueued = enqueued;
+        this.rowsWritten = rowsWritten;
+        this.batchesWritten = batchesWritten;
+        this.callerWrites = callerWrites;
+        this.failedRows = failedRows;
+        this.lastBatchRowsPerSecond = lastBatchRowsPerSecond;
+    }
+
+    // Getters and Setters
+    public Integer getQueueDepth() { return queueDepth; }
+    public void setQueueDepth(Integer queueDepth) { this.queueDepth = queueDepth; }
+
+    public Integer getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(Integer queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public Long getEnqueued() { return enqueued; }
+    public void setEnqueued(Long enqueued) { this.enqueued = enqueued; }
+
+    public Long getRowsWritten() { return rowsWritten; }
+    public void setRowsWritten(Long rowsWritten) { this.rowsWritten = rowsWritten; }
+
+    public Long getBatchesWritten() { return batchesWritten; }
+    public void setBatchesWritten(Long batchesWritten) { this.batchesWritten = batchesWritten; }
+
+    public Long getCallerWrites() { return callerWrites; }
+    public void setCallerWrites(Long callerWrites) { this.callerWrites = callerWrites; }
+
+    public Long getFailedRows() { return failedRows; }
+    public void setFailedRows(Long failedRows) { this.failedRows = failedRows; }
+
+    public Double getLastBatchRowsPerSecond() { return lastBatchRowsPerSecond; }
+    public void setLastBatchRowsPerSecond(Double lastBatchRowsPerSecond) { this.lastBatchRowsPerSecond = lastBatchRowsPerSecond; }
+}
@@ -0,0 +1,43 @@
+package com.ecobazaar.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class NotificationRetentionStatsDto {
+    private Long totalRowsArchived;
+    private Long lastRunRowsArchived;
+    private Long lastRunMillis;
+    private LocalDateTime lastRunAt;
+    private Long notificationTableRows;
+    private Long archiveTableRows;
+
+    public NotificationRetentionStatsDto() {}
+
+    public NotificationRetentionStatsDto(Long totalRowsArchived, Long lastRunRowsArchived, Long lastRunMillis,
+                                         LocalDateTime lastRunAt, Long notificationTableRows, Long archiveTableRows) {
+        this.totalRowsArchived = totalRowsArchived;
+        this.lastRunRowsArchived = lastRunRowsArchived;
+        this.lastRunMillis = lastRunMillis;
+        this.lastRunAt = lastRunAt;
+        this.notificationTableRows = notificationTableRows;
+        this.archiveTableRows = archiveTableRows;
+    }
+
+    // Getters and Setters
+    public Long getTotalRowsArchived() { return totalRowsArchived; }
+    public void setTotalRowsArchived(Long totalRowsArchived) { this.totalRowsArchived = totalRowsArchived; }
+
+    public Long getLastRunRowsArchived() { return lastRunRowsArchived; }
+    public void setLastRunRowsArchived(Long lastRunRowsArchived) { this.lastRunRowsArchived = lastRunRowsArchived; }
+
+    public Long getLastRunMillis() { return lastRunMillis; }
+    public void setLastRunMillis(Long lastRunMillis) { this.lastRunMillis = lastRunMillis; }
+
+    public LocalDateTime getLastRunAt() { return lastRunAt; }
+    public void setLastRunAt(LocalDateTime lastRunAt) { this.lastRunAt = lastRunAt; }
+
+    public Long getNotificationTableRows() { return notificationTableRows; }
+    public void setNotificationTableRows(Long notificationTableRows) { this.notificationTableRows = notificationTableRows; }
+
+    public Long getArchiveTableRows() { return archiveTableRows; }
+    public void setArchiveTableRows(Long archiveTableRows) { this.archiveTableRows = archiveTableRows; }
+}
@@ -0,0 +1,48 @@
+package com.ecobazaar.backend.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Stable JSON shape for offset-paged admin listings, so responses do not
+ * depend on how Spring Data serializes its own Page implementation.
+ */
+public class PageDto<T> {
+    private List<T> items;
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+
+    public PageDto() {}
+
+    public PageDto(List<T> items, Integer page, Integer size, Long totalElements, Integer totalPages) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    public static <T> PageDto<T> from(Page<T> page) {
+        return new PageDto<>(page.getContent(), page.getNumber(), page.getSize(),
+                             page.getTotalElements(), page.getTotalPages());
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public Integer getPage() { return page; }
+    public void setPage(Integer page) { this.page = page; }
+
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
+
+    public Integer getTotalPages() { return totalPages; }
+    public void setTotalPages(Integer totalPages) { this.totalPages = totalPages; }
+}
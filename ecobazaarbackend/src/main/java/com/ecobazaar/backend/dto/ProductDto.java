@@ -54,4 +54,6 @@ public class ProductDto {
     public void setIsActive(Boolean isActive) { this.isActive = isActive; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public ImageVariantsDto getImageVariants() { return ImageVariantsDto.of(imageUrl); }
 }
@@ -0,0 +1,54 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked search hits plus facet counts. Each facet is counted
+ * with every filter applied except its own, so a client can offer the other
+ * buckets of the dimension it already filtered on.
+ */
+public class ProductSearchResultDto {
+    private List<ProductSummaryDto> items;
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+    private List<SearchFacetDto> categoryFacets;
+    private List<SearchFacetDto> priceFacets;
+
+    public ProductSearchResultDto() {}
+
+    public ProductSearchResultDto(List<ProductSummaryDto> items, Integer page, Integer size, Long totalElements,
+                                  Integer totalPages, List<SearchFacetDto> categoryFacets,
+                                  List<SearchFacetDto> priceFacets) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+        this.categoryFacets = categoryFacets;
+        this.priceFacets = priceFacets;
+    }
+
+    // Getters and Setters
+    public List<ProductSummaryDto> getItems() { return items; }
+    public void setItems(List<ProductSummaryDto> items) { this.items = items; }
+
+    public Integer getPage() { return page; }
+    public void setPage(Integer page) { this.page = page; }
+
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
+
+    public Integer getTotalPages() { return totalPages; }
+    public void setTotalPages(Integer totalPages) { this.totalPages = totalPages; }
+
+    public List<SearchFacetDto> getCategoryFacets() { return categoryFacets; }
+    public void setCategoryFacets(List<SearchFacetDto> categoryFacets) { this.categoryFacets = categoryFacets; }
+
+    public List<SearchFacetDto> getPriceFacets() { return priceFacets; }
+    public void setPriceFacets(List<SearchFacetDto> priceFacets) { this.priceFacets = priceFacets; }
+}
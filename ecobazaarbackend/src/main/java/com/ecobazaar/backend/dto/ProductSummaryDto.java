@@ -0,0 +1,87 @@
+package com.ecobazaar.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lean listing row for catalogue pages. Built directly by a JPQL constructor
+ * expression so listing never hydrates the Product entity or its relations.
+ */
+public class ProductSummaryDto {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String imageUrl;
+    private Long categoryId;
+    private String categoryName;
+    private Long sellerId;
+    private BigDecimal carbonScore;
+    private Integer ecoPoints;
+    private Double carbonReduction;
+    private Boolean isEcoFriendly;
+    private Integer stockQuantity;
+    private LocalDateTime createdAt;
+
+    public ProductSummaryDto() {}
+
+    public ProductSummaryDto(Long id, String name, BigDecimal price, String imageUrl,
+                             Long categoryId, String categoryName, Long sellerId,
+                             BigDecimal carbonScore, Integer ecoPoints, Double carbonReduction,
+                             Boolean isEcoFriendly, Integer stockQuantity, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.imageUrl = imageUrl;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.sellerId = sellerId;
+        this.carbonScore = carbonScore;
+        this.ecoPoints = ecoPoints;
+        this.carbonReduction = carbonReduction;
+        this.isEcoFriendly = isEcoFriendly;
+        this.stockQuantity = stockQuantity;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public ImageVariantsDto getImageVariants() { return ImageVariantsDto.of(imageUrl); }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
+    public Long getSellerId() { return sellerId; }
+    public void setSellerId(Long sellerId) { this.sellerId = sellerId; }
+
+    public BigDecimal getCarbonScore() { return carbonScore; }
+    public void setCarbonScore(BigDecimal carbonScore) { this.carbonScore = carbonScore; }
+
+    public Integer getEcoPoints() { return ecoPoints; }
+    public void setEcoPoints(Integer ecoPoints) { this.ecoPoints = ecoPoints; }
+
+    public Double getCarbonReduction() { return carbonReduction; }
+    public void setCarbonReduction(Double carbonReduction) { this.carbonReduction = carbonReduction; }
+
+    public Boolean getIsEcoFriendly() { return isEcoFriendly; }
+    public void setIsEcoFriendly(Boolean isEcoFriendly) { this.isEcoFriendly = isEcoFriendly; }
+
+    public Integer getStockQuantity() { return stockQuantity; }
+    public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,41 @@
+package com.ecobazaar.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One facet bucket of a search result. Category buckets carry the category
+ * id as key; price buckets carry their bounds (maxPrice is null for the top band).
+ */
+public class SearchFacetDto {
+    private String key;
+    private String label;
+    private Long count;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    public SearchFacetDto() {}
+
+    public SearchFacetDto(String key, String label, Long count, BigDecimal minPrice, BigDecimal maxPrice) {
+        this.key = key;
+        this.label = label;
+        this.count = count;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    // Getters and Setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public String getLabel() { return label; }
+    public void setLabel(String label) { this.label = label; }
+
+    public Long getCount() { return count; }
+    public void setCount(Long count) { this.count = count; }
+
+    public BigDecimal getMinPrice() { return minPrice; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+}
@@ -36,6 +36,14 @@ public class SellerWithStatsDto {
         this.averageRating = averageRating;
     }
 
+    // Used by the seller leaderboard JPQL projection; rating is filled in by the service
+    public SellerWithStatsDto(Long id, String username, String email, String firstName, String lastName,
+                             Boolean isActive, LocalDateTime createdAt, Long totalProducts, Long activeProducts,
+                             BigDecimal totalRevenue, Long totalOrders) {
+        this(id, username, email, firstName, lastName, isActive, createdAt, totalProducts, activeProducts,
+             totalRevenue, totalOrders, null);
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,30 @@
+package com.ecobazaar.backend.dto;
+
+public class SuggestionDto {
+    private String type;
+    private Long id;
+    private String text;
+    private Long popularity;
+
+    public SuggestionDto() {}
+
+    public SuggestionDto(String type, Long id, String text, Long popularity) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+        this.popularity = popularity;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public Long getPopularity() { return popularity; }
+    public void setPopularity(Long popularity) { this.popularity = popularity; }
+}
@@ -0,0 +1,93 @@
+package com.ecobazaar.backend.dto;
+
+import com.ecobazaar.backend.entity.TreePlantingSubmission;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lean row for the admin review queue. Built directly by a JPQL constructor
+ * expression, so paging never loads the submitter, the order with its items,
+ * or the reviewer.
+ */
+public class TreePlantingReviewItemDto {
+    private Long id;
+    private Long userId;
+    private String username;
+    private Long orderId;
+    private String imageUrl;
+    private String description;
+    private TreePlantingSubmission.SubmissionStatus status;
+    private Boolean isEcoFriendlyProduct;
+    private Integer ecoPointsAwarded;
+    private Integer riskScore;
+    private Long duplicateOfId;
+    private LocalDateTime submittedAt;
+    private LocalDateTime reviewedAt;
+
+    public TreePlantingReviewItemDto() {}
+
+    public TreePlantingReviewItemDto(Long id, Long userId, String username, Long orderId,
+                                     String imageUrl, String description,
+                                     TreePlantingSubmission.SubmissionStatus status,
+                                     Boolean isEcoFriendlyProduct, Integer ecoPointsAwarded,
+                                     Integer riskScore, Long duplicateOfId,
+                                     LocalDateTime submittedAt, LocalDateTime reviewedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.username = username;
+        this.orderId = orderId;
+        this.imageUrl = imageUrl;
+        this.description = description;
+        this.status = status;
+        this.isEcoFriendlyProduct = isEcoFriendlyProduct;
+        this.ecoPointsAwarded = ecoPointsAwarded;
+        this.riskScore = riskScore;
+        this.duplicateOfId = duplicateOfId;
+        this.submittedAt = submittedAt;
+        this.reviewedAt = reviewedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public ImageVariantsDto getImageVariants() { return ImageVariantsDto.of(imageUrl); }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public TreePlantingSubmission.SubmissionStatus getStatus() { return status; }
+    public void setStatus(TreePlantingSubmission.SubmissionStatus status) { this.status = status; }
+
+    public Boolean getIsEcoFriendlyProduct() { return isEcoFriendlyProduct; }
+    public void setIsEcoFriendlyProduct(Boolean isEcoFriendlyProduct) { this.isEcoFriendlyProduct = isEcoFriendlyProduct; }
+
+    public Integer getEcoPointsAwarded() { return ecoPointsAwarded; }
+    public void setEcoPointsAwarded(Integer ecoPointsAwarded) { this.ecoPointsAwarded = ecoPointsAwarded; }
+
+    public Integer getRiskScore() { return riskScore; }
+    public void setRiskScore(Integer riskScore) { this.riskScore = riskScore; }
+
+    public Long getDuplicateOfId() { return duplicateOfId; }
+    public void setDuplicateOfId(Long duplicateOfId) { this.duplicateOfId = duplicateOfId; }
+
+    public boolean isSuspectedDuplicate() { return duplicateOfId != null; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public LocalDateTime getReviewedAt() { return reviewedAt; }
+    public void setReviewedAt(LocalDateTime reviewedAt) { this.reviewedAt = reviewedAt; }
+}
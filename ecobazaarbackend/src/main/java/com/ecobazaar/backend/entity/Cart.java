@@ -5,7 +5,12 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cart")
+@Table(name = "cart", uniqueConstraints = {
+    // One row per product per user; addToCart increments the quantity instead
+    @UniqueConstraint(name = "uk_cart_user_product", columnNames = {"user_id", "product_id"})
+}, indexes = {
+    @Index(name = "idx_cart_product", columnList = "product_id")
+})
 @Data
 public class Cart {
     @Id
@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "customer_profiles")
+@org.hibernate.annotations.DynamicUpdate
 public class CustomerProfile {
     
     @Id
@@ -66,7 +67,8 @@ public class CustomerProfile {
     @Column(name = "trees_planted")
     private Integer treesPlanted = 0;
     
-    @Column(name = "eco_points")
+    // Written only through EcoPointsLedgerService's atomic updates, never by an entity flush
+    @Column(name = "eco_points", updatable = false)
     private Integer ecoPoints = 0;
     
     @Column(name = "created_at")
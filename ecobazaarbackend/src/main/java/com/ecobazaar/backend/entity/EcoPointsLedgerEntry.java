@@ -0,0 +1,75 @@
+package com.ecobazaar.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One eco-points movement. The ledger is append-only: a customer's balance
+ * (CustomerProfile.ecoPoints) is the sum of their entries and can always be
+ * rebuilt from it.
+ */
+@Entity
+@Table(name = "eco_points_ledger", indexes = {
+    @Index(name = "idx_eco_points_ledger_user", columnList = "user_id, id")
+})
+public class EcoPointsLedgerEntry {
+
+    public enum Reason {
+        OPENING_BALANCE, ORDER_DELIVERED, ORDER_REDEMPTION, ORDER_REDEMPTION_REFUND, REDEMPTION, TREE_PLANTING, PURCHASE, ADJUSTMENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Positive for credits, negative for debits
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Reason reason;
+
+    // Order or submission the movement belongs to, if any
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public EcoPointsLedgerEntry() {}
+
+    public EcoPointsLedgerEntry(Long userId, Integer delta, Reason reason, Long referenceId) {
+        this.userId = userId;
+        this.delta = delta;
+        this.reason = reason;
+        this.referenceId = referenceId;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Integer getDelta() { return delta; }
+    public void setDelta(Integer delta) { this.delta = delta; }
+
+    public Reason getReason() { return reason; }
+    public void setReason(Reason reason) { this.reason = reason; }
+
+    public Long getReferenceId() { return referenceId; }
+    public void setReferenceId(Long referenceId) { this.referenceId = referenceId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
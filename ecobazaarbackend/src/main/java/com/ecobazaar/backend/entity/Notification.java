@@ -4,7 +4,13 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    // Inbox and unread queries: WHERE user_id [AND is_read] ORDER BY created_at DESC
+    @Index(name = "idx_notifications_user_read_created", columnList = "user_id, is_read, created_at"),
+    @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at"),
+    // Retention sweep: oldest read (or unread) notifications first
+    @Index(name = "idx_notifications_read_created", columnList = "is_read, created_at")
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,29 @@
+package com.ecobazaar.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Running unread-notification total per user, so the bell count is a primary
+ * key lookup instead of a COUNT over the user's notifications. A user's row
+ * is created from the real count the first time it is read; afterwards every
+ * create, read and delete applies its delta.
+ */
+@Entity
+@Table(name = "notification_counters")
+public class NotificationCounter {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount = 0;
+
+    public NotificationCounter() {}
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Integer getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(Integer unreadCount) { this.unreadCount = unreadCount; }
+}
@@ -5,11 +5,17 @@ import lombok.Data;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+    @Index(name = "idx_order_items_order", columnList = "order_id"),
+    @Index(name = "idx_order_items_product", columnList = "product_id")
+})
 @Data
 public class OrderItem {
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can
+    // assign ids up front and JDBC-batch the item inserts at checkout
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
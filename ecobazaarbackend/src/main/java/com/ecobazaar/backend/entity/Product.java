@@ -1,5 +1,6 @@
 package com.ecobazaar.backend.entity;
 
+import com.ecobazaar.backend.dto.ImageVariantsDto;
 import jakarta.persistence.*;
 import lombok.Data;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -7,7 +8,16 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    // Storefront keyset listing: WHERE is_active ORDER BY created_at DESC, id DESC
+    @Index(name = "idx_products_active_created", columnList = "is_active, created_at, id"),
+    @Index(name = "idx_products_category_active", columnList = "category_id, is_active, created_at"),
+    @Index(name = "idx_products_seller", columnList = "seller_id"),
+    @Index(name = "idx_products_approved", columnList = "is_approved")
+})
+// Only write changed columns, so saving an edited product cannot overwrite
+// stock_quantity that a concurrent reservation has just decremented
+@org.hibernate.annotations.DynamicUpdate
 @Data
 @lombok.ToString(exclude = {"seller", "category"})
 public class Product {
@@ -169,6 +179,11 @@ public class Product {
 		this.imageUrl = imageUrl;
 	}
 
+	// Derived from imageUrl, not persisted
+	public ImageVariantsDto getImageVariants() {
+		return ImageVariantsDto.of(imageUrl);
+	}
+
 	public Integer getEcoPoints() {
 		return ecoPoints;
 	}
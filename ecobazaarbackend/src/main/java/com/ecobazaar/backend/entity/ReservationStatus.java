@@ -0,0 +1,5 @@
+package com.ecobazaar.backend.entity;
+
+public enum ReservationStatus {
+    RESERVED, CONVERTED, EXPIRED
+}
@@ -1,11 +1,20 @@
 package com.ecobazaar.backend.entity;
 
+import com.ecobazaar.backend.dto.ImageVariantsDto;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tree_planting_submissions")
+@Table(name = "tree_planting_submissions", indexes = {
+    // Admin review queue: WHERE status ORDER BY submitted_at DESC
+    @Index(name = "idx_tree_submissions_status_submitted", columnList = "status, submitted_at"),
+    @Index(name = "idx_tree_submissions_user_submitted", columnList = "user_id, submitted_at"),
+    @Index(name = "idx_tree_submissions_user_order", columnList = "user_id, order_id"),
+    // Review queue by risk: WHERE status ORDER BY risk_score DESC, submitted_at DESC
+    @Index(name = "idx_tree_submissions_status_risk", columnList = "status, risk_score, submitted_at")
+})
+@org.hibernate.annotations.DynamicUpdate
 public class TreePlantingSubmission {
     
     @Id
@@ -52,6 +61,21 @@ public class TreePlantingSubmission {
     @JsonIgnoreProperties({"password"})
     private User reviewedBy;
     
+    // Photo fingerprint, filled in by ImageFingerprintService after the submission is stored
+    @Column(name = "image_dhash")
+    private Long imageHash;
+    
+    // Closest earlier submission with a near-identical photo, if any
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+    
+    @Column(name = "duplicate_distance")
+    private Integer duplicateDistance;
+    
+    // 0-100; null until the photo has been fingerprinted
+    @Column(name = "risk_score")
+    private Integer riskScore;
+    
     @PrePersist
     protected void onCreate() {
         submittedAt = LocalDateTime.now();
@@ -100,6 +124,11 @@ public class TreePlantingSubmission {
         this.imageUrl = imageUrl;
     }
     
+    // Derived from imageUrl, not persisted
+    public ImageVariantsDto getImageVariants() {
+        return ImageVariantsDto.of(imageUrl);
+    }
+    
     public String getDescription() {
         return description;
     }
@@ -170,4 +199,40 @@ public class TreePlantingSubmission {
         APPROVED,
         REJECTED
     }
+    
+    public Long getImageHash() {
+        return imageHash;
+    }
+    
+    public void setImageHash(Long imageHash) {
+        this.imageHash = imageHash;
+    }
+    
+    public Long getDuplicateOfId() {
+        return duplicateOfId;
+    }
+    
+    public void setDuplicateOfId(Long duplicateOfId) {
+        this.duplicateOfId = duplicateOfId;
+    }
+    
+    public Integer getDuplicateDistance() {
+        return duplicateDistance;
+    }
+    
+    public void setDuplicateDistance(Integer duplicateDistance) {
+        this.duplicateDistance = duplicateDistance;
+    }
+    
+    public Integer getRiskScore() {
+        return riskScore;
+    }
+    
+    public void setRiskScore(Integer riskScore) {
+        this.riskScore = riskScore;
+    }
+    
+    public boolean isSuspectedDuplicate() {
+        return duplicateOfId != null;
+    }
 }
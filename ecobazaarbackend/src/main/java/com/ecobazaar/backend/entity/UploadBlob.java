@@ -0,0 +1,57 @@
+package com.ecobazaar.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One stored upload, keyed by the SHA-256 of its content. refCount is the
+ * number of rows (products, tree-planting submissions) whose image URL points
+ * at the blob; once it reaches zero the file is removed by the blob store's
+ * garbage collection after a grace period.
+ */
+@Entity
+@Table(name = "upload_blobs", indexes = {
+    // Garbage collection: WHERE ref_count = 0 AND updated_at < cutoff
+    @Index(name = "idx_upload_blobs_collectable", columnList = "ref_count, updated_at")
+})
+public class UploadBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false, length = 10)
+    private String extension;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount = 0;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UploadBlob() {}
+
+    // Getters and Setters
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+
+    public String getExtension() { return extension; }
+    public void setExtension(String extension) { this.extension = extension; }
+
+    public Long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public Integer getRefCount() { return refCount; }
+    public void setRefCount(Integer refCount) { this.refCount = refCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
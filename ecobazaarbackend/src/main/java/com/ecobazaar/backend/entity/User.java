@@ -6,7 +6,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_role_active", columnList = "role, is_active"),
+    @Index(name = "idx_users_created", columnList = "created_at")
+})
+// Only write changed columns, so a stale User save cannot roll back token_version
+@org.hibernate.annotations.DynamicUpdate
 @Data
 @lombok.ToString(exclude = {"password"})
 public class User {
@@ -51,6 +56,12 @@ public class User {
     
     @Column(nullable = false)
     private boolean isVerified = true;
+    
+    // Carried in every JWT; bumped when an admin changes the user's role or
+    // status so tokens issued before the change stop being accepted
+    @Column(name = "token_version")
+    @JsonIgnore
+    private Integer tokenVersion = 0;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -173,6 +184,14 @@ public class User {
 		this.isVerified = verified;
 	}
 
+	public Integer getTokenVersion() {
+		return tokenVersion != null ? tokenVersion : 0;
+	}
+
+	public void setTokenVersion(Integer tokenVersion) {
+		this.tokenVersion = tokenVersion;
+	}
+
 	public LocalDateTime getCreatedAt() {
 		return createdAt;
 	}
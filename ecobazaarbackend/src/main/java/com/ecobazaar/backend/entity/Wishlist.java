@@ -5,7 +5,12 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "wishlists")
+@Table(name = "wishlists", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_wishlists_user_product", columnNames = {"user_id", "product_id"})
+}, indexes = {
+    @Index(name = "idx_wishlists_user_added", columnList = "user_id, added_at"),
+    @Index(name = "idx_wishlists_product", columnList = "product_id")
+})
 public class Wishlist {
     
     @Id
@@ -0,0 +1,19 @@
+package com.ecobazaar.backend.event;
+
+import com.ecobazaar.backend.dto.NotificationDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published once new notification rows are committed, grouped by recipient.
+ */
+public class NotificationsCreatedEvent {
+    private final Map<Long, List<NotificationDto>> notificationsByUser;
+
+    public NotificationsCreatedEvent(Map<Long, List<NotificationDto>> notificationsByUser) {
+        this.notificationsByUser = notificationsByUser;
+    }
+
+    public Map<Long, List<NotificationDto>> getNotificationsByUser() { return notificationsByUser; }
+}
@@ -0,0 +1,15 @@
+package com.ecobazaar.backend.event;
+
+/**
+ * Published when a user's notifications are marked read or deleted, so
+ * anything showing that user's unread count can refresh it.
+ */
+public class NotificationsReadEvent {
+    private final Long userId;
+
+    public NotificationsReadEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() { return userId; }
+}
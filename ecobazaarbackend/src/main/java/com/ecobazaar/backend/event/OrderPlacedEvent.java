@@ -0,0 +1,22 @@
+package com.ecobazaar.backend.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published once an order and its items have been written at checkout.
+ */
+public class OrderPlacedEvent {
+    private final Long orderId;
+    private final Long userId;
+    private final BigDecimal totalPrice;
+
+    public OrderPlacedEvent(Long orderId, Long userId, BigDecimal totalPrice) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.totalPrice = totalPrice;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public Long getUserId() { return userId; }
+    public BigDecimal getTotalPrice() { return totalPrice; }
+}
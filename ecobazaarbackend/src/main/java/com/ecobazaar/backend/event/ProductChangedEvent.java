@@ -0,0 +1,83 @@
+package com.ecobazaar.backend.event;
+
+import com.ecobazaar.backend.entity.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Published after a product is created, edited, moderated or deleted. The
+ * before-state is absent for a created product and the after-state is absent
+ * for a deleted one.
+ */
+public class ProductChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Long productId;
+    private final Type type;
+    private final boolean previouslyActive;
+    private final BigDecimal previousCarbonScore;
+    private final Long previousCategoryId;
+    private final Boolean previouslyEcoFriendly;
+    private final boolean active;
+    private final BigDecimal carbonScore;
+    private final Long categoryId;
+    private final Boolean ecoFriendly;
+
+    public ProductChangedEvent(Long productId, Type type,
+                               boolean previouslyActive, BigDecimal previousCarbonScore,
+                               Long previousCategoryId, Boolean previouslyEcoFriendly,
+                               boolean active, BigDecimal carbonScore,
+                               Long categoryId, Boolean ecoFriendly) {
+        this.productId = productId;
+        this.type = type;
+        this.previouslyActive = previouslyActive;
+        this.previousCarbonScore = previousCarbonScore;
+        this.previousCategoryId = previousCategoryId;
+        this.previouslyEcoFriendly = previouslyEcoFriendly;
+        this.active = active;
+        this.carbonScore = carbonScore;
+        this.categoryId = categoryId;
+        this.ecoFriendly = ecoFriendly;
+    }
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(product.getId(), Type.CREATED, false, null, null, null,
+                                       Boolean.TRUE.equals(product.getIsActive()), product.getCarbonScore(),
+                                       categoryIdOf(product), product.getIsEcoFriendly());
+    }
+
+    // For moderation paths that leave the category and eco flag untouched
+    public static ProductChangedEvent updated(Boolean previouslyActive, BigDecimal previousCarbonScore, Product product) {
+        return updated(previouslyActive, previousCarbonScore, categoryIdOf(product), product.getIsEcoFriendly(), product);
+    }
+
+    public static ProductChangedEvent updated(Boolean previouslyActive, BigDecimal previousCarbonScore,
+                                              Long previousCategoryId, Boolean previouslyEcoFriendly, Product product) {
+        return new ProductChangedEvent(product.getId(), Type.UPDATED, Boolean.TRUE.equals(previouslyActive),
+                                       previousCarbonScore, previousCategoryId, previouslyEcoFriendly,
+                                       Boolean.TRUE.equals(product.getIsActive()), product.getCarbonScore(),
+                                       categoryIdOf(product), product.getIsEcoFriendly());
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(product.getId(), Type.DELETED, Boolean.TRUE.equals(product.getIsActive()),
+                                       product.getCarbonScore(), categoryIdOf(product), product.getIsEcoFriendly(),
+                                       false, null, null, null);
+    }
+
+    public static Long categoryIdOf(Product product) {
+        return product.getCategory() != null ? product.getCategory().getId() : null;
+    }
+
+    public Long getProductId() { return productId; }
+    public Type getType() { return type; }
+    public boolean isPreviouslyActive() { return previouslyActive; }
+    public BigDecimal getPreviousCarbonScore() { return previousCarbonScore; }
+    public Long getPreviousCategoryId() { return previousCategoryId; }
+    public Boolean getPreviouslyEcoFriendly() { return previouslyEcoFriendly; }
+    public boolean isActive() { return active; }
+    public BigDecimal getCarbonScore() { return carbonScore; }
+    public Long getCategoryId() { return categoryId; }
+    public Boolean getEcoFriendly() { return ecoFriendly; }
+}
@@ -0,0 +1,17 @@
+package com.ecobazaar.backend.event;
+
+import java.util.Set;
+
+/**
+ * Published when stock reservations move products' stock_quantity with a
+ * bulk UPDATE, which bypasses the entities and so raises no ProductChangedEvent.
+ */
+public class StockChangedEvent {
+    private final Set<Long> productIds;
+
+    public StockChangedEvent(Set<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    public Set<Long> getProductIds() { return productIds; }
+}
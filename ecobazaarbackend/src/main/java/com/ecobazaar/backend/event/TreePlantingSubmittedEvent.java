@@ -0,0 +1,17 @@
+package com.ecobazaar.backend.event;
+
+/**
+ * Published when a tree-planting submission and its photo have been stored.
+ */
+public class TreePlantingSubmittedEvent {
+    private final Long submissionId;
+    private final String imageUrl;
+
+    public TreePlantingSubmittedEvent(Long submissionId, String imageUrl) {
+        this.submissionId = submissionId;
+        this.imageUrl = imageUrl;
+    }
+
+    public Long getSubmissionId() { return submissionId; }
+    public String getImageUrl() { return imageUrl; }
+}
@@ -0,0 +1,44 @@
+package com.ecobazaar.backend.event;
+
+import com.ecobazaar.backend.entity.Role;
+import com.ecobazaar.backend.entity.User;
+
+/**
+ * Published when a user is registered or an admin changes a user's role or
+ * active flag. previousRole is null for a newly registered user.
+ */
+public class UserChangedEvent {
+    private final Long userId;
+    private final String username;
+    private final Role previousRole;
+    private final boolean previouslyActive;
+    private final Role role;
+    private final boolean active;
+
+    public UserChangedEvent(Long userId, String username, Role previousRole, boolean previouslyActive, Role role, boolean active) {
+        this.userId = userId;
+        this.username = username;
+        this.previousRole = previousRole;
+        this.previouslyActive = previouslyActive;
+        this.role = role;
+        this.active = active;
+    }
+
+    public static UserChangedEvent registered(User user) {
+        return new UserChangedEvent(user.getId(), user.getUsername(), null, false, user.getRole(), Boolean.TRUE.equals(user.getIsActive()));
+    }
+
+    public static UserChangedEvent updated(Role previousRole, Boolean previouslyActive, User user) {
+        return new UserChangedEvent(user.getId(), user.getUsername(), previousRole, Boolean.TRUE.equals(previouslyActive),
+                                    user.getRole(), Boolean.TRUE.equals(user.getIsActive()));
+    }
+
+    public boolean isNewUser() { return previousRole == null; }
+
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public Role getPreviousRole() { return previousRole; }
+    public boolean isPreviouslyActive() { return previouslyActive; }
+    public Role getRole() { return role; }
+    public boolean isActive() { return active; }
+}
@@ -1,6 +1,12 @@
 package com.ecobazaar.backend.repository;
+import com.ecobazaar.backend.dto.CartItemDto;
 import com.ecobazaar.backend.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,4 +15,29 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserIdAndProductId(Long userId, Long productId);
     void deleteByUserIdAndProductId(Long userId, Long productId);
     void deleteByProductId(Long productId);
+
+    // Adds to the user's line for the product, creating it if missing, in one statement on
+    // uk_cart_user_product: concurrent adds neither collide on the key nor lose an increment
+    @Modifying
+    @Query(value = "INSERT INTO cart (user_id, product_id, quantity, created_at, updated_at) " +
+                   "VALUES (:userId, :productId, :quantity, :now, :now) " +
+                   "ON DUPLICATE KEY UPDATE quantity = quantity + :quantity, updated_at = :now",
+           nativeQuery = true)
+    int addQuantity(@Param("userId") Long userId, @Param("productId") Long productId,
+                    @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Query("SELECT c FROM Cart c JOIN FETCH c.product p LEFT JOIN FETCH p.category JOIN FETCH p.seller " +
+           "WHERE c.user.id = :userId")
+    List<Cart> findByUserIdWithProduct(@Param("userId") Long userId);
+
+    // Bulk delete used at checkout; one statement regardless of how many lines were bought
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.user.id = :userId AND c.product.id IN :productIds")
+    int deleteByUserIdAndProductIdIn(@Param("userId") Long userId, @Param("productIds") Collection<Long> productIds);
+
+    // Cart page rows straight from one join, without loading Cart/Product entities
+    @Query("SELECT new com.ecobazaar.backend.dto.CartItemDto(c.id, p.id, p.name, p.imageUrl, p.price, " +
+           "c.quantity, p.ecoPoints, p.carbonReduction) " +
+           "FROM Cart c JOIN c.product p WHERE c.user.id = :userId ORDER BY c.id")
+    List<CartItemDto> findCartItemDetailsByUserId(@Param("userId") Long userId);
 }
@@ -3,6 +3,9 @@ package com.ecobazaar.backend.repository;
 import com.ecobazaar.backend.entity.CustomerProfile;
 import com.ecobazaar.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -15,4 +18,18 @@ public interface CustomerProfileRepository extends JpaRepository<CustomerProfile
     Optional<CustomerProfile> findByUserId(Long userId);
     
     boolean existsByUserId(Long userId);
+
+    // Materialized eco-points balance, maintained only through EcoPointsLedgerService
+    @Query("SELECT COALESCE(p.ecoPoints, 0) FROM CustomerProfile p WHERE p.user.id = :userId")
+    Optional<Integer> findEcoPointsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE CustomerProfile p SET p.ecoPoints = COALESCE(p.ecoPoints, 0) + :points WHERE p.user.id = :userId")
+    int addEcoPoints(@Param("userId") Long userId, @Param("points") int points);
+
+    // Debit that only applies when the balance covers it
+    @Modifying
+    @Query("UPDATE CustomerProfile p SET p.ecoPoints = p.ecoPoints - :points " +
+           "WHERE p.user.id = :userId AND p.ecoPoints >= :points")
+    int subtractEcoPointsIfAvailable(@Param("userId") Long userId, @Param("points") int points);
 }
@@ -0,0 +1,64 @@
+package com.ecobazaar.backend.repository;
+
+import com.ecobazaar.backend.entity.EcoPointsLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EcoPointsLedgerRepository extends JpaRepository<EcoPointsLedgerEntry, Long> {
+
+    List<EcoPointsLedgerEntry> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    // Net movement of the given kinds recorded against one order or submission
+    @Query("SELECT COALESCE(SUM(l.delta), 0) FROM EcoPointsLedgerEntry l " +
+           "WHERE l.userId = :userId AND l.referenceId = :referenceId AND l.reason IN (:reasons)")
+    long sumDeltas(@Param("userId") Long userId, @Param("referenceId") Long referenceId,
+                   @Param("reasons") Collection<EcoPointsLedgerEntry.Reason> reasons);
+
+    // Profiles that already had points before the ledger existed get one opening entry
+    @Modifying
+    @Query(value = "INSERT INTO eco_points_ledger (user_id, delta, reason, created_at) " +
+                   "SELECT p.user_id, p.eco_points, 'OPENING_BALANCE', NOW() FROM customer_profiles p " +
+                   "WHERE p.eco_points IS NOT NULL AND p.eco_points <> 0 " +
+                   "AND NOT EXISTS (SELECT 1 FROM eco_points_ledger l WHERE l.user_id = p.user_id)",
+           nativeQuery = true)
+    int insertOpeningBalances();
+
+    // Bulk tree-planting approval: one entry per approved submission whose customer has a profile
+    @Modifying
+    @Query(value = "INSERT INTO eco_points_ledger (user_id, delta, reason, reference_id, created_at) " +
+                   "SELECT t.user_id, t.eco_points_awarded, 'TREE_PLANTING', t.id, NOW() " +
+                   "FROM tree_planting_submissions t JOIN customer_profiles p ON p.user_id = t.user_id " +
+                   "WHERE t.id IN (:submissionIds) AND t.eco_points_awarded > 0",
+           nativeQuery = true)
+    int insertTreePlantingCredits(@Param("submissionIds") Collection<Long> submissionIds);
+
+    // Adds each customer's total from the given ledger entries to their balance in one statement
+    @Modifying
+    @Query(value = "UPDATE customer_profiles p JOIN (" +
+                   "SELECT l.user_id, SUM(l.delta) AS delta FROM eco_points_ledger l " +
+                   "WHERE l.reason = :reason AND l.reference_id IN (:referenceIds) GROUP BY l.user_id" +
+                   ") c ON c.user_id = p.user_id " +
+                   "SET p.eco_points = COALESCE(p.eco_points, 0) + c.delta",
+           nativeQuery = true)
+    int applyCredits(@Param("reason") String reason, @Param("referenceIds") Collection<Long> referenceIds);
+
+    // Rebuild: profile user ids in one partition (user_id mod partitions), walked by id
+    @Query("SELECT p.user.id FROM CustomerProfile p " +
+           "WHERE MOD(p.user.id, :partitions) = :partition AND p.user.id > :afterId ORDER BY p.user.id")
+    List<Long> findProfileUserIdsInPartition(@Param("partitions") int partitions, @Param("partition") int partition,
+                                             @Param("afterId") Long afterId, Pageable pageable);
+
+    // Replays the ledger into the materialized balances of the given users
+    @Modifying
+    @Query(value = "UPDATE customer_profiles p SET p.eco_points = " +
+                   "(SELECT COALESCE(SUM(l.delta), 0) FROM eco_points_ledger l WHERE l.user_id = p.user_id) " +
+                   "WHERE p.user_id IN (:userIds)",
+           nativeQuery = true)
+    int replayBalances(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,53 @@
+package com.ecobazaar.backend.repository;
+
+import com.ecobazaar.backend.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e.id FROM EmailOutbox e " +
+           "WHERE e.status = com.ecobazaar.backend.entity.EmailOutbox.Status.PENDING AND e.nextAttemptAt <= :now " +
+           "ORDER BY e.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Conditional on PENDING, so rows another dispatcher claimed first are skipped
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.ecobazaar.backend.entity.EmailOutbox.Status.SENDING, " +
+           "e.claimToken = :token, e.nextAttemptAt = :leaseUntil " +
+           "WHERE e.id IN :ids AND e.status = com.ecobazaar.backend.entity.EmailOutbox.Status.PENDING")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<EmailOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    // Rows whose sender died mid-send (crash or restart) go back to the queue
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.ecobazaar.backend.entity.EmailOutbox.Status.PENDING, " +
+           "e.claimToken = NULL " +
+           "WHERE e.status = com.ecobazaar.backend.entity.EmailOutbox.Status.SENDING AND e.nextAttemptAt < :now")
+    int releaseExpiredLeases(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.ecobazaar.backend.entity.EmailOutbox.Status.SENT, " +
+           "e.sentAt = :sentAt, e.attempts = e.attempts + 1, e.claimToken = NULL, e.lastError = NULL " +
+           "WHERE e.id IN :ids AND e.claimToken = :token")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("token") String token,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :error, e.claimToken = NULL " +
+           "WHERE e.id = :id AND e.claimToken = :token")
+    int markFailed(@Param("id") Long id, @Param("token") String token, @Param("status") EmailOutbox.Status status,
+                   @Param("attempts") Integer attempts, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    long countByStatus(EmailOutbox.Status status);
+}
@@ -0,0 +1,20 @@
+package com.ecobazaar.backend.repository;
+
+import com.ecobazaar.backend.entity.NotificationArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+
+    // Copies the given notifications in one statement; the caller deletes the originals
+    @Modifying
+    @Query("INSERT INTO NotificationArchive (id, userId, title, message, notificationType, isRead, createdAt, archivedAt) " +
+           "SELECT n.id, n.user.id, n.title, n.message, n.notificationType, n.isRead, n.createdAt, :archivedAt " +
+           "FROM Notification n WHERE n.id IN :ids")
+    int copyFromNotifications(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -0,0 +1,30 @@
+package com.ecobazaar.backend.repository;
+
+import com.ecobazaar.backend.entity.NotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, Long> {
+
+    // Seeds the counter from the notifications table; a no-op once the row exists.
+    // The aggregate always yields one row, so users with nothing unread get a zero.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO notification_counters (user_id, unread_count) " +
+                   "SELECT :userId, COUNT(*) FROM notifications WHERE user_id = :userId AND is_read = false",
+           nativeQuery = true)
+    int initialize(@Param("userId") Long userId);
+
+    // Share lock: a writer's addToUnread waits until the reader's transaction ends
+    @Query(value = "SELECT unread_count FROM notification_counters WHERE user_id = :userId LOCK IN SHARE MODE",
+           nativeQuery = true)
+    Integer findUnreadCountForShare(@Param("userId") Long userId);
+
+    // Users without a row yet are skipped; their count is taken fresh on first read
+    @Modifying
+    @Query(value = "UPDATE notification_counters SET unread_count = GREATEST(unread_count + :delta, 0) " +
+                   "WHERE user_id = :userId",
+           nativeQuery = true)
+    int addToUnread(@Param("userId") Long userId, @Param("delta") int delta);
+}
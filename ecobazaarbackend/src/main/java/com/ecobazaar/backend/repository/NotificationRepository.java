@@ -1,15 +1,71 @@
 package com.ecobazaar.backend.repository;
 
+import com.ecobazaar.backend.dto.NotificationDto;
 import com.ecobazaar.backend.entity.Notification;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
-    List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
-    
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
     Long countUnreadNotificationsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT n.user.id FROM Notification n WHERE n.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    // Conditional so a repeated mark-read does not decrement the unread counter twice
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markReadIfUnread(@Param("id") Long id);
+
+    // Conditional so only one of two concurrent deletes of an unread notification decrements the counter
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.user.id = :userId AND n.isRead = false")
+    int deleteIfUnread(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllReadByUserId(@Param("userId") Long userId);
+
+    // Keyset page of a user's inbox, newest first; served from idx_notifications_user[_read]_created
+    @Query("SELECT new com.ecobazaar.backend.dto.NotificationDto(n.id, n.title, n.message, n.notificationType, " +
+           "n.isRead, n.createdAt) " +
+           "FROM Notification n " +
+           "WHERE n.user.id = :userId " +
+           "AND (:unreadOnly = false OR n.isRead = false) " +
+           "AND (:cursorCreatedAt IS NULL OR n.createdAt < :cursorCreatedAt " +
+           "     OR (n.createdAt = :cursorCreatedAt AND n.id < :cursorId)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDto> findPage(@Param("userId") Long userId,
+                                   @Param("unreadOnly") boolean unreadOnly,
+                                   @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                   @Param("cursorId") Long cursorId,
+                                   Pageable pageable);
+
+    // Retention: [id, userId] of the oldest notifications with the given read state
+    // created before the cutoff. Archived rows are deleted, so each call starts from the front.
+    // Locked until commit: a row cannot be marked read between this read and its delete,
+    // which would decrement the unread counter twice.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n.id, n.user.id FROM Notification n " +
+           "WHERE n.isRead = :isRead AND n.createdAt < :cutoff " +
+           "ORDER BY n.createdAt, n.id")
+    List<Object[]> findExpired(@Param("isRead") Boolean isRead, @Param("cutoff") LocalDateTime cutoff,
+                               Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -2,7 +2,22 @@ package com.ecobazaar.backend.repository;
 
 import com.ecobazaar.backend.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     void deleteByProductId(Long productId);
+
+    // [productId, number of order lines] for every product ever ordered (autocomplete popularity)
+    @Query("SELECT oi.product.id, COUNT(oi) FROM OrderItem oi GROUP BY oi.product.id")
+    List<Object[]> countOrderLinesByProduct();
+
+    // Customers who have ordered anything in a category, paged by user id
+    @Query("SELECT DISTINCT o.user.id FROM OrderItem oi JOIN oi.order o " +
+           "WHERE oi.product.category.id = :categoryId AND o.user.id > :afterId ORDER BY o.user.id")
+    List<Long> findBuyerIdsByCategoryAfter(@Param("categoryId") Long categoryId, @Param("afterId") Long afterId,
+                                           Pageable pageable);
 }
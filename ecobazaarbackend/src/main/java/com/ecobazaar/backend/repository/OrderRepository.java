@@ -1,14 +1,19 @@
 package com.ecobazaar.backend.repository;
 
+import com.ecobazaar.backend.dto.CarbonAnalyticsDto;
 import com.ecobazaar.backend.entity.Order;
 import com.ecobazaar.backend.entity.OrderStatus;
 import com.ecobazaar.backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserId(Long userId);
@@ -16,16 +21,17 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserOrderByCreatedAtDesc(User user);
 
     // Seller dashboard methods
-    @Query("SELECT o FROM Order o JOIN o.orderItems oi JOIN oi.product p WHERE p.seller.id = :sellerId")
+    // An order joins once per matching item, so counts are DISTINCT and revenue is summed per line item
+    @Query("SELECT DISTINCT o FROM Order o JOIN o.orderItems oi JOIN oi.product p WHERE p.seller.id = :sellerId")
     List<Order> findBySellerId(@Param("sellerId") Long sellerId);
 
-    @Query("SELECT COUNT(o) FROM Order o JOIN o.orderItems oi JOIN oi.product p WHERE p.seller.id = :sellerId")
+    @Query("SELECT COUNT(DISTINCT o) FROM Order o JOIN o.orderItems oi JOIN oi.product p WHERE p.seller.id = :sellerId")
     Long countBySellerId(@Param("sellerId") Long sellerId);
 
-    @Query("SELECT COUNT(o) FROM Order o JOIN o.orderItems oi JOIN oi.product p WHERE p.seller.id = :sellerId AND o.status = :status")
+    @Query("SELECT COUNT(DISTINCT o) FROM Order o JOIN o.orderItems oi JOIN oi.product p WHERE p.seller.id = :sellerId AND o.status = :status")
     Long countBySellerIdAndStatus(@Param("sellerId") Long sellerId, @Param("status") OrderStatus status);
 
-    @Query("SELECT SUM(o.totalPrice) FROM Order o JOIN o.orderItems oi JOIN oi.product p WHERE p.seller.id = :sellerId")
+    @Query("SELECT SUM(oi.price * oi.quantity) FROM OrderItem oi WHERE oi.product.seller.id = :sellerId")
     BigDecimal sumTotalAmountBySellerId(@Param("sellerId") Long sellerId);
 
     // Admin specific queries
@@ -49,8 +55,44 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     BigDecimal sumTotalAmountByProductId(@Param("productId") Long productId);
     // -----------------------------
 
-    // Customer profile analytics methods
-    List<Order> findByUserIdAndStatusIn(Long userId, List<String> statuses);
-    List<Order> findByUserIdAndCreatedAtBetweenAndStatusIn(Long userId, LocalDateTime startDate, LocalDateTime endDate, List<String> statuses);
+    // Status change that only applies if nobody moved the order first
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :newStatus WHERE o.id = :orderId AND o.status = :expectedStatus")
+    int updateStatusIfCurrent(@Param("orderId") Long orderId,
+                              @Param("expectedStatus") OrderStatus expectedStatus,
+                              @Param("newStatus") OrderStatus newStatus);
+
+    @Query("SELECT o.user.id FROM Order o WHERE o.id = :orderId")
+    Optional<Long> findUserIdById(@Param("orderId") Long orderId);
+
+    // Customer carbon analytics. An order is eco-friendly when its carbon score is
+    // at most 3; it "saves" 5 minus its score and earns 10% of its price in points.
+
+    // [orders, carbon emitted, eco-friendly orders, carbon saved, eco points]
+    @Query("SELECT COUNT(o), COALESCE(SUM(o.totalCarbonScore), 0), " +
+           "COALESCE(SUM(CASE WHEN o.totalCarbonScore <= 3 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN o.totalCarbonScore <= 3 THEN 5 - o.totalCarbonScore ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN o.totalCarbonScore <= 3 THEN FLOOR(o.totalPrice / 10) ELSE 0 END), 0) " +
+           "FROM Order o WHERE o.user.id = :userId AND o.status IN :statuses")
+    List<Object[]> summarizeCarbonByUserId(@Param("userId") Long userId,
+                                           @Param("statuses") Collection<OrderStatus> statuses);
+
+    // [year, month, orders, carbon emitted, carbon saved, eco points] per month since :from
+    @Query("SELECT YEAR(o.createdAt), MONTH(o.createdAt), COUNT(o), COALESCE(SUM(o.totalCarbonScore), 0), " +
+           "COALESCE(SUM(CASE WHEN o.totalCarbonScore <= 3 THEN 5 - o.totalCarbonScore ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN o.totalCarbonScore <= 3 THEN FLOOR(o.totalPrice / 10) ELSE 0 END), 0) " +
+           "FROM Order o WHERE o.user.id = :userId AND o.status IN :statuses AND o.createdAt >= :from " +
+           "GROUP BY YEAR(o.createdAt), MONTH(o.createdAt)")
+    List<Object[]> summarizeCarbonByMonth(@Param("userId") Long userId,
+                                          @Param("statuses") Collection<OrderStatus> statuses,
+                                          @Param("from") LocalDateTime from);
+
+    @Query("SELECT new com.ecobazaar.backend.dto.CarbonAnalyticsDto$OrderCarbonDto(" +
+           "o.id, o.totalPrice, o.totalCarbonScore, o.status, o.createdAt) " +
+           "FROM Order o WHERE o.user.id = :userId AND o.status IN :statuses " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<CarbonAnalyticsDto.OrderCarbonDto> findCarbonHistory(@Param("userId") Long userId,
+                                                              @Param("statuses") Collection<OrderStatus> statuses,
+                                                              Pageable pageable);
 }
 
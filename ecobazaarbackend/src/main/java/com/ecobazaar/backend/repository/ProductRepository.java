@@ -1,17 +1,20 @@
 package com.ecobazaar.backend.repository;
 
+import com.ecobazaar.backend.dto.ProductSummaryDto;
 import com.ecobazaar.backend.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByIsActiveTrue();
     List<Product> findBySellerIdAndIsActiveTrue(Long sellerId);
-    List<Product> findByCategoryIdAndIsActiveTrue(Long categoryId);
-    List<Product> findByIsEcoFriendlyTrueAndIsActiveTrue();
     
     // Seller dashboard methods
     Long countBySellerId(Long sellerId);
@@ -33,4 +36,52 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.seller WHERE p.id = :id")
     Product findByIdWithRelations(@Param("id") Long id);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.seller WHERE p.id IN :ids")
+    List<Product> findAllByIdWithRelations(@Param("ids") Collection<Long> ids);
+
+    // Every active product with its category and seller in one query (search index rebuild)
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category JOIN FETCH p.seller WHERE p.isActive = true")
+    List<Product> findAllActiveWithRelations();
+
+    // [id, name, categoryId] of every active product (autocomplete index)
+    @Query("SELECT p.id, p.name, c.id FROM Product p LEFT JOIN p.category c WHERE p.isActive = true")
+    List<Object[]> findActiveProductNames();
+
+    // Stock reservation: a single conditional UPDATE, so concurrent buyers can
+    // never take the same units. 0 rows means there was not enough stock.
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity " +
+           "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Storefront listing: keyset page over (createdAt, id), newest first.
+    // Every filter is optional; a null cursor starts from the newest product.
+    @Query("SELECT new com.ecobazaar.backend.dto.ProductSummaryDto(p.id, p.name, p.price, p.imageUrl, " +
+           "c.id, c.name, s.id, p.carbonScore, p.ecoPoints, p.carbonReduction, p.isEcoFriendly, " +
+           "p.stockQuantity, p.createdAt) " +
+           "FROM Product p LEFT JOIN p.category c JOIN p.seller s " +
+           "WHERE p.isActive = true " +
+           "AND (:categoryId IS NULL OR c.id = :categoryId) " +
+           "AND (:sellerId IS NULL OR s.id = :sellerId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+           "AND (:ecoFriendly IS NULL OR p.isEcoFriendly = :ecoFriendly) " +
+           "AND (:maxCarbonScore IS NULL OR p.carbonScore <= :maxCarbonScore) " +
+           "AND (:cursorCreatedAt IS NULL OR p.createdAt < :cursorCreatedAt " +
+           "     OR (p.createdAt = :cursorCreatedAt AND p.id < :cursorId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductSummaryDto> findActiveProductPage(@Param("categoryId") Long categoryId,
+                                                  @Param("sellerId") Long sellerId,
+                                                  @Param("minPrice") BigDecimal minPrice,
+                                                  @Param("maxPrice") BigDecimal maxPrice,
+                                                  @Param("ecoFriendly") Boolean ecoFriendly,
+                                                  @Param("maxCarbonScore") BigDecimal maxCarbonScore,
+                                                  @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                  @Param("cursorId") Long cursorId,
+                                                  Pageable pageable);
 }
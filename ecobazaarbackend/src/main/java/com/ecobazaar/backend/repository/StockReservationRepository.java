@@ -0,0 +1,39 @@
+package com.ecobazaar.backend.repository;
+
+import com.ecobazaar.backend.entity.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    List<StockReservation> findByOrderIdOrderByProductIdAsc(Long orderId);
+
+    // Orders with at least one reservation past its deadline, oldest first
+    @Query("SELECT DISTINCT r.orderId FROM StockReservation r " +
+           "WHERE r.status = com.ecobazaar.backend.entity.ReservationStatus.RESERVED AND r.expiresAt < :now " +
+           "ORDER BY r.orderId")
+    List<Long> findOrderIdsWithExpiredReservations(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Confirmation pins the reservation; 0 rows means the sweep already released it
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.expiresAt = NULL " +
+           "WHERE r.orderId = :orderId AND r.status = com.ecobazaar.backend.entity.ReservationStatus.RESERVED")
+    int pinByOrderId(@Param("orderId") Long orderId);
+
+    // Each transition is conditional on the current status so the sweep and
+    // shipping can never both claim the same reservation
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = com.ecobazaar.backend.entity.ReservationStatus.CONVERTED " +
+           "WHERE r.id = :id AND r.status = com.ecobazaar.backend.entity.ReservationStatus.RESERVED")
+    int convertIfReserved(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = com.ecobazaar.backend.entity.ReservationStatus.EXPIRED " +
+           "WHERE r.id = :id AND r.status = com.ecobazaar.backend.entity.ReservationStatus.RESERVED " +
+           "AND r.expiresAt < :now")
+    int expireIfDue(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -1,10 +1,18 @@
 package com.ecobazaar.backend.repository;
 
+import com.ecobazaar.backend.dto.TreePlantingReviewItemDto;
 import com.ecobazaar.backend.entity.TreePlantingSubmission;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +25,9 @@ public interface TreePlantingSubmissionRepository extends JpaRepository<TreePlan
     
     List<TreePlantingSubmission> findByStatusOrderBySubmittedAtDesc(TreePlantingSubmission.SubmissionStatus status);
     
+    // Review queue: suspected duplicates first (served by idx_tree_submissions_status_risk)
+    List<TreePlantingSubmission> findByStatusOrderByRiskScoreDescSubmittedAtDesc(TreePlantingSubmission.SubmissionStatus status);
+    
     List<TreePlantingSubmission> findAllByOrderBySubmittedAtDesc();
     
     Optional<TreePlantingSubmission> findByUserIdAndOrderId(Long userId, Long orderId);
@@ -29,4 +40,102 @@ public interface TreePlantingSubmissionRepository extends JpaRepository<TreePlan
     
     @Query("SELECT COUNT(t) FROM TreePlantingSubmission t WHERE t.status = :status")
     Long countByStatus(TreePlantingSubmission.SubmissionStatus status);
+    
+    // --- Admin review queue ---
+    
+    // Keyset page, newest first; every filter is optional
+    @Query("SELECT new com.ecobazaar.backend.dto.TreePlantingReviewItemDto(t.id, u.id, u.username, t.order.id, " +
+           "t.imageUrl, t.description, t.status, t.isEcoFriendlyProduct, t.ecoPointsAwarded, " +
+           "t.riskScore, t.duplicateOfId, t.submittedAt, t.reviewedAt) " +
+           "FROM TreePlantingSubmission t JOIN t.user u " +
+           "WHERE (:status IS NULL OR t.status = :status) " +
+           "AND (:ecoFriendly IS NULL OR t.isEcoFriendlyProduct = :ecoFriendly) " +
+           "AND (:from IS NULL OR t.submittedAt >= :from) " +
+           "AND (:to IS NULL OR t.submittedAt < :to) " +
+           "AND (:cursorSubmittedAt IS NULL OR t.submittedAt < :cursorSubmittedAt " +
+           "     OR (t.submittedAt = :cursorSubmittedAt AND t.id < :cursorId)) " +
+           "ORDER BY t.submittedAt DESC, t.id DESC")
+    List<TreePlantingReviewItemDto> findReviewPage(@Param("status") TreePlantingSubmission.SubmissionStatus status,
+                                                   @Param("ecoFriendly") Boolean ecoFriendly,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("cursorSubmittedAt") LocalDateTime cursorSubmittedAt,
+                                                   @Param("cursorId") Long cursorId,
+                                                   Pageable pageable);
+    
+    // Keyset page, highest duplicate risk first (unscored rows count as 0), then newest
+    @Query("SELECT new com.ecobazaar.backend.dto.TreePlantingReviewItemDto(t.id, u.id, u.username, t.order.id, " +
+           "t.imageUrl, t.description, t.status, t.isEcoFriendlyProduct, t.ecoPointsAwarded, " +
+           "t.riskScore, t.duplicateOfId, t.submittedAt, t.reviewedAt) " +
+           "FROM TreePlantingSubmission t JOIN t.user u " +
+           "WHERE (:status IS NULL OR t.status = :status) " +
+           "AND (:ecoFriendly IS NULL OR t.isEcoFriendlyProduct = :ecoFriendly) " +
+           "AND (:from IS NULL OR t.submittedAt >= :from) " +
+           "AND (:to IS NULL OR t.submittedAt < :to) " +
+           "AND (:cursorRisk IS NULL OR COALESCE(t.riskScore, 0) < :cursorRisk " +
+           "     OR (COALESCE(t.riskScore, 0) = :cursorRisk AND (t.submittedAt < :cursorSubmittedAt " +
+           "         OR (t.submittedAt = :cursorSubmittedAt AND t.id < :cursorId)))) " +
+           "ORDER BY COALESCE(t.riskScore, 0) DESC, t.submittedAt DESC, t.id DESC")
+    List<TreePlantingReviewItemDto> findReviewPageByRisk(@Param("status") TreePlantingSubmission.SubmissionStatus status,
+                                                         @Param("ecoFriendly") Boolean ecoFriendly,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to,
+                                                         @Param("cursorRisk") Integer cursorRisk,
+                                                         @Param("cursorSubmittedAt") LocalDateTime cursorSubmittedAt,
+                                                         @Param("cursorId") Long cursorId,
+                                                         Pageable pageable);
+    
+    // Single review: the submission locked until commit, so it cannot race another review of it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TreePlantingSubmission t WHERE t.id = :id")
+    Optional<TreePlantingSubmission> findByIdForUpdate(@Param("id") Long id);
+    
+    // Bulk review: [id, user_id] of the given submissions that may still be reviewed, locked until commit
+    @Query(value = "SELECT id, user_id FROM tree_planting_submissions " +
+                   "WHERE id IN (:ids) AND status <> 'APPROVED' ORDER BY id FOR UPDATE",
+           nativeQuery = true)
+    List<Object[]> lockReviewable(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query(value = "UPDATE tree_planting_submissions SET status = 'APPROVED', " +
+                   "eco_points_awarded = CASE WHEN is_eco_friendly_product THEN :ecoFriendlyPoints ELSE :basePoints END, " +
+                   "admin_notes = :adminNotes, reviewed_by = :adminId, reviewed_at = :reviewedAt " +
+                   "WHERE id IN (:ids)",
+           nativeQuery = true)
+    int approveAll(@Param("ids") Collection<Long> ids, @Param("basePoints") int basePoints,
+                   @Param("ecoFriendlyPoints") int ecoFriendlyPoints, @Param("adminNotes") String adminNotes,
+                   @Param("adminId") Long adminId, @Param("reviewedAt") LocalDateTime reviewedAt);
+    
+    @Modifying
+    @Query(value = "UPDATE tree_planting_submissions SET status = 'REJECTED', " +
+                   "admin_notes = :adminNotes, reviewed_by = :adminId, reviewed_at = :reviewedAt " +
+                   "WHERE id IN (:ids)",
+           nativeQuery = true)
+    int rejectAll(@Param("ids") Collection<Long> ids, @Param("adminNotes") String adminNotes,
+                  @Param("adminId") Long adminId, @Param("reviewedAt") LocalDateTime reviewedAt);
+    
+    // [user_id, eco_points_awarded] for notifying the customers of approved submissions
+    @Query(value = "SELECT user_id, eco_points_awarded FROM tree_planting_submissions WHERE id IN (:ids)",
+           nativeQuery = true)
+    List<Object[]> findAwards(@Param("ids") Collection<Long> ids);
+    
+    // --- Photo fingerprints ---
+    
+    // [id, imageHash] pairs in id order, for loading the in-memory index
+    @Query("SELECT t.id, t.imageHash FROM TreePlantingSubmission t " +
+           "WHERE t.imageHash IS NOT NULL AND t.id > :afterId ORDER BY t.id")
+    List<Object[]> findFingerprintsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // [id, imageUrl] of submissions whose photo has not been fingerprinted yet
+    @Query("SELECT t.id, t.imageUrl FROM TreePlantingSubmission t " +
+           "WHERE t.riskScore IS NULL AND t.id > :afterId ORDER BY t.id")
+    List<Object[]> findUnfingerprintedAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE TreePlantingSubmission t SET t.imageHash = :imageHash, t.duplicateOfId = :duplicateOfId, " +
+           "t.duplicateDistance = :duplicateDistance, t.riskScore = :riskScore WHERE t.id = :id")
+    int recordFingerprint(@Param("id") Long id, @Param("imageHash") Long imageHash,
+                          @Param("duplicateOfId") Long duplicateOfId,
+                          @Param("duplicateDistance") Integer duplicateDistance,
+                          @Param("riskScore") Integer riskScore);
 }
@@ -0,0 +1,46 @@
+package com.ecobazaar.backend.repository;
+
+import com.ecobazaar.backend.entity.UploadBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UploadBlobRepository extends JpaRepository<UploadBlob, String> {
+
+    // Takes one reference, creating the row for a blob seen for the first time
+    @Modifying
+    @Query(value = "INSERT INTO upload_blobs (hash, extension, size_bytes, ref_count, created_at, updated_at) " +
+                   "VALUES (:hash, :extension, :sizeBytes, 1, NOW(), NOW()) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, updated_at = NOW()",
+           nativeQuery = true)
+    int acquire(@Param("hash") String hash, @Param("extension") String extension, @Param("sizeBytes") long sizeBytes);
+
+    // Another reference to a blob that is already stored; 0 rows if it is not (or was collected)
+    @Modifying
+    @Query("UPDATE UploadBlob b SET b.refCount = b.refCount + 1, b.updatedAt = :now WHERE b.hash = :hash")
+    int retain(@Param("hash") String hash, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UploadBlob b SET b.refCount = b.refCount - 1, b.updatedAt = :now " +
+           "WHERE b.hash = :hash AND b.refCount > 0")
+    int release(@Param("hash") String hash, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM UploadBlob b WHERE b.refCount = 0 AND b.updatedAt < :cutoff ORDER BY b.updatedAt")
+    List<UploadBlob> findCollectable(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Re-checked at delete time so a blob that was referenced again in the meantime survives
+    @Modifying
+    @Query("DELETE FROM UploadBlob b WHERE b.hash = :hash AND b.refCount = 0 AND b.updatedAt < :cutoff")
+    int deleteIfUnreferenced(@Param("hash") String hash, @Param("cutoff") LocalDateTime cutoff);
+
+    // [blobs, bytes, references]
+    @Query("SELECT COUNT(b), COALESCE(SUM(b.sizeBytes), 0), COALESCE(SUM(b.refCount), 0) FROM UploadBlob b")
+    List<Object[]> summarize();
+
+    long countByRefCount(Integer refCount);
+}
@@ -1,9 +1,14 @@
 package com.ecobazaar.backend.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.ecobazaar.backend.dto.SellerWithStatsDto;
+import com.ecobazaar.backend.dto.UserManagementDto;
 import com.ecobazaar.backend.entity.Role;
 import com.ecobazaar.backend.entity.User;
 
@@ -25,4 +30,47 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u WHERE u.role = :role ORDER BY u.createdAt DESC")
     List<User> findByRoleOrderByCreatedAtDesc(@Param("role") Role role);
+
+    // Admin user listing: users joined with their order totals in one grouped query.
+    // Eco points come from the customer profile balance kept by the eco-points ledger.
+    // Sort by the aggregates with JpaSort.unsafe("COUNT(o.id)") or the COALESCE(SUM(...)) expression.
+    @Query(value = "SELECT new com.ecobazaar.backend.dto.UserManagementDto(u.id, u.username, u.email, " +
+                   "u.firstName, u.lastName, u.role, COALESCE(cp.ecoPoints, 0), u.isActive, u.createdAt, u.updatedAt, " +
+                   "COUNT(o.id), COALESCE(SUM(o.totalPrice), 0)) " +
+                   "FROM User u LEFT JOIN CustomerProfile cp ON cp.user = u LEFT JOIN Order o ON o.user = u " +
+                   "WHERE (:role IS NULL OR u.role = :role) " +
+                   "GROUP BY u.id, u.username, u.email, u.firstName, u.lastName, u.role, cp.ecoPoints, " +
+                   "u.isActive, u.createdAt, u.updatedAt",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE (:role IS NULL OR u.role = :role)")
+    Page<UserManagementDto> findUsersWithOrderStats(@Param("role") Role role, Pageable pageable);
+
+    // Seller leaderboard: product counts and line-item revenue for every seller in one grouped query.
+    // DISTINCT keeps product and order counts exact despite the product x order-item fan-out;
+    // revenue sums each order item once, so it is attributed per line rather than per order.
+    @Query(value = "SELECT new com.ecobazaar.backend.dto.SellerWithStatsDto(s.id, s.username, s.email, " +
+                   "s.firstName, s.lastName, s.isActive, s.createdAt, " +
+                   "COUNT(DISTINCT p.id), COUNT(DISTINCT CASE WHEN p.isActive = true THEN p.id END), " +
+                   "COALESCE(SUM(oi.price * oi.quantity), 0), COUNT(DISTINCT oi.order.id)) " +
+                   "FROM User s LEFT JOIN Product p ON p.seller = s LEFT JOIN OrderItem oi ON oi.product = p " +
+                   "WHERE s.role = :role " +
+                   "GROUP BY s.id, s.username, s.email, s.firstName, s.lastName, s.isActive, s.createdAt",
+           countQuery = "SELECT COUNT(s) FROM User s WHERE s.role = :role")
+    Page<SellerWithStatsDto> findSellersWithStats(@Param("role") Role role, Pageable pageable);
+
+    // Token revocation: version bump on role/status change, and the users whose
+    // older tokens must be refused after a restart
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = COALESCE(u.tokenVersion, 0) + 1 WHERE u.id = :userId")
+    int incrementTokenVersion(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(u.tokenVersion, 0) FROM User u WHERE u.id = :userId")
+    Integer findTokenVersionById(@Param("userId") Long userId);
+
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findIdsWithTokenVersion();
+
+    // Active recipients for a notification broadcast, paged by id (role null = everyone)
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND u.isActive = true " +
+           "AND (:role IS NULL OR u.role = :role) ORDER BY u.id")
+    List<Long> findActiveIdsAfter(@Param("afterId") Long afterId, @Param("role") Role role, Pageable pageable);
 }
@@ -0,0 +1,190 @@
+package com.ecobazaar.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Near-duplicate lookup for 64-bit perceptual hashes by multi-index
+ * hashing. The hash is cut into four 16-bit chunks, each with its own table
+ * of buckets. If two hashes differ in at most r bits, at least one chunk
+ * differs in at most r/4 bits (pigeonhole), so a search probes, per table,
+ * only the buckets within r/4 bits of the query's chunk and verifies the
+ * candidates with one XOR and popcount each. Unlike a BK-tree this stays
+ * fast when hashes are spread evenly over the 64-bit space.
+ *
+ * Entries live in primitive arrays (about 32 bytes each) with the buckets as
+ * linked lists through them, plus an open-addressed set of ids (about 16
+ * bytes each) that makes adding an id twice a no-op. Searches share a read
+ * lock; inserts take the write lock.
+ */
+public final class HammingIndex {
+
+    private static final int CHUNKS = 4;
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long NO_ID = Long.MIN_VALUE;
+
+    public static final class Match {
+        private final long id;
+        private final int distance;
+
+        Match(long id, int distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+
+        public long getId() { return id; }
+        public int getDistance() { return distance; }
+    }
+
+    // bucketHead[chunk][key] -> first entry, continued through next[chunk][entry]
+    private final int[][] bucketHead = new int[CHUNKS][1 << CHUNK_BITS];
+    private final int[][] next = new int[CHUNKS][];
+    private long[] entryHash = new long[INITIAL_CAPACITY];
+    private long[] entryId = new long[INITIAL_CAPACITY];
+    private int size;
+    // Linear probing, kept at most half full
+    private long[] idSlots = new long[INITIAL_CAPACITY * 2];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public HammingIndex() {
+        for (int chunk = 0; chunk < CHUNKS; chunk++) {
+            Arrays.fill(bucketHead[chunk], -1);
+            next[chunk] = new int[INITIAL_CAPACITY];
+        }
+        Arrays.fill(idSlots, NO_ID);
+    }
+
+    /** Adds the hash under the id; returns false, changing nothing, if the id is already indexed. */
+    public boolean add(long hash, long id) {
+        lock.writeLock().lock();
+        try {
+            if (!insertId(id)) {
+                return false;
+            }
+            if (size == entryHash.length) {
+                int capacity = entryHash.length * 2;
+                entryHash = Arrays.copyOf(entryHash, capacity);
+                entryId = Arrays.copyOf(entryId, capacity);
+                for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                    next[chunk] = Arrays.copyOf(next[chunk], capacity);
+                }
+            }
+            int entry = size++;
+            entryHash[entry] = hash;
+            entryId[entry] = id;
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                int key = chunkOf(hash, chunk);
+                next[chunk][entry] = bucketHead[chunk][key];
+                bucketHead[chunk][key] = entry;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return idSlots[slotOf(idSlots, id)] == id;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids whose hash is within maxDistance bits of the given one, nearest first. */
+    public List<Match> search(long hash, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        int chunkRadius = maxDistance / CHUNKS;
+        lock.readLock().lock();
+        try {
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                probe(hash, maxDistance, chunkRadius, chunk, chunkOf(hash, chunk), 0, chunkRadius, matches);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingInt(Match::getDistance));
+        return matches;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Visits every key within `flips` more bit flips of `key`, flipping only bits at or above `fromBit`
+    private void probe(long hash, int maxDistance, int chunkRadius, int chunk, int key,
+                       int fromBit, int flips, List<Match> matches) {
+        for (int entry = bucketHead[chunk][key]; entry >= 0; entry = next[chunk][entry]) {
+            long candidate = entryHash[entry];
+            if (seenInEarlierChunk(hash, candidate, chunk, chunkRadius)) {
+                continue;
+            }
+            int distance = Long.bitCount(hash ^ candidate);
+            if (distance <= maxDistance) {
+                matches.add(new Match(entryId[entry], distance));
+            }
+        }
+        if (flips == 0) {
+            return;
+        }
+        for (int bit = fromBit; bit < CHUNK_BITS; bit++) {
+            probe(hash, maxDistance, chunkRadius, chunk, key ^ (1 << bit), bit + 1, flips - 1, matches);
+        }
+    }
+
+    // An entry reachable from several tables is reported only by the first of them
+    private static boolean seenInEarlierChunk(long hash, long candidate, int chunk, int chunkRadius) {
+        for (int earlier = 0; earlier < chunk; earlier++) {
+            if (Integer.bitCount(chunkOf(hash, earlier) ^ chunkOf(candidate, earlier)) <= chunkRadius) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Caller holds the write lock
+    private boolean insertId(long id) {
+        int slot = slotOf(idSlots, id);
+        if (idSlots[slot] == id) {
+            return false;
+        }
+        idSlots[slot] = id;
+        if ((size + 1) * 2 > idSlots.length) {
+            long[] old = idSlots;
+            idSlots = new long[old.length * 2];
+            Arrays.fill(idSlots, NO_ID);
+            for (long existing : old) {
+                if (existing != NO_ID) {
+                    idSlots[slotOf(idSlots, existing)] = existing;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Slot holding id, or the empty slot where it would go
+    private static int slotOf(long[] slots, long id) {
+        int mask = slots.length - 1;
+        int slot = (int) (id * 0x9E3779B97F4A7C15L >>> 32) & mask;
+        while (slots[slot] != NO_ID && slots[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int chunkOf(long hash, int chunk) {
+        return (int) (hash >>> (chunk * CHUNK_BITS)) & CHUNK_MASK;
+    }
+}
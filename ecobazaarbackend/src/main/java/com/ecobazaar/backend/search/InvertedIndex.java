@@ -0,0 +1,92 @@
+package com.ecobazaar.backend.search;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Term -> (document id -> field-weighted term frequency). Terms are kept
+ * sorted so a prefix is one sub-map range and typo candidates can be limited
+ * to terms sharing the first letter.
+ *
+ * Not thread-safe; the owning service serializes writers against readers.
+ */
+public class InvertedIndex {
+
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.7f;
+    private static final float FUZZY_MATCH = 0.5f;
+
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> termsByDocument = new HashMap<>();
+
+    public void put(Long documentId, Map<String, Float> termWeights) {
+        remove(documentId);
+        termWeights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(documentId, weight));
+        termsByDocument.put(documentId, termWeights.keySet());
+    }
+
+    public void remove(Long documentId) {
+        Set<String> terms = termsByDocument.remove(documentId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> documents = postings.get(term);
+            if (documents != null) {
+                documents.remove(documentId);
+                if (documents.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        termsByDocument.clear();
+    }
+
+    public int documentCount() {
+        return termsByDocument.size();
+    }
+
+    /**
+     * Scores every document matching one query term: exact and prefix matches
+     * first, and only if there are none, terms within the allowed edit
+     * distance. A document matched by several expansions keeps its best score.
+     */
+    public Map<Long, Float> match(String queryTerm) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Float>> entry
+                : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, true).entrySet()) {
+            float factor = entry.getKey().equals(queryTerm) ? EXACT_MATCH : PREFIX_MATCH;
+            accumulate(scores, entry.getValue(), factor);
+        }
+        if (!scores.isEmpty()) {
+            return scores;
+        }
+
+        int maxEdits = TextAnalyzer.maxEdits(queryTerm);
+        if (maxEdits == 0) {
+            return scores;
+        }
+        String first = queryTerm.substring(0, 1);
+        String next = String.valueOf((char) (queryTerm.charAt(0) + 1));
+        for (Map.Entry<String, Map<Long, Float>> entry : postings.subMap(first, true, next, false).entrySet()) {
+            if (TextAnalyzer.boundedEditDistance(queryTerm, entry.getKey(), maxEdits) <= maxEdits) {
+                accumulate(scores, entry.getValue(), FUZZY_MATCH);
+            }
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Float> scores, Map<Long, Float> documents, float factor) {
+        // Rarer terms count for more: smoothed inverse document frequency
+        float idf = (float) Math.log(1.0 + (double) Math.max(documentCount(), 1) / documents.size());
+        documents.forEach((documentId, weight) -> scores.merge(documentId, factor * idf * weight, Math::max));
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecobazaar.backend.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie for autocomplete, flattened into primitive arrays.
+ * Each node keeps the ids of its best-ranked suggestions (up to maxPerNode), so
+ * a lookup walks the prefix and copies one precomputed slice: the cost depends
+ * on the prefix length, not on how many entries share the prefix.
+ *
+ * Children of a node are laid out contiguously and sorted by character, so
+ * a step down the trie is a binary search in a short range.
+ */
+public final class SuggestionTrie {
+
+    private final char[] nodeChar;
+    private final int[] childStart;
+    private final int[] childCount;
+    private final int[] topStart;
+    private final int[] topCount;
+    private final int[] topPool;
+
+    private SuggestionTrie(char[] nodeChar, int[] childStart, int[] childCount,
+                           int[] topStart, int[] topCount, int[] topPool) {
+        this.nodeChar = nodeChar;
+        this.childStart = childStart;
+        this.childCount = childCount;
+        this.topStart = topStart;
+        this.topCount = topCount;
+        this.topPool = topPool;
+    }
+
+    /** Suggestion ids for the prefix, best first; empty if nothing starts with it. */
+    public int[] lookup(String prefix, int limit) {
+        int node = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = child(node, prefix.charAt(i));
+            if (node < 0) {
+                return new int[0];
+            }
+        }
+        int count = Math.min(limit, topCount[node]);
+        return Arrays.copyOfRange(topPool, topStart[node], topStart[node] + count);
+    }
+
+    public int nodeCount() {
+        return nodeChar.length;
+    }
+
+    private int child(int node, char c) {
+        int low = childStart[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (nodeChar[mid] < c) {
+                low = mid + 1;
+            } else if (nodeChar[mid] > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // --- Building ---
+
+    private static final class BuildNode {
+        private final char c;
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        private final List<Integer> entries = new ArrayList<>(1);
+        private int[] top;
+
+        private BuildNode(char c) {
+            this.c = c;
+        }
+    }
+
+    /**
+     * Builds the trie from (key, suggestion id) pairs. Several keys may point
+     * to the same suggestion; it is listed once per node. rank[id] orders
+     * suggestions: a higher value comes first.
+     */
+    public static SuggestionTrie build(List<Map.Entry<String, Integer>> keys, long[] rank, int maxPerNode) {
+        BuildNode root = new BuildNode('\0');
+        for (Map.Entry<String, Integer> key : keys) {
+            BuildNode node = root;
+            for (int i = 0; i < key.getKey().length(); i++) {
+                node = node.children.computeIfAbsent(key.getKey().charAt(i), BuildNode::new);
+            }
+            node.entries.add(key.getValue());
+        }
+        computeTop(root, rank, maxPerNode);
+
+        // Breadth-first numbering keeps each node's children contiguous
+        List<BuildNode> order = new ArrayList<>();
+        Deque<BuildNode> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            BuildNode node = queue.poll();
+            order.add(node);
+            queue.addAll(node.children.values());
+        }
+
+        int size = order.size();
+        char[] nodeChar = new char[size];
+        int[] childStart = new int[size];
+        int[] childCount = new int[size];
+        int[] topStart = new int[size];
+        int[] topCount = new int[size];
+        int poolSize = 0;
+        for (BuildNode node : order) {
+            poolSize += node.top.length;
+        }
+        int[] topPool = new int[poolSize];
+
+        int nextChild = 1;
+        int nextPool = 0;
+        for (int i = 0; i < size; i++) {
+            BuildNode node = order.get(i);
+            nodeChar[i] = node.c;
+            childStart[i] = nextChild;
+            childCount[i] = node.children.size();
+            nextChild += node.children.size();
+            topStart[i] = nextPool;
+            topCount[i] = node.top.length;
+            System.arraycopy(node.top, 0, topPool, nextPool, node.top.length);
+            nextPool += node.top.length;
+        }
+        return new SuggestionTrie(nodeChar, childStart, childCount, topStart, topCount, topPool);
+    }
+
+    // Post-order: a node's best suggestions are the best of its own entries and its children's
+    private static void computeTop(BuildNode root, long[] rank, int maxPerNode) {
+        Deque<BuildNode> stack = new ArrayDeque<>();
+        List<BuildNode> postOrder = new ArrayList<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            BuildNode node = stack.pop();
+            postOrder.add(node);
+            node.children.values().forEach(stack::push);
+        }
+        for (int i = postOrder.size() - 1; i >= 0; i--) {
+            BuildNode node = postOrder.get(i);
+            List<Integer> candidates = new ArrayList<>(node.entries);
+            for (BuildNode child : node.children.values()) {
+                for (int id : child.top) {
+                    candidates.add(id);
+                }
+            }
+            node.top = candidates.stream()
+                    .distinct()
+                    .sorted((a, b) -> rank[a] != rank[b] ? Long.compare(rank[b], rank[a]) : Integer.compare(a, b))
+                    .limit(maxPerNode)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+}
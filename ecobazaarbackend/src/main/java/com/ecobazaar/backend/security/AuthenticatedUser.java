@@ -0,0 +1,44 @@
+package com.ecobazaar.backend.security;
+
+import com.ecobazaar.backend.entity.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Request principal built straight from JWT claims. Implements Principal so
+ * Authentication.getName() keeps returning the username.
+ */
+public class AuthenticatedUser implements Principal {
+    private final Long id;
+    private final String username;
+    private final Role role;
+    private final int tokenVersion;
+
+    public AuthenticatedUser(Long id, String username, Role role, int tokenVersion) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() { return username; }
+
+    public Long getId() { return id; }
+    public String getUsername() { return username; }
+    public Role getRole() { return role; }
+    public int getTokenVersion() { return tokenVersion; }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecobazaar.backend.security;
 
 import com.ecobazaar.backend.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,37 +26,64 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
-        final String authHeader = request.getHeader("Authorization");
-        final String jwt;
+        final String jwt = resolveToken(request);
+        final Claims claims;
         final String username;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (jwt == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        // Signature is verified once per token; afterwards this is a cache hit
+        claims = jwtService.extractAllClaims(jwt);
+        username = claims.getSubject();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            AuthenticatedUser principal = jwtService.extractPrincipal(claims);
+            UsernamePasswordAuthenticationToken authToken = null;
+            
+            if (principal != null) {
+                // Claims-carrying token: no database lookup, only the revocation check
+                if (!tokenRevocationService.isRevoked(principal.getId(), principal.getTokenVersion())
+                        && jwtService.isTokenValid(claims, principal.getUsername())) {
+                    authToken = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                }
+            } else {
+                // Token issued before claims were added: resolve the user instead
+                UserDetails userDetails = this.userDetailsService.loadUserForRequest(username);
+                if (userDetails.isEnabled() && jwtService.isTokenValid(claims, userDetails.getUsername())) {
+                    authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                    );
+                }
+            }
             
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    userDetails.getAuthorities()
-                );
+            if (authToken != null) {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    // Only the Authorization header; the notification stream authenticates with a StreamTicketService ticket
+    private String resolveToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
 }
@@ -0,0 +1,58 @@
+package com.ecobazaar.backend.security;
+
+import com.ecobazaar.backend.cache.TtlCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Short-lived, single-use tickets for opening the notification stream.
+ * EventSource cannot send an Authorization header, and putting the bearer
+ * JWT in the URL would leak it into access logs, proxy logs and browser
+ * history. Instead the client trades its JWT for a ticket with an
+ * authenticated POST and puts only the ticket in the stream URL; the ticket
+ * identifies the user for one connection and is worthless afterwards.
+ */
+@Service
+public class StreamTicketService {
+
+    private static final int TICKET_BYTES = 32;
+
+    @Value("${notifications.stream.ticket-ttl-seconds:30}")
+    private long ticketTtlSeconds;
+
+    @Value("${notifications.stream.max-open-tickets:10000}")
+    private int maxOpenTickets;
+
+    private final SecureRandom random = new SecureRandom();
+    private TtlCache<String, Long> tickets;
+
+    @PostConstruct
+    void init() {
+        tickets = new TtlCache<>(maxOpenTickets, Duration.ofSeconds(ticketTtlSeconds));
+    }
+
+    public String issue(Long userId) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, userId);
+        return ticket;
+    }
+
+    /** The user the ticket was issued to, or null if it is unknown, expired or already used. */
+    public Long redeem(String ticket) {
+        if (ticket == null || ticket.isBlank()) {
+            return null;
+        }
+        return tickets.remove(ticket);
+    }
+
+    public long getTicketTtlSeconds() {
+        return ticketTtlSeconds;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecobazaar.backend.security;
+
+import com.ecobazaar.backend.event.UserChangedEvent;
+import com.ecobazaar.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lowest token version still accepted per user. Only users whose tokens were
+ * ever revoked have an entry, so the table stays small and the check on each
+ * request is one map lookup. The versions themselves live on users.token_version
+ * and are reloaded at startup.
+ */
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Integer> minimumVersions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() {
+        for (Object[] row : userRepository.findIdsWithTokenVersion()) {
+            minimumVersions.put((Long) row[0], (Integer) row[1]);
+        }
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Integer minimum = minimumVersions.get(userId);
+        return minimum != null && tokenVersion < minimum;
+    }
+
+    // A role or active-flag change invalidates every token issued before it
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isNewUser()) {
+            return;
+        }
+        if (event.getPreviousRole() == event.getRole() && event.isPreviouslyActive() == event.isActive()) {
+            return;
+        }
+        userRepository.incrementTokenVersion(event.getUserId());
+        minimumVersions.put(event.getUserId(), userRepository.findTokenVersionById(event.getUserId()));
+    }
+}
@@ -1,14 +1,21 @@
 package com.ecobazaar.backend.security;
 
+import com.ecobazaar.backend.cache.TtlCache;
 import com.ecobazaar.backend.entity.User;
+import com.ecobazaar.backend.event.UserChangedEvent;
 import com.ecobazaar.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.util.Collections;
 
 @Service
@@ -17,6 +24,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${security.user-cache.max-entries:10000}")
+    private int requestUserCacheSize;
+
+    @Value("${security.user-cache.ttl-ms:30000}")
+    private long requestUserCacheTtlMs;
+
+    // Principals for JWT-authenticated requests, kept briefly so the filter
+    // does not query MySQL on every call. Evicted when an admin changes the user.
+    private TtlCache<String, UserDetails> requestUsers;
+
+    @PostConstruct
+    void init() {
+        requestUsers = new TtlCache<>(requestUserCacheSize, Duration.ofMillis(requestUserCacheTtlMs));
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
@@ -33,6 +55,40 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         );
     }
     
+    /**
+     * Cached lookup for the JWT filter. The result carries no password: the
+     * login flow keeps using loadUserByUsername, whose result Spring Security
+     * erases credentials on, so the two must never share an instance.
+     */
+    public UserDetails loadUserForRequest(String username) throws UsernameNotFoundException {
+        return requestUsers.get(username, name -> {
+            UserDetails user = loadUserByUsername(name);
+            return new org.springframework.security.core.userdetails.User(
+                    user.getUsername(), "", user.isEnabled(), true, true, true, user.getAuthorities());
+        });
+    }
+
+    public void evictUser(String username) {
+        requestUsers.invalidate(username);
+    }
+
+    // Runs after the admin's transaction commits, so the next load sees the new role/status
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evictUser(event.getUsername());
+    }
+    
+    /**
+     * Current user's id: read from the claims-built principal when present,
+     * otherwise looked up by username.
+     */
+    public Long getUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return getUserIdByUsername(authentication.getName());
+    }
+    
     public Long getUserIdByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
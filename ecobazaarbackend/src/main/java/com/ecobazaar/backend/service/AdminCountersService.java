@@ -0,0 +1,160 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.AdminOverviewDto;
+import com.ecobazaar.backend.entity.Role;
+import com.ecobazaar.backend.event.OrderPlacedEvent;
+import com.ecobazaar.backend.event.ProductChangedEvent;
+import com.ecobazaar.backend.event.UserChangedEvent;
+import com.ecobazaar.backend.repository.OrderRepository;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory totals behind the admin overview. Writes apply deltas through
+ * domain events once their transaction commits, so reading the overview is
+ * O(1). A periodic reconciliation recomputes every total from the database
+ * to correct drift from writes that bypass the events (seed data, manual SQL).
+ */
+@Service
+public class AdminCountersService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminCountersService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong totalSellers = new AtomicLong();
+    private final AtomicLong totalCustomers = new AtomicLong();
+    private final AtomicLong activeSellers = new AtomicLong();
+    private final AtomicLong totalProducts = new AtomicLong();
+    private final AtomicReference<BigDecimal> totalCarbonImpact = new AtomicReference<>(BigDecimal.ZERO);
+    private final AtomicLong totalOrders = new AtomicLong();
+    private final AtomicReference<BigDecimal> totalRevenue = new AtomicReference<>(BigDecimal.ZERO);
+
+    private volatile boolean initialized = false;
+
+    public AdminOverviewDto getOverview() {
+        if (!initialized) {
+            reconcile();
+        }
+        long sellers = totalSellers.get();
+        long active = activeSellers.get();
+        return new AdminOverviewDto(totalUsers.get(), sellers, totalCustomers.get(), active,
+                                    totalProducts.get(), totalCarbonImpact.get(), sellers - active,
+                                    totalOrders.get(), totalRevenue.get());
+    }
+
+    // --- Event handlers (run after the publishing transaction commits) ---
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isNewUser()) {
+            totalUsers.incrementAndGet();
+        } else {
+            applyRole(event.getPreviousRole(), event.isPreviouslyActive(), -1);
+        }
+        applyRole(event.getRole(), event.isActive(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.CREATED) {
+            totalProducts.incrementAndGet();
+        } else if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            totalProducts.decrementAndGet();
+        }
+        if (event.isPreviouslyActive()) {
+            addCarbon(nullToZero(event.getPreviousCarbonScore()).negate());
+        }
+        if (event.isActive()) {
+            addCarbon(nullToZero(event.getCarbonScore()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        totalOrders.incrementAndGet();
+        BigDecimal amount = nullToZero(event.getTotalPrice());
+        totalRevenue.accumulateAndGet(amount, BigDecimal::add);
+    }
+
+    // --- Reconciliation ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${admin.counters.reconcile-interval-ms:300000}",
+               initialDelayString = "${admin.counters.reconcile-interval-ms:300000}")
+    public void reconcileOnSchedule() {
+        reconcile();
+    }
+
+    public synchronized void reconcile() {
+        long users = userRepository.count();
+        long sellers = userRepository.countByRole(Role.SELLER);
+        long customers = userRepository.countByRole(Role.CUSTOMER);
+        long active = userRepository.countByRoleAndIsActiveTrue(Role.SELLER);
+        long products = productRepository.count();
+        BigDecimal carbon = nullToZero(productRepository.sumTotalCarbonScore());
+        long orders = orderRepository.count();
+        BigDecimal revenue = nullToZero(orderRepository.sumTotalRevenue());
+
+        if (initialized && (users != totalUsers.get() || products != totalProducts.get()
+                || orders != totalOrders.get() || revenue.compareTo(totalRevenue.get()) != 0)) {
+            log.info("Admin counters drifted from database (users {} -> {}, products {} -> {}, orders {} -> {}); corrected",
+                     totalUsers.get(), users, totalProducts.get(), products, totalOrders.get(), orders);
+        }
+
+        totalUsers.set(users);
+        totalSellers.set(sellers);
+        totalCustomers.set(customers);
+        activeSellers.set(active);
+        totalProducts.set(products);
+        totalCarbonImpact.set(carbon);
+        totalOrders.set(orders);
+        totalRevenue.set(revenue);
+        initialized = true;
+    }
+
+    // --- Helpers ---
+
+    private void applyRole(Role role, boolean active, int delta) {
+        if (role == Role.SELLER) {
+            totalSellers.addAndGet(delta);
+            if (active) {
+                activeSellers.addAndGet(delta);
+            }
+        } else if (role == Role.CUSTOMER) {
+            totalCustomers.addAndGet(delta);
+        }
+    }
+
+    private void addCarbon(BigDecimal delta) {
+        totalCarbonImpact.accumulateAndGet(delta, BigDecimal::add);
+    }
+
+    private BigDecimal nullToZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -2,14 +2,22 @@ package com.ecobazaar.backend.service;
 
 import com.ecobazaar.backend.dto.*;
 import com.ecobazaar.backend.entity.*;
+import com.ecobazaar.backend.event.ProductChangedEvent;
+import com.ecobazaar.backend.event.UserChangedEvent;
 import com.ecobazaar.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -17,6 +25,11 @@ import java.util.stream.Collectors;
 @Transactional
 public class AdminService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Ratings are not collected yet; sellers keep the placeholder the dashboard has always shown
+    private static final BigDecimal DEFAULT_SELLER_RATING = BigDecimal.valueOf(4.5);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -30,31 +43,21 @@ public class AdminService {
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private NotificationService notificationService;
+    private NotificationFanoutService notificationFanoutService;
 
     @Autowired
     private ProductService productService;
 
-    // --- Overview Dashboard Methods ---
-    public AdminOverviewDto getAdminOverview() {
-        Long totalUsers = userRepository.count();
-        Long totalSellers = userRepository.countByRole(Role.SELLER);
-        Long totalCustomers = userRepository.countByRole(Role.CUSTOMER);
-        Long activeSellers = userRepository.countByRoleAndIsActiveTrue(Role.SELLER);
-        Long totalProducts = productRepository.count();
-
-        BigDecimal totalCarbonImpact = productRepository.sumTotalCarbonScore();
-        if (totalCarbonImpact == null) totalCarbonImpact = BigDecimal.ZERO;
-
-        Long pendingApplications = userRepository.countByRole(Role.SELLER) - activeSellers;
+    @Autowired
+    private AdminCountersService adminCountersService;
 
-        Long totalOrders = orderRepository.count();
-        BigDecimal totalRevenue = orderRepository.sumTotalRevenue();
-        if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-        return new AdminOverviewDto(totalUsers, totalSellers, totalCustomers, activeSellers,
-                                   totalProducts, totalCarbonImpact, pendingApplications,
-                                   totalOrders, totalRevenue);
+    // --- Overview Dashboard Methods ---
+    public AdminOverviewDto getAdminOverview() {
+        // Served from incrementally maintained counters; see AdminCountersService
+        return adminCountersService.getOverview();
     }
 
     public List<RecentActivityDto> getRecentActivity() {
@@ -109,41 +112,33 @@ public class AdminService {
 
     // --- User Management Methods ---
     public List<UserManagementDto> getAllUsersWithStats() {
-        List<User> users = userRepository.findAll();
-        List<UserManagementDto> userDtos = new ArrayList<>();
-
-        for (User user : users) {
-            Long totalOrders = orderRepository.countOrdersByUserId(user.getId());
-            BigDecimal totalSpent = orderRepository.sumTotalSpentByUserId(user.getId());
-            if (totalSpent == null) totalSpent = BigDecimal.ZERO;
-
-            userDtos.add(new UserManagementDto(
-                user.getId(), user.getUsername(), user.getEmail(),
-                user.getFirstName(), user.getLastName(), user.getRole(),
-                user.getEcoPoints(), user.getIsActive(), user.getCreatedAt(),
-                user.getUpdatedAt(), totalOrders, totalSpent
-            ));
-        }
-        return userDtos;
+        return userRepository.findUsersWithOrderStats(null, Pageable.unpaged(Sort.by("id"))).getContent();
     }
 
     public List<UserManagementDto> getUsersByRole(Role role) {
-        List<User> users = userRepository.findByRole(role);
-        List<UserManagementDto> userDtos = new ArrayList<>();
-
-        for (User user : users) {
-            Long totalOrders = orderRepository.countOrdersByUserId(user.getId());
-            BigDecimal totalSpent = orderRepository.sumTotalSpentByUserId(user.getId());
-            if (totalSpent == null) totalSpent = BigDecimal.ZERO;
-
-            userDtos.add(new UserManagementDto(
-                user.getId(), user.getUsername(), user.getEmail(),
-                user.getFirstName(), user.getLastName(), user.getRole(),
-                user.getEcoPoints(), user.getIsActive(), user.getCreatedAt(),
-                user.getUpdatedAt(), totalOrders, totalSpent
-            ));
+        return userRepository.findUsersWithOrderStats(role, Pageable.unpaged(Sort.by("id"))).getContent();
+    }
+
+    /**
+     * One page of users with their order count and total spent, built by a single
+     * grouped query. sortBy is "totalSpent" (default), "totalOrders" or "createdAt".
+     */
+    public PageDto<UserManagementDto> getUsersWithStatsPage(Role role, String sortBy, String direction,
+                                                            int page, int size) {
+        Sort.Direction dir = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        JpaSort sort;
+        if ("totalOrders".equals(sortBy)) {
+            sort = JpaSort.unsafe(dir, "COUNT(o.id)");
+        } else if ("createdAt".equals(sortBy)) {
+            sort = JpaSort.unsafe(dir, "u.createdAt");
+        } else {
+            sort = JpaSort.unsafe(dir, "COALESCE(SUM(o.totalPrice), 0)");
         }
-        return userDtos;
+        // Tie-break on id so rows with equal totals keep a stable position across pages
+        sort = sort.andUnsafe(Sort.Direction.ASC, "u.id");
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0), clampPageSize(size), sort);
+        return PageDto.from(userRepository.findUsersWithOrderStats(role, pageable));
     }
 
     // --- Pending Admins & Approvals ---
@@ -158,10 +153,12 @@ public class AdminService {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
+            Role previousRole = user.getRole();
+            Boolean wasActive = user.getIsActive();
             user.setIsActive(true);
             userRepository.save(user);
-            notificationService.createNotification(user, "Admin Access Approved",
-                "Your request for Admin access has been approved.", "ACCESS_APPROVED");
+            eventPublisher.publishEvent(UserChangedEvent.updated(previousRole, wasActive, user));
+            notificationFanoutService.notifyUser(user.getId(), "access-approved", Map.of());
         }
     }
 
@@ -169,10 +166,12 @@ public class AdminService {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
+            Role previousRole = user.getRole();
+            Boolean wasActive = user.getIsActive();
             user.setIsActive(false);
             userRepository.save(user);
-            notificationService.createNotification(user, "Account Status Update",
-                "Your account request was rejected or access revoked.", "ACCOUNT_REJECTED");
+            eventPublisher.publishEvent(UserChangedEvent.updated(previousRole, wasActive, user));
+            notificationFanoutService.notifyUser(user.getId(), "account-rejected", Map.of());
         }
     }
 
@@ -180,14 +179,13 @@ public class AdminService {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
+            Role previousRole = user.getRole();
+            Boolean wasActive = user.getIsActive();
             user.setIsActive(isActive);
             userRepository.save(user);
-
-            String title = isActive ? "Account Activated" : "Account Deactivated";
-            String message = isActive ?
-                "Your account has been activated." :
-                "Your account has been deactivated. Contact support.";
-            notificationService.createNotification(user, title, message, "ACCOUNT_STATUS");
+            eventPublisher.publishEvent(UserChangedEvent.updated(previousRole, wasActive, user));
+            notificationFanoutService.notifyUser(user.getId(),
+                Boolean.TRUE.equals(isActive) ? "account-activated" : "account-deactivated", Map.of());
         }
     }
 
@@ -195,43 +193,57 @@ public class AdminService {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
+            Role previousRole = user.getRole();
+            Boolean wasActive = user.getIsActive();
             user.setRole(role);
             userRepository.save(user);
-            notificationService.createNotification(user, "Role Updated",
-                "Your account role is now " + role, "ROLE_UPDATE");
+            eventPublisher.publishEvent(UserChangedEvent.updated(previousRole, wasActive, user));
+            notificationFanoutService.notifyUser(user.getId(), "role-updated", Map.of("role", role));
         }
     }
 
     // --- Seller Management ---
     public List<SellerWithStatsDto> getAllSellersWithStats() {
-        List<User> sellers = userRepository.findByRole(Role.SELLER);
-        List<SellerWithStatsDto> sellerDtos = new ArrayList<>();
-
-        for (User seller : sellers) {
-            Long totalProducts = productRepository.countBySellerId(seller.getId());
-            Long activeProducts = productRepository.countBySellerIdAndIsActiveTrue(seller.getId());
-            BigDecimal totalRevenue = orderRepository.sumTotalAmountBySellerId(seller.getId());
-            Long totalOrders = orderRepository.countBySellerId(seller.getId());
-            if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
-
-            sellerDtos.add(new SellerWithStatsDto(
-                seller.getId(), seller.getUsername(), seller.getEmail(),
-                seller.getFirstName(), seller.getLastName(), seller.getIsActive(),
-                seller.getCreatedAt(), totalProducts, activeProducts,
-                totalRevenue, totalOrders, BigDecimal.valueOf(4.5)
-            ));
+        List<SellerWithStatsDto> sellers = userRepository
+                .findSellersWithStats(Role.SELLER, Pageable.unpaged(Sort.by("id"))).getContent();
+        sellers.forEach(seller -> seller.setAverageRating(DEFAULT_SELLER_RATING));
+        return sellers;
+    }
+
+    /**
+     * Seller leaderboard page from one grouped query. sortBy is "totalRevenue"
+     * (default), "totalOrders", "totalProducts" or "createdAt".
+     */
+    public PageDto<SellerWithStatsDto> getSellerLeaderboard(String sortBy, String direction, int page, int size) {
+        Sort.Direction dir = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        JpaSort sort;
+        if ("totalOrders".equals(sortBy)) {
+            sort = JpaSort.unsafe(dir, "COUNT(DISTINCT oi.order.id)");
+        } else if ("totalProducts".equals(sortBy)) {
+            sort = JpaSort.unsafe(dir, "COUNT(DISTINCT p.id)");
+        } else if ("createdAt".equals(sortBy)) {
+            sort = JpaSort.unsafe(dir, "s.createdAt");
+        } else {
+            sort = JpaSort.unsafe(dir, "COALESCE(SUM(oi.price * oi.quantity), 0)");
         }
-        return sellerDtos;
+        sort = sort.andUnsafe(Sort.Direction.ASC, "s.id");
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0), clampPageSize(size), sort);
+        PageDto<SellerWithStatsDto> result = PageDto.from(userRepository.findSellersWithStats(Role.SELLER, pageable));
+        result.getItems().forEach(seller -> seller.setAverageRating(DEFAULT_SELLER_RATING));
+        return result;
     }
 
     public void approveSeller(Long sellerId, String adminNotes) {
         Optional<User> sellerOpt = userRepository.findById(sellerId);
         if (sellerOpt.isPresent()) {
             User seller = sellerOpt.get();
+            Role previousRole = seller.getRole();
+            Boolean wasActive = seller.getIsActive();
             seller.setIsActive(true);
             userRepository.save(seller);
-            notificationService.createNotification(seller, "Seller Approved",
-                "Your seller account is approved!", "SELLER_APPROVAL");
+            eventPublisher.publishEvent(UserChangedEvent.updated(previousRole, wasActive, seller));
+            notificationFanoutService.notifyUser(seller.getId(), "seller-approved", Map.of());
         }
     }
 
@@ -239,10 +251,12 @@ public class AdminService {
         Optional<User> sellerOpt = userRepository.findById(sellerId);
         if (sellerOpt.isPresent()) {
             User seller = sellerOpt.get();
+            Role previousRole = seller.getRole();
+            Boolean wasActive = seller.getIsActive();
             seller.setIsActive(false);
             userRepository.save(seller);
-            notificationService.createNotification(seller, "Seller Application Rejected",
-                "Reason: " + adminNotes, "SELLER_REJECTION");
+            eventPublisher.publishEvent(UserChangedEvent.updated(previousRole, wasActive, seller));
+            notificationFanoutService.notifyUser(seller.getId(), "seller-rejected", reason(adminNotes));
         }
     }
 
@@ -250,10 +264,12 @@ public class AdminService {
         Optional<User> sellerOpt = userRepository.findById(sellerId);
         if (sellerOpt.isPresent()) {
             User seller = sellerOpt.get();
+            Role previousRole = seller.getRole();
+            Boolean wasActive = seller.getIsActive();
             seller.setIsActive(false);
             userRepository.save(seller);
-            notificationService.createNotification(seller, "Account Blocked",
-                "Reason: " + reason, "ACCOUNT_BLOCKED");
+            eventPublisher.publishEvent(UserChangedEvent.updated(previousRole, wasActive, seller));
+            notificationFanoutService.notifyUser(seller.getId(), "account-blocked", reason(reason));
         }
     }
 
@@ -280,8 +296,8 @@ public class AdminService {
         Optional<Product> productOpt = productRepository.findById(productId);
         if (productOpt.isPresent()) {
             Product product = productOpt.get();
-            notificationService.createNotification(product.getSeller(), "Product Removed",
-                "Your product '" + product.getName() + "' was removed. Reason: " + reason, "PRODUCT_REMOVAL");
+            notificationFanoutService.notifyUser(product.getSeller().getId(), "product-removed",
+                Map.of("product", product.getName(), "reason", String.valueOf(reason)));
             productService.deleteProduct(productId);
         }
     }
@@ -290,12 +306,14 @@ public class AdminService {
         Optional<Product> productOpt = productRepository.findById(productId);
         if (productOpt.isPresent()) {
             Product product = productOpt.get();
+            Boolean wasActive = product.getIsActive();
+            BigDecimal previousCarbonScore = product.getCarbonScore();
             product.setIsActive(isActive);
             productRepository.save(product);
-
-            String status = isActive ? "Approved" : "Suspended";
-            notificationService.createNotification(product.getSeller(), "Product " + status,
-                "Product: " + product.getName(), "PRODUCT_STATUS");
+            eventPublisher.publishEvent(ProductChangedEvent.updated(wasActive, previousCarbonScore, product));
+            notificationFanoutService.notifyUser(product.getSeller().getId(),
+                Boolean.TRUE.equals(isActive) ? "product-activated" : "product-suspended",
+                Map.of("product", product.getName()));
         }
     }
 
@@ -303,10 +321,13 @@ public class AdminService {
         Optional<Product> productOpt = productRepository.findById(productId);
         if (productOpt.isPresent()) {
             Product product = productOpt.get();
+            Boolean wasActive = product.getIsActive();
+            BigDecimal previousCarbonScore = product.getCarbonScore();
             product.setIsActive(true);
             productRepository.save(product);
-            notificationService.createNotification(product.getSeller(), "Product Approved",
-                "Your product '" + product.getName() + "' is live.", "PRODUCT_APPROVAL");
+            eventPublisher.publishEvent(ProductChangedEvent.updated(wasActive, previousCarbonScore, product));
+            notificationFanoutService.notifyUser(product.getSeller().getId(), "product-approved",
+                Map.of("product", product.getName()));
         }
     }
 
@@ -314,10 +335,12 @@ public class AdminService {
         Optional<Product> productOpt = productRepository.findById(productId);
         if (productOpt.isPresent()) {
             Product product = productOpt.get();
+            Boolean wasActive = product.getIsActive();
+            BigDecimal previousCarbonScore = product.getCarbonScore();
             product.setIsActive(false);
             productRepository.save(product);
-            notificationService.createNotification(product.getSeller(), "Product Rejected",
-                "Reason: " + reason, "PRODUCT_REJECTION");
+            eventPublisher.publishEvent(ProductChangedEvent.updated(wasActive, previousCarbonScore, product));
+            notificationFanoutService.notifyUser(product.getSeller().getId(), "product-rejected", reason(reason));
         }
     }
 
@@ -325,11 +348,16 @@ public class AdminService {
         Optional<Product> productOpt = productRepository.findById(productId);
         if (productOpt.isPresent()) {
             Product product = productOpt.get();
+            Boolean wasActive = product.getIsActive();
+            BigDecimal previousCarbonScore = product.getCarbonScore();
+            Boolean wasEcoFriendly = product.getIsEcoFriendly();
             product.setCarbonScore(carbonScore);
             product.setIsEcoFriendly(isEcoFriendly);
             productRepository.save(product);
-            notificationService.createNotification(product.getSeller(), "Product Updated",
-                "Admin updated eco-data for '" + product.getName() + "'", "PRODUCT_UPDATE");
+            eventPublisher.publishEvent(ProductChangedEvent.updated(wasActive, previousCarbonScore,
+                    ProductChangedEvent.categoryIdOf(product), wasEcoFriendly, product));
+            notificationFanoutService.notifyUser(product.getSeller().getId(), "product-eco-updated",
+                Map.of("product", product.getName()));
         }
     }
 
@@ -389,6 +417,14 @@ public class AdminService {
     }
 
     // --- HELPER METHODS ---
+    private Map<String, String> reason(String reason) {
+        return Map.of("reason", reason != null ? reason : "");
+    }
+
+    private int clampPageSize(int size) {
+        return size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    }
+
     private ProductDto convertToProductDto(Product product) {
         ProductDto dto = new ProductDto();
         dto.setId(product.getId());
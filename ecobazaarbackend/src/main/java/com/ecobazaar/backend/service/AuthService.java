@@ -6,9 +6,11 @@ import com.ecobazaar.backend.dto.RegisterRequest;
 import com.ecobazaar.backend.entity.User;
 import com.ecobazaar.backend.entity.Role;
 import com.ecobazaar.backend.entity.CustomerProfile;
+import com.ecobazaar.backend.event.UserChangedEvent;
 import com.ecobazaar.backend.repository.UserRepository;
 import com.ecobazaar.backend.repository.CustomerProfileRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Service;
@@ -30,6 +32,9 @@ public class AuthService {
     @Autowired
     private CustomerProfileRepository customerProfileRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public LoginResponse login(LoginRequest request) {
         // First check if user exists
         User user = userRepository.findByUsername(request.getUsername())
@@ -58,7 +63,7 @@ public class AuthService {
             throw new RuntimeException("Your seller application is still pending approval. Please wait for admin approval.");
         }
         
-        String token = jwtService.generateToken(user.getUsername());
+        String token = jwtService.generateToken(user);
         
         LoginResponse response = new LoginResponse();
         response.setToken(token);
@@ -111,7 +116,9 @@ public class AuthService {
         profile.setTreesPlanted(0);
         customerProfileRepository.save(profile);
 
-        String token = jwtService.generateToken(user.getUsername());
+        eventPublisher.publishEvent(UserChangedEvent.registered(user));
+
+        String token = jwtService.generateToken(user);
         
         LoginResponse response = new LoginResponse();
         response.setToken(token);
@@ -0,0 +1,192 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.SuggestionDto;
+import com.ecobazaar.backend.entity.Category;
+import com.ecobazaar.backend.event.ProductChangedEvent;
+import com.ecobazaar.backend.repository.CategoryRepository;
+import com.ecobazaar.backend.repository.OrderItemRepository;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.search.SuggestionTrie;
+import com.ecobazaar.backend.search.TextAnalyzer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Search-box suggestions for active product names and category names, ranked
+ * by how often each product has been ordered (a category counts the orders of
+ * all its products). Lookups only read an immutable snapshot; product changes
+ * schedule a debounced rebuild on a background thread that swaps it in.
+ */
+@Service
+public class AutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteService.class);
+
+    public static final String TYPE_PRODUCT = "PRODUCT";
+    public static final String TYPE_CATEGORY = "CATEGORY";
+
+    private static final int DEFAULT_LIMIT = 8;
+    private static final int MAX_SUGGESTIONS_PER_NODE = 10;
+    // Bursts of moderation changes collapse into one rebuild
+    private static final long REBUILD_DELAY_MS = 2000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private static final class Snapshot {
+        private final SuggestionTrie trie;
+        private final String[] types;
+        private final long[] ids;
+        private final String[] texts;
+        private final long[] popularity;
+
+        private Snapshot(SuggestionTrie trie, String[] types, long[] ids, String[] texts, long[] popularity) {
+            this.trie = trie;
+            this.types = types;
+            this.ids = ids;
+            this.texts = texts;
+            this.popularity = popularity;
+        }
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(
+            SuggestionTrie.build(Collections.emptyList(), new long[0], MAX_SUGGESTIONS_PER_NODE),
+            new String[0], new long[0], new String[0], new long[0]);
+
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "autocomplete-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+
+    public List<SuggestionDto> suggest(String prefix, Integer limit) {
+        String key = String.join(" ", TextAnalyzer.words(prefix));
+        if (key.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int max = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_SUGGESTIONS_PER_NODE);
+
+        Snapshot current = snapshot;
+        List<SuggestionDto> suggestions = new ArrayList<>(max);
+        for (int index : current.trie.lookup(key, max)) {
+            suggestions.add(new SuggestionDto(current.types[index], current.ids[index],
+                                              current.texts[index], current.popularity[index]));
+        }
+        return suggestions;
+    }
+
+    // --- Rebuilding ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        scheduleRebuild();
+    }
+
+    // Refreshes popularity as orders come in
+    @Scheduled(fixedDelayString = "${autocomplete.rebuild-interval-ms:600000}",
+               initialDelayString = "${autocomplete.rebuild-interval-ms:600000}")
+    public void rebuildOnSchedule() {
+        scheduleRebuild();
+    }
+
+    // Approval, rejection, removal and edits all arrive here via ProductChangedEvent
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Autocomplete rebuild failed: {}", e.getMessage());
+                }
+            }, REBUILD_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void rebuild() {
+        Map<Long, Long> orderCounts = new HashMap<>();
+        for (Object[] row : orderItemRepository.countOrderLinesByProduct()) {
+            orderCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        List<Object[]> products = productRepository.findActiveProductNames();
+        List<Category> categories = categoryRepository.findByIsActiveTrue();
+        int size = products.size() + categories.size();
+        String[] types = new String[size];
+        long[] ids = new long[size];
+        String[] texts = new String[size];
+        long[] popularity = new long[size];
+        Map<Long, Long> categoryPopularity = new HashMap<>();
+        List<Map.Entry<String, Integer>> keys = new ArrayList<>();
+
+        int next = 0;
+        for (Object[] row : products) {
+            Long productId = (Long) row[0];
+            long orders = orderCounts.getOrDefault(productId, 0L);
+            types[next] = TYPE_PRODUCT;
+            ids[next] = productId;
+            texts[next] = (String) row[1];
+            popularity[next] = orders;
+            if (row[2] != null) {
+                categoryPopularity.merge((Long) row[2], orders, Long::sum);
+            }
+            addKeys(keys, texts[next], next);
+            next++;
+        }
+        for (Category category : categories) {
+            types[next] = TYPE_CATEGORY;
+            ids[next] = category.getId();
+            texts[next] = category.getName();
+            popularity[next] = categoryPopularity.getOrDefault(category.getId(), 0L);
+            addKeys(keys, texts[next], next);
+            next++;
+        }
+
+        SuggestionTrie trie = SuggestionTrie.build(keys, popularity, MAX_SUGGESTIONS_PER_NODE);
+        snapshot = new Snapshot(trie, types, ids, texts, popularity);
+        log.debug("Autocomplete index rebuilt: {} suggestions, {} trie nodes", size, trie.nodeCount());
+    }
+
+    // The full text plus every word-start suffix, so "bottle" finds "Bamboo Water Bottle"
+    private void addKeys(List<Map.Entry<String, Integer>> keys, String text, int suggestion) {
+        List<String> words = TextAnalyzer.words(text);
+        for (int i = 0; i < words.size(); i++) {
+            keys.add(new AbstractMap.SimpleImmutableEntry<>(String.join(" ", words.subList(i, words.size())), suggestion));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
@@ -1,9 +1,8 @@
 package com.ecobazaar.backend.service;
 
 import com.ecobazaar.backend.dto.CartItemDto;
+import com.ecobazaar.backend.dto.CartSummaryDto;
 import com.ecobazaar.backend.entity.Cart;
-import com.ecobazaar.backend.entity.Product;
-import com.ecobazaar.backend.entity.User;
 import com.ecobazaar.backend.repository.CartRepository;
 import com.ecobazaar.backend.repository.ProductRepository;
 import com.ecobazaar.backend.repository.UserRepository;
@@ -11,7 +10,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -28,24 +28,21 @@ public class CartService {
     private ProductRepository productRepository;
 
     public Cart addToCart(Long userId, Long productId, Integer quantity) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Product product = productRepository.findById(productId)
-            .orElseThrow(() -> new RuntimeException("Product not found"));
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be at least 1");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new RuntimeException("Product not found");
+        }
 
+        // An upsert rather than find-then-save: two concurrent first adds would both
+        // miss the find, and the second INSERT would fail on uk_cart_user_product
+        cartRepository.addQuantity(userId, productId, quantity, LocalDateTime.now());
         return cartRepository.findByUserIdAndProductId(userId, productId)
-            .map(cart -> {
-                cart.setQuantity(cart.getQuantity() + quantity);
-                return cartRepository.save(cart);
-            })
-            .orElseGet(() -> {
-                Cart newCart = new Cart();
-                newCart.setUser(user);
-                newCart.setProduct(product);
-                newCart.setQuantity(quantity);
-                return cartRepository.save(newCart);
-            });
+            .orElseThrow(() -> new RuntimeException("Cart item not found"));
     }
 
     public List<Cart> getCartItems(Long userId) {
@@ -65,31 +62,30 @@ public class CartService {
     }
 
     public List<CartItemDto> getUserCartDetails(Long userId) {
-        List<Cart> cartItems = cartRepository.findByUserId(userId);
-        List<CartItemDto> cartDetails = new ArrayList<>();
-
-        for (Cart item : cartItems) {
-            Long productId = item.getProduct() != null ? item.getProduct().getId() : null;
-            if (productId == null) {
-                throw new RuntimeException("Cart item " + item.getId() + " is missing product reference");
-            }
-
-            Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found id: " + productId));
-
-            CartItemDto dto = new CartItemDto(
-                item.getId(),
-                product.getId(),
-                product.getName(),
-                product.getImageUrl(),
-                product.getPrice() != null ? product.getPrice().doubleValue() : 0.0,
-                item.getQuantity(),
-                product.getEcoPoints(),
-                product.getCarbonReduction()
-            );
+        return cartRepository.findCartItemDetailsByUserId(userId);
+    }
 
-            cartDetails.add(dto);
+    /**
+     * Cart lines and their totals from the single projection query. Eco points and
+     * carbon reduction are per unit on the product, so they scale with quantity.
+     */
+    public CartSummaryDto getUserCartSummary(Long userId) {
+        List<CartItemDto> items = cartRepository.findCartItemDetailsByUserId(userId);
+
+        int totalQuantity = 0;
+        int totalEcoPoints = 0;
+        BigDecimal subtotal = BigDecimal.ZERO;
+        double totalCarbonReduction = 0.0;
+        for (CartItemDto item : items) {
+            int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+            totalQuantity += quantity;
+            subtotal = subtotal.add(BigDecimal.valueOf(item.getPrice() != null ? item.getPrice() : 0.0)
+                    .multiply(BigDecimal.valueOf(quantity)));
+            totalEcoPoints += (item.getEcoPoints() != null ? item.getEcoPoints() : 0) * quantity;
+            totalCarbonReduction += (item.getCarbonSaved() != null ? item.getCarbonSaved() : 0.0) * quantity;
         }
-        return cartDetails;
+
+        return new CartSummaryDto(items, items.size(), totalQuantity, subtotal.doubleValue(),
+                                  totalEcoPoints, totalCarbonReduction);
     }
 }
@@ -0,0 +1,118 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.cache.TtlCache;
+import com.ecobazaar.backend.dto.CacheStatsDto;
+import com.ecobazaar.backend.dto.CursorPageDto;
+import com.ecobazaar.backend.dto.ProductSummaryDto;
+import com.ecobazaar.backend.entity.Product;
+import com.ecobazaar.backend.event.ProductChangedEvent;
+import com.ecobazaar.backend.event.StockChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the storefront catalogue: product detail and the
+ * category / eco-friendly listing pages. Product changes evict exactly the
+ * detail entry and the listing pages the product could appear on, before or
+ * after the change. Stock moves from reservations evict the detail entries
+ * and the cached pages that list the products, once they have committed.
+ */
+@Service
+public class CatalogueCacheService {
+
+    /** Listing pages are only cached for the catalogue filters: category and/or eco flag. */
+    public static final class ListingKey {
+        private final Long categoryId;
+        private final Boolean ecoFriendly;
+        private final String cursor;
+        private final int limit;
+
+        public ListingKey(Long categoryId, Boolean ecoFriendly, String cursor, int limit) {
+            this.categoryId = categoryId;
+            this.ecoFriendly = ecoFriendly;
+            this.cursor = cursor;
+            this.limit = limit;
+        }
+
+        // A page is affected if the product could have been on it before or after the change
+        boolean covers(ProductChangedEvent event) {
+            boolean category = categoryId == null
+                    || categoryId.equals(event.getPreviousCategoryId())
+                    || categoryId.equals(event.getCategoryId());
+            boolean eco = ecoFriendly == null
+                    || ecoFriendly.equals(event.getPreviouslyEcoFriendly())
+                    || ecoFriendly.equals(event.getEcoFriendly());
+            return category && eco;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ListingKey other)) return false;
+            return limit == other.limit && Objects.equals(categoryId, other.categoryId)
+                    && Objects.equals(ecoFriendly, other.ecoFriendly) && Objects.equals(cursor, other.cursor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(categoryId, ecoFriendly, cursor, limit);
+        }
+    }
+
+    @Value("${catalogue.cache.detail.max-entries:5000}")
+    private int detailMaxEntries;
+
+    @Value("${catalogue.cache.listing.max-entries:1000}")
+    private int listingMaxEntries;
+
+    @Value("${catalogue.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private TtlCache<Long, Product> productDetails;
+    private TtlCache<ListingKey, CursorPageDto<ProductSummaryDto>> listingPages;
+
+    @PostConstruct
+    void init() {
+        productDetails = new TtlCache<>(detailMaxEntries, Duration.ofMillis(ttlMs));
+        listingPages = new TtlCache<>(listingMaxEntries, Duration.ofMillis(ttlMs));
+    }
+
+    // Cached products are shared across requests and must only be read, never saved
+    public Product getProduct(Long id, Function<Long, Product> loader) {
+        return productDetails.get(id, loader);
+    }
+
+    public CursorPageDto<ProductSummaryDto> getListing(ListingKey key, Supplier<CursorPageDto<ProductSummaryDto>> loader) {
+        return listingPages.get(key, k -> loader.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        productDetails.invalidate(event.getProductId());
+        listingPages.invalidateIf((key, page) -> key.covers(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        event.getProductIds().forEach(productDetails::invalidate);
+        listingPages.invalidateIf((key, page) -> page.getItems().stream()
+                .anyMatch(item -> event.getProductIds().contains(item.getId())));
+    }
+
+    public void invalidateAll() {
+        productDetails.invalidateAll();
+        listingPages.invalidateAll();
+    }
+
+    public List<CacheStatsDto> getStats() {
+        return List.of(productDetails.stats("productDetails"), listingPages.stats("listingPages"));
+    }
+}
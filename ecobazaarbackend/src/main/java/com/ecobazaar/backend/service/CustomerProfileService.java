@@ -3,25 +3,35 @@ package com.ecobazaar.backend.service;
 import com.ecobazaar.backend.dto.CarbonAnalyticsDto;
 import com.ecobazaar.backend.dto.CustomerProfileUpdateDto;
 import com.ecobazaar.backend.entity.CustomerProfile;
-import com.ecobazaar.backend.entity.Order;
+import com.ecobazaar.backend.entity.OrderStatus;
 import com.ecobazaar.backend.entity.User;
 import com.ecobazaar.backend.repository.CustomerProfileRepository;
 import com.ecobazaar.backend.repository.OrderRepository;
 import com.ecobazaar.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
 public class CustomerProfileService {
+
+    // Orders that count towards a customer's carbon figures
+    private static final List<OrderStatus> COUNTED_STATUSES =
+            List.of(OrderStatus.CONFIRMED, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+    private static final BigDecimal ECO_FRIENDLY_MAX_CARBON = BigDecimal.valueOf(3);
+    private static final int MONTHS_SHOWN = 6;
+    private static final int ORDER_HISTORY_LIMIT = 50;
     
     @Autowired
     private CustomerProfileRepository customerProfileRepository;
@@ -32,6 +42,9 @@ public class CustomerProfileService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
 
     public CustomerProfile getCustomerProfile(Long userId) {
         return getOrCreateProfile(userId);
@@ -87,151 +100,115 @@ public class CustomerProfileService {
         return customerProfileRepository.save(profile);
     }
 
+    /**
+     * Carbon dashboard for a customer, from three aggregate/projection queries
+     * however many orders the customer has: lifetime totals, per-month totals
+     * for the last MONTHS_SHOWN months, and the most recent orders.
+     */
     public CarbonAnalyticsDto getCarbonAnalytics(Long userId) {
-        List<Order> orders = orderRepository.findByUserIdAndStatusIn(userId, 
-            java.util.Arrays.asList("CONFIRMED", "SHIPPED", "DELIVERED"));
-
-        BigDecimal totalCarbonEmitted = orders.stream()
-                .map(Order::getTotalCarbonScore)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Calculate carbon saved (assuming eco-friendly products save carbon)
-        BigDecimal totalCarbonSaved = orders.stream()
-                .filter(order -> order.getTotalCarbonScore().compareTo(BigDecimal.valueOf(3)) <= 0)
-                .map(order -> BigDecimal.valueOf(5).subtract(order.getTotalCarbonScore()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        CarbonSummary summary = new CarbonSummary(
+                orderRepository.summarizeCarbonByUserId(userId, COUNTED_STATUSES).get(0));
 
-        Integer totalOrders = orders.size();
-        Integer ecoFriendlyOrders = (int) orders.stream()
-                .filter(order -> order.getTotalCarbonScore().compareTo(BigDecimal.valueOf(3)) <= 0)
-                .count();
-
-        BigDecimal averageCarbonPerOrder = totalOrders > 0 ? 
-                totalCarbonEmitted.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP) : 
+        Integer totalOrders = summary.orders;
+        BigDecimal averageCarbonPerOrder = totalOrders > 0 ?
+                summary.carbonEmitted.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP) :
                 BigDecimal.ZERO;
 
         // Get eco points from customer profile (stored balance)
-        CustomerProfile profile = getOrCreateProfile(userId);
-        Integer ecoPoints = profile.getEcoPoints() != null ? profile.getEcoPoints() : 0;
-        
-        // Debug logging
-        System.out.println("=== CARBON ANALYTICS DEBUG ===");
-        System.out.println("User ID: " + userId);
-        System.out.println("Profile eco_points: " + profile.getEcoPoints());
-        System.out.println("Returning eco_points: " + ecoPoints);
-        System.out.println("=============================");
+        getOrCreateProfile(userId);
+        Integer ecoPoints = ecoPointsLedgerService.getBalance(userId);
 
         // Calculate trees equivalent (1 tree = 22 kg CO2)
-        Integer treesEquivalent = totalCarbonSaved.divide(BigDecimal.valueOf(22), 0, RoundingMode.HALF_UP).intValue();
-
-        // Get order history
-        List<CarbonAnalyticsDto.OrderCarbonDto> orderHistory = orders.stream()
-                .map(order -> {
-                    BigDecimal carbonScore = order.getTotalCarbonScore();
-                    Integer ecoPointsEarned = 0;
-                    // Only eco-friendly products (carbon score <= 3) earn points
-                    if (carbonScore.compareTo(BigDecimal.valueOf(3)) <= 0) {
-                        // 10% of total price as eco points
-                        ecoPointsEarned = order.getTotalPrice().multiply(BigDecimal.valueOf(0.10)).intValue();
-                    }
+        Integer treesEquivalent = summary.carbonSaved.divide(BigDecimal.valueOf(22), 0, RoundingMode.HALF_UP).intValue();
 
-                    return new CarbonAnalyticsDto.OrderCarbonDto(
-                            order.getId(),
-                            order.getTotalPrice(),
-                            order.getTotalCarbonScore(),
-                            order.getStatus().toString(),
-                            order.getCreatedAt(),
-                            ecoPointsEarned
-                    );
-                })
-                .collect(java.util.stream.Collectors.toList());
-
-        // Get monthly data (last 6 months)
-        List<CarbonAnalyticsDto.MonthlyCarbonDto> monthlyData = getMonthlyCarbonData(userId);
+        // Most recent orders only; the totals above already cover the full history
+        List<CarbonAnalyticsDto.OrderCarbonDto> orderHistory = orderRepository.findCarbonHistory(
+                userId, COUNTED_STATUSES, PageRequest.of(0, ORDER_HISTORY_LIMIT));
+        for (CarbonAnalyticsDto.OrderCarbonDto order : orderHistory) {
+            order.setEcoPointsEarned(ecoPointsFor(order.getCarbonScore(), order.getTotalPrice()));
+        }
 
         return new CarbonAnalyticsDto(
-                totalCarbonSaved,
-                totalCarbonEmitted,
+                summary.carbonSaved,
+                summary.carbonEmitted,
                 totalOrders,
-                ecoFriendlyOrders,
+                summary.ecoFriendlyOrders,
                 averageCarbonPerOrder,
                 orderHistory,
-                monthlyData,
+                getMonthlyCarbonData(userId),
                 ecoPoints,
                 treesEquivalent
         );
     }
 
+    // One grouped query; months without orders are filled with zeros
     private List<CarbonAnalyticsDto.MonthlyCarbonDto> getMonthlyCarbonData(Long userId) {
-        List<CarbonAnalyticsDto.MonthlyCarbonDto> monthlyData = new ArrayList<>();
-        
-        // Get last 6 months of data
-        for (int i = 5; i >= 0; i--) {
-            LocalDateTime startDate = LocalDateTime.now().minusMonths(i).withDayOfMonth(1);
-            LocalDateTime endDate = startDate.plusMonths(1).minusDays(1);
-            
-            List<Order> monthlyOrders = orderRepository.findByUserIdAndCreatedAtBetweenAndStatusIn(
-                userId, startDate, endDate, java.util.Arrays.asList("CONFIRMED", "SHIPPED", "DELIVERED"));
-            
-            BigDecimal monthlyCarbonEmitted = monthlyOrders.stream()
-                    .map(Order::getTotalCarbonScore)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            BigDecimal monthlyCarbonSaved = monthlyOrders.stream()
-                    .filter(order -> order.getTotalCarbonScore().compareTo(BigDecimal.valueOf(3)) <= 0)
-                    .map(order -> BigDecimal.valueOf(5).subtract(order.getTotalCarbonScore()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            Integer monthlyEcoPoints = monthlyOrders.stream()
-                    .mapToInt(order -> {
-                        BigDecimal carbonScore = order.getTotalCarbonScore();
-                        // Only eco-friendly products (carbon score <= 3) earn points
-                        if (carbonScore.compareTo(BigDecimal.valueOf(3)) <= 0) {
-                            // 10% of total price as eco points
-                            return order.getTotalPrice().multiply(BigDecimal.valueOf(0.10)).intValue();
-                        }
-                        return 0;
-                    })
-                    .sum();
-            
-            String monthName = startDate.format(DateTimeFormatter.ofPattern("MMM yyyy"));
-            
-            monthlyData.add(new CarbonAnalyticsDto.MonthlyCarbonDto(
-                    monthName,
-                    monthlyCarbonSaved,
-                    monthlyCarbonEmitted,
-                    monthlyOrders.size(),
-                    monthlyEcoPoints
-            ));
+        YearMonth firstMonth = YearMonth.now().minusMonths(MONTHS_SHOWN - 1);
+        Map<YearMonth, Object[]> rowsByMonth = new HashMap<>();
+        for (Object[] row : orderRepository.summarizeCarbonByMonth(
+                userId, COUNTED_STATUSES, firstMonth.atDay(1).atStartOfDay())) {
+            rowsByMonth.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), row);
+        }
+
+        List<CarbonAnalyticsDto.MonthlyCarbonDto> monthlyData = new ArrayList<>(MONTHS_SHOWN);
+        for (int i = 0; i < MONTHS_SHOWN; i++) {
+            YearMonth month = firstMonth.plusMonths(i);
+            Object[] row = rowsByMonth.get(month);
+            String monthName = month.format(DateTimeFormatter.ofPattern("MMM yyyy"));
+            if (row == null) {
+                monthlyData.add(new CarbonAnalyticsDto.MonthlyCarbonDto(monthName, BigDecimal.ZERO, BigDecimal.ZERO, 0, 0));
+            } else {
+                monthlyData.add(new CarbonAnalyticsDto.MonthlyCarbonDto(
+                        monthName,
+                        toBigDecimal(row[4]),
+                        toBigDecimal(row[3]),
+                        ((Number) row[2]).intValue(),
+                        ((Number) row[5]).intValue()
+                ));
+            }
         }
-        
         return monthlyData;
     }
 
-    public void updateEcoPoints(Long userId) {
-        CustomerProfile profile = getOrCreateProfile(userId);
+    /**
+     * Current eco-points balance. The ledger is the only writer of balances,
+     * so this never recomputes points from order history: doing so would hand
+     * back points that were already redeemed.
+     */
+    @Transactional(readOnly = true)
+    public Integer getEcoPointsBalance(Long userId) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        return ecoPointsLedgerService.findBalance(userId).orElse(0);
+    }
+
+    // Only eco-friendly orders (carbon score <= 3) earn points: 10% of the total price
+    private Integer ecoPointsFor(BigDecimal carbonScore, BigDecimal totalPrice) {
+        if (carbonScore != null && totalPrice != null && carbonScore.compareTo(ECO_FRIENDLY_MAX_CARBON) <= 0) {
+            return totalPrice.multiply(BigDecimal.valueOf(0.10)).intValue();
+        }
+        return 0;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
 
-        // Calculate eco points from order history (only for new orders)
-        List<Order> orders = orderRepository.findByUserIdAndStatusIn(userId, 
-            java.util.Arrays.asList("CONFIRMED", "SHIPPED", "DELIVERED"));
-        
-        Integer calculatedEcoPoints = orders.stream()
-                .mapToInt(order -> {
-                    BigDecimal carbonScore = order.getTotalCarbonScore();
-                    // Only eco-friendly products (carbon score <= 3) earn points
-                    if (carbonScore.compareTo(BigDecimal.valueOf(3)) <= 0) {
-                        // 10% of total price as eco points (1 point = ₹1)
-                        return order.getTotalPrice().multiply(BigDecimal.valueOf(0.10)).intValue();
-                    }
-                    return 0;
-                })
-                .sum();
-        
-        // Only update if the calculated points are higher than current balance
-        // This prevents overwriting manually set balances
-        if (calculatedEcoPoints > (profile.getEcoPoints() != null ? profile.getEcoPoints() : 0)) {
-            profile.setEcoPoints(calculatedEcoPoints);
-            customerProfileRepository.save(profile);
+    // Row of OrderRepository.summarizeCarbonByUserId
+    private static class CarbonSummary {
+        private final int orders;
+        private final BigDecimal carbonEmitted;
+        private final int ecoFriendlyOrders;
+        private final BigDecimal carbonSaved;
+
+        private CarbonSummary(Object[] row) {
+            this.orders = ((Number) row[0]).intValue();
+            this.carbonEmitted = toBigDecimal(row[1]);
+            this.ecoFriendlyOrders = ((Number) row[2]).intValue();
+            this.carbonSaved = toBigDecimal(row[3]);
         }
     }
 
@@ -0,0 +1,229 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.entity.EcoPointsLedgerEntry;
+import com.ecobazaar.backend.repository.CustomerProfileRepository;
+import com.ecobazaar.backend.repository.EcoPointsLedgerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The only writer of eco-points balances. Every change appends a ledger
+ * entry and applies the same delta to CustomerProfile.ecoPoints with an
+ * atomic UPDATE in the caller's transaction, so concurrent awards and
+ * redemptions cannot lose each other's updates and a debit can never take
+ * the balance below zero. Reading a balance is a single-row lookup.
+ */
+@Service
+public class EcoPointsLedgerService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(EcoPointsLedgerService.class);
+
+    @Autowired
+    private EcoPointsLedgerRepository ecoPointsLedgerRepository;
+
+    @Autowired
+    private CustomerProfileRepository customerProfileRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${eco-points.rebuild.parallelism:4}")
+    private int rebuildParallelism;
+
+    @Value("${eco-points.rebuild.batch-size:500}")
+    private int rebuildBatchSize;
+
+    // Balances that predate the ledger become opening entries before any traffic arrives
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            Integer inserted = new TransactionTemplate(transactionManager)
+                    .execute(status -> ecoPointsLedgerRepository.insertOpeningBalances());
+            if (inserted != null && inserted > 0) {
+                log.info("Recorded opening eco-points balances for {} customer(s)", inserted);
+            }
+        } catch (Exception e) {
+            log.warn("Could not record opening eco-points balances: {}", e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Integer getBalance(Long userId) {
+        return customerProfileRepository.findEcoPointsByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Customer profile not found"));
+    }
+
+    /**
+     * Balance lookup that does not throw, for callers that report a missing
+     * profile themselves: an exception from this bean would mark a shared
+     * transaction rollback-only even if the caller catches it.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Integer> findBalance(Long userId) {
+        return customerProfileRepository.findEcoPointsByUserId(userId);
+    }
+
+    @Transactional
+    public Integer credit(Long userId, int points, EcoPointsLedgerEntry.Reason reason, Long referenceId) {
+        if (points < 0) {
+            throw new RuntimeException("Credit must not be negative");
+        }
+        if (points == 0) {
+            return getBalance(userId);
+        }
+        if (customerProfileRepository.addEcoPoints(userId, points) == 0) {
+            throw new RuntimeException("Customer profile not found");
+        }
+        ecoPointsLedgerRepository.save(new EcoPointsLedgerEntry(userId, points, reason, referenceId));
+        return getBalance(userId);
+    }
+
+    /** Takes points from the balance; throws if the customer does not have enough. */
+    @Transactional
+    public Integer debit(Long userId, int points, EcoPointsLedgerEntry.Reason reason, Long referenceId) {
+        return tryDebit(userId, points, reason, referenceId).orElseThrow(() -> {
+            Integer balance = getBalance(userId);
+            return new RuntimeException("Insufficient eco points. You have " + balance + " points");
+        });
+    }
+
+    /**
+     * Same as debit, but returns empty instead of throwing when the balance
+     * is short or the profile is missing, so the caller's transaction stays
+     * usable. Returns the remaining balance.
+     */
+    @Transactional
+    public Optional<Integer> tryDebit(Long userId, int points, EcoPointsLedgerEntry.Reason reason, Long referenceId) {
+        if (points < 0) {
+            throw new RuntimeException("Debit must not be negative");
+        }
+        if (points == 0) {
+            return findBalance(userId);
+        }
+        if (customerProfileRepository.subtractEcoPointsIfAvailable(userId, points) == 0) {
+            return Optional.empty();
+        }
+        ecoPointsLedgerRepository.save(new EcoPointsLedgerEntry(userId, -points, reason, referenceId));
+        return findBalance(userId);
+    }
+
+    /**
+     * Gives back what an order redeemed at checkout, e.g. when the order is
+     * cancelled. Only the part not refunded yet is credited, so calling this
+     * twice for the same order is harmless. Returns the points credited.
+     */
+    @Transactional
+    public int refundOrderRedemption(Long userId, Long orderId) {
+        long held = -ecoPointsLedgerRepository.sumDeltas(userId, orderId, List.of(
+                EcoPointsLedgerEntry.Reason.ORDER_REDEMPTION, EcoPointsLedgerEntry.Reason.ORDER_REDEMPTION_REFUND));
+        if (held <= 0) {
+            return 0;
+        }
+        credit(userId, (int) held, EcoPointsLedgerEntry.Reason.ORDER_REDEMPTION_REFUND, orderId);
+        return (int) held;
+    }
+
+    /**
+     * Credits the points recorded on approved tree-planting submissions with
+     * one ledger INSERT ... SELECT and one balance UPDATE, however many
+     * submissions there are. Throws if any submitter has no customer profile.
+     */
+    @Transactional
+    public int creditTreePlantingApprovals(Collection<Long> submissionIds) {
+        if (submissionIds.isEmpty()) {
+            return 0;
+        }
+        int credited = ecoPointsLedgerRepository.insertTreePlantingCredits(submissionIds);
+        if (credited != submissionIds.size()) {
+            throw new RuntimeException("Customer profile not found");
+        }
+        ecoPointsLedgerRepository.applyCredits(EcoPointsLedgerEntry.Reason.TREE_PLANTING.name(), submissionIds);
+        return credited;
+    }
+
+    @Transactional(readOnly = true)
+    public List<EcoPointsLedgerEntry> getRecentEntries(Long userId, int limit) {
+        return ecoPointsLedgerRepository.findByUserIdOrderByIdDesc(userId, PageRequest.of(0, Math.max(1, Math.min(limit, 200))));
+    }
+
+    /**
+     * Recomputes every materialized balance from the ledger. Customers are
+     * split into partitions by user id and each partition is replayed on its
+     * own worker, a batch of users per short transaction.
+     */
+    public Map<String, Object> rebuildBalances() {
+        long started = System.currentTimeMillis();
+        int partitions = Math.max(1, rebuildParallelism);
+        ExecutorService workers = Executors.newFixedThreadPool(partitions, runnable -> {
+            Thread thread = new Thread(runnable, "eco-points-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Long>> results = new ArrayList<>(partitions);
+            for (int partition = 0; partition < partitions; partition++) {
+                int current = partition;
+                results.add(workers.submit(() -> rebuildPartition(partitions, current)));
+            }
+            long users = 0;
+            for (Future<Long> result : results) {
+                users += result.get();
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("customersRebuilt", users);
+            summary.put("partitions", partitions);
+            summary.put("millis", System.currentTimeMillis() - started);
+            log.info("Rebuilt eco-points balances for {} customer(s) in {} ms", users, summary.get("millis"));
+            return summary;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Eco-points rebuild interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Eco-points rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private long rebuildPartition(int partitions, int partition) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long afterId = 0;
+        long users = 0;
+        while (true) {
+            long from = afterId;
+            List<Long> userIds = transaction.execute(status -> {
+                List<Long> ids = ecoPointsLedgerRepository.findProfileUserIdsInPartition(
+                        partitions, partition, from, PageRequest.of(0, rebuildBatchSize));
+                if (!ids.isEmpty()) {
+                    ecoPointsLedgerRepository.replayBalances(ids);
+                }
+                return ids;
+            });
+            if (userIds == null || userIds.isEmpty()) {
+                return users;
+            }
+            users += userIds.size();
+            afterId = userIds.get(userIds.size() - 1);
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package com.ecobazaar.backend.service;
 
-import com.ecobazaar.backend.entity.CustomerProfile;
+import com.ecobazaar.backend.entity.EcoPointsLedgerEntry;
 import com.ecobazaar.backend.entity.Product;
-import com.ecobazaar.backend.repository.CustomerProfileRepository;
 import com.ecobazaar.backend.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -11,13 +10,14 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @Transactional
 public class EcoPointsService {
 
     @Autowired
-    private CustomerProfileRepository customerProfileRepository;
+    private EcoPointsLedgerService ecoPointsLedgerService;
 
     @Autowired
     private ProductRepository productRepository;
@@ -48,9 +48,13 @@ public class EcoPointsService {
         Map<String, Object> result = new java.util.HashMap<>();
         
         try {
-            // Get customer profile
-            CustomerProfile profile = customerProfileRepository.findByUserId(userId)
-                    .orElseThrow(() -> new RuntimeException("Customer profile not found"));
+            // Non-throwing lookup: an exception from the ledger bean would doom this transaction
+            Integer balance = ecoPointsLedgerService.findBalance(userId).orElse(null);
+            if (balance == null) {
+                result.put("valid", false);
+                result.put("message", "Customer profile not found");
+                return result;
+            }
 
             // Check minimum threshold
             if (pointsToRedeem < MIN_REDEMPTION_POINTS) {
@@ -60,9 +64,9 @@ public class EcoPointsService {
             }
 
             // Check if customer has enough points
-            if (profile.getEcoPoints() < pointsToRedeem) {
+            if (balance < pointsToRedeem) {
                 result.put("valid", false);
-                result.put("message", "Insufficient eco points. You have " + profile.getEcoPoints() + " points");
+                result.put("message", "Insufficient eco points. You have " + balance + " points");
                 return result;
             }
 
@@ -120,46 +124,36 @@ public class EcoPointsService {
             return result;
         }
 
-        try {
-            // Get customer profile
-            CustomerProfile profile = customerProfileRepository.findByUserId(userId)
-                    .orElseThrow(() -> new RuntimeException("Customer profile not found"));
-
-            // Deduct points from customer account
-            profile.setEcoPoints(profile.getEcoPoints() - (Integer) result.get("pointsToRedeem"));
-            customerProfileRepository.save(profile);
-
-            result.put("success", true);
-            result.put("remainingPoints", profile.getEcoPoints());
-            result.put("message", "Eco points redeemed successfully!");
-
-            return result;
-
-        } catch (Exception e) {
+        // Deduct points from customer account; empty if a concurrent redemption got there first.
+        // tryDebit reports that without throwing, so the transaction can still commit this response
+        Optional<Integer> remaining = ecoPointsLedgerService.tryDebit(userId, (Integer) result.get("pointsToRedeem"),
+                EcoPointsLedgerEntry.Reason.REDEMPTION, null);
+        if (remaining.isEmpty()) {
+            Integer balance = ecoPointsLedgerService.findBalance(userId).orElse(0);
             result.put("success", false);
-            result.put("message", "Error processing redemption: " + e.getMessage());
+            result.put("message", "Error processing redemption: Insufficient eco points. You have " + balance + " points");
             return result;
         }
+
+        result.put("success", true);
+        result.put("remainingPoints", remaining.get());
+        result.put("message", "Eco points redeemed successfully!");
+
+        return result;
     }
 
     /**
      * Get customer's eco points balance
      */
     public Integer getCustomerEcoPoints(Long userId) {
-        CustomerProfile profile = customerProfileRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Customer profile not found"));
-        return profile.getEcoPoints();
+        return ecoPointsLedgerService.getBalance(userId);
     }
 
     /**
      * Add eco points to customer account (after successful purchase)
      */
     public void addEcoPoints(Long userId, Integer points) {
-        CustomerProfile profile = customerProfileRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Customer profile not found"));
-        
-        profile.setEcoPoints(profile.getEcoPoints() + points);
-        customerProfileRepository.save(profile);
+        ecoPointsLedgerService.credit(userId, points, EcoPointsLedgerEntry.Reason.PURCHASE, null);
     }
 
     /**
@@ -0,0 +1,193 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.entity.EmailOutbox;
+import com.ecobazaar.backend.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the email outbox. Each poll claims a batch of due rows by stamping
+ * them SENDING with a claim token and a lease, then hands chunks of the batch
+ * to a bounded worker pool that sends each chunk over one SMTP connection.
+ * Failed sends retry with exponential backoff until max-attempts, then the
+ * row is parked as DEAD. Rows left SENDING by a crash or restart are returned
+ * to the queue once their lease runs out, so delivery is at-least-once.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.messages-per-connection:10}")
+    private int messagesPerConnection;
+
+    @Value("${app.email.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.base-backoff-ms:30000}")
+    private long baseBackoffMs;
+
+    @Value("${app.email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Value("${app.email.outbox.lease-ms:600000}")
+    private long leaseMs;
+
+    private ThreadPoolExecutor senders;
+
+    @PostConstruct
+    void startSenders() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // When every worker is busy and the queue is full the polling thread sends
+        // the chunk itself, which also stops it claiming more work
+        senders = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(workers * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-sender-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:5000}",
+               initialDelayString = "${app.email.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        if (!emailService.isDeliveryEnabled()) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        Integer recovered = transaction.execute(status -> emailOutboxRepository.releaseExpiredLeases(LocalDateTime.now()));
+        if (recovered != null && recovered > 0) {
+            log.warn("Returned {} email(s) with expired send leases to the outbox", recovered);
+        }
+
+        List<EmailOutbox> claimed;
+        do {
+            String token = UUID.randomUUID().toString();
+            claimed = transaction.execute(status -> claimBatch(token));
+            if (claimed == null || claimed.isEmpty()) {
+                return;
+            }
+            for (int from = 0; from < claimed.size(); from += messagesPerConnection) {
+                List<EmailOutbox> chunk = claimed.subList(from, Math.min(from + messagesPerConnection, claimed.size()));
+                senders.execute(() -> deliver(chunk, token));
+            }
+        } while (claimed.size() == batchSize);
+    }
+
+    private List<EmailOutbox> claimBatch(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = emailOutboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        emailOutboxRepository.claim(ids, token, now.plus(Duration.ofMillis(leaseMs)));
+        return new ArrayList<>(emailOutboxRepository.findByClaimTokenOrderByIdAsc(token));
+    }
+
+    private void deliver(List<EmailOutbox> chunk, String token) {
+        Map<Long, String> failures;
+        try {
+            failures = emailService.sendBatch(chunk);
+        } catch (RuntimeException e) {
+            failures = new HashMap<>();
+            for (EmailOutbox email : chunk) {
+                failures.put(email.getId(), e.getMessage());
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>(chunk.size());
+        for (EmailOutbox email : chunk) {
+            if (!failures.containsKey(email.getId())) {
+                sentIds.add(email.getId());
+            }
+        }
+
+        Map<Long, String> failed = failures;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!sentIds.isEmpty()) {
+                emailOutboxRepository.markSent(sentIds, token, now);
+            }
+            for (EmailOutbox email : chunk) {
+                String error = failed.get(email.getId());
+                if (error != null) {
+                    recordFailure(email, token, error, now);
+                }
+            }
+        });
+    }
+
+    private void recordFailure(EmailOutbox email, String token, String error, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        String message = error == null ? "Unknown error" : error;
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on email #{} ({} to {}) after {} attempts: {}",
+                      email.getId(), email.getEmailType(), email.getRecipient(), attempts, message);
+            emailOutboxRepository.markFailed(email.getId(), token, EmailOutbox.Status.DEAD, attempts, now, message);
+        } else {
+            log.warn("Email #{} failed (attempt {} of {}), will retry: {}", email.getId(), attempts, maxAttempts, message);
+            emailOutboxRepository.markFailed(email.getId(), token, EmailOutbox.Status.PENDING, attempts,
+                                             now.plus(backoff(attempts)), message);
+        }
+    }
+
+    // 30s, 1m, 2m, 4m ... capped at max-backoff
+    private Duration backoff(int attempts) {
+        long delay = baseBackoffMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Chunks still queued stay SENDING and are picked up again after their lease expires
+        senders.shutdown();
+        if (!senders.awaitTermination(30, TimeUnit.SECONDS)) {
+            senders.shutdownNow();
+        }
+    }
+}
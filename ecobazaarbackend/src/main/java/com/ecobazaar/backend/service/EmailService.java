@@ -1,147 +1,167 @@
 package com.ecobazaar.backend.service;
 
+import com.ecobazaar.backend.entity.EmailOutbox;
 import com.ecobazaar.backend.entity.Order;
 import com.ecobazaar.backend.entity.OrderItem;
+import com.ecobazaar.backend.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import java.math.BigDecimal;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
+/**
+ * Order emails are rendered and written to the outbox inside the checkout
+ * transaction, so checkout never waits on SMTP. EmailOutboxDispatcher sends
+ * them later through sendBatch.
+ */
 @Service
 public class EmailService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+
+    public static final String TYPE_ORDER_CONFIRMATION = "ORDER_CONFIRMATION";
+
     @Autowired(required = false)
     private JavaMailSender mailSender;
 
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
     @Value("${app.email.from:ecobazaar@example.com}")
     private String fromEmail;
 
     @Value("${app.email.enabled:false}")
     private boolean emailEnabled;
 
-    public void sendOrderConfirmationEmail(Order order) {
-        if (!emailEnabled || mailSender == null) {
-            System.out.println("Email service is disabled or not configured. Skipping email for order #" + order.getId());
+    private TextTemplate orderConfirmationTemplate;
+    private TextTemplate orderItemTemplate;
+
+    @PostConstruct
+    void loadTemplates() {
+        orderConfirmationTemplate = TextTemplate.load("templates/email/order-confirmation.html");
+        orderItemTemplate = TextTemplate.load("templates/email/order-item.html");
+    }
+
+    public boolean isDeliveryEnabled() {
+        return emailEnabled && mailSender != null;
+    }
+
+    /**
+     * Queues the confirmation email for an order. Joins the caller's
+     * transaction, so the email is dropped if the order rolls back.
+     */
+    public void enqueueOrderConfirmation(Order order) {
+        if (!isDeliveryEnabled()) {
+            log.debug("Email service is disabled or not configured. Skipping email for order #{}", order.getId());
             return;
         }
 
-        try {
-            String customerEmail = order.getUser().getEmail();
-            if (customerEmail == null || customerEmail.trim().isEmpty()) {
-                System.out.println("Customer email not found for order #" + order.getId());
-                return;
-            }
+        String customerEmail = order.getUser().getEmail();
+        if (customerEmail == null || customerEmail.trim().isEmpty()) {
+            log.warn("Customer email not found for order #{}", order.getId());
+            return;
+        }
 
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        emailOutboxRepository.save(new EmailOutbox(customerEmail,
+                "Order Confirmation - Order #" + order.getId() + " | EcoBazaar",
+                buildOrderConfirmationEmail(order), TYPE_ORDER_CONFIRMATION, order.getId()));
+    }
 
-            helper.setFrom(fromEmail);
-            helper.setTo(customerEmail);
-            helper.setSubject("Order Confirmation - Order #" + order.getId() + " | EcoBazaar");
+    /**
+     * Sends the given emails over one SMTP connection. Returns the error
+     * message for each outbox id that failed; ids not in the map were sent.
+     */
+    public Map<Long, String> sendBatch(List<EmailOutbox> emails) {
+        Map<Long, String> failures = new HashMap<>();
+        if (!isDeliveryEnabled()) {
+            emails.forEach(email -> failures.put(email.getId(), "Email delivery is disabled"));
+            return failures;
+        }
 
-            String htmlContent = buildOrderConfirmationEmail(order);
-            helper.setText(htmlContent, true);
+        Map<MimeMessage, Long> idsByMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+        for (EmailOutbox email : emails) {
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+                helper.setFrom(fromEmail);
+                helper.setTo(email.getRecipient());
+                helper.setSubject(email.getSubject());
+                helper.setText(email.getBody(), true);
+                messages.add(message);
+                idsByMessage.put(message, email.getId());
+            } catch (MessagingException e) {
+                failures.put(email.getId(), e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
 
-            mailSender.send(message);
-            System.out.println("Order confirmation email sent successfully to: " + customerEmail);
-        } catch (MessagingException e) {
-            System.err.println("Failed to send order confirmation email: " + e.getMessage());
-            e.printStackTrace();
-        } catch (Exception e) {
-            System.err.println("Unexpected error sending email: " + e.getMessage());
-            e.printStackTrace();
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Only the messages listed here failed; when the list is empty the whole send did
+            if (e.getFailedMessages().isEmpty()) {
+                idsByMessage.values().forEach(id -> failures.put(id, e.getMessage()));
+            } else {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    Long id = idsByMessage.get(message);
+                    if (id != null) {
+                        failures.put(id, cause.getMessage());
+                    }
+                });
+            }
+        } catch (MailException e) {
+            idsByMessage.values().forEach(id -> failures.put(id, e.getMessage()));
         }
+        return failures;
     }
 
     private String buildOrderConfirmationEmail(Order order) {
         NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
-        
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>");
-        html.append("<html>");
-        html.append("<head>");
-        html.append("<meta charset='UTF-8'>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }");
-        html.append(".container { max-width: 600px; margin: 0 auto; padding: 20px; }");
-        html.append(".header { background-color: #16a34a; color: white; padding: 20px; text-align: center; border-radius: 5px 5px 0 0; }");
-        html.append(".content { background-color: #f9fafb; padding: 20px; border-radius: 0 0 5px 5px; }");
-        html.append(".order-info { background-color: white; padding: 15px; margin: 15px 0; border-radius: 5px; border-left: 4px solid #16a34a; }");
-        html.append(".item { padding: 10px; border-bottom: 1px solid #e5e7eb; }");
-        html.append(".item:last-child { border-bottom: none; }");
-        html.append(".total { font-size: 18px; font-weight: bold; color: #16a34a; margin-top: 15px; }");
-        html.append(".footer { text-align: center; margin-top: 20px; color: #6b7280; font-size: 12px; }");
-        html.append("</style>");
-        html.append("</head>");
-        html.append("<body>");
-        html.append("<div class='container'>");
-        html.append("<div class='header'>");
-        html.append("<h1>🌱 Order Confirmation</h1>");
-        html.append("<p>Thank you for your eco-friendly purchase!</p>");
-        html.append("</div>");
-        html.append("<div class='content'>");
-        html.append("<div class='order-info'>");
-        html.append("<h2>Order Details</h2>");
-        html.append("<p><strong>Order Number:</strong> #").append(order.getId()).append("</p>");
-        html.append("<p><strong>Order Date:</strong> ").append(order.getCreatedAt()).append("</p>");
-        html.append("<p><strong>Status:</strong> ").append(order.getStatus()).append("</p>");
-        html.append("<p><strong>Payment Method:</strong> ").append(order.getPaymentMethod()).append("</p>");
-        html.append("</div>");
-
-        if (order.getOrderItems() != null && !order.getOrderItems().isEmpty()) {
-            html.append("<div class='order-info'>");
-            html.append("<h3>Order Items</h3>");
+
+        StringBuilder items = new StringBuilder();
+        if (order.getOrderItems() != null) {
             for (OrderItem item : order.getOrderItems()) {
-                html.append("<div class='item'>");
-                html.append("<p><strong>").append(item.getProduct().getName()).append("</strong></p>");
-                html.append("<p>Quantity: ").append(item.getQuantity()).append(" × ");
-                html.append(currencyFormat.format(item.getPrice())).append("</p>");
-                html.append("</div>");
+                items.append(orderItemTemplate.render(Map.of(
+                    "name", TextTemplate.escape(item.getProduct().getName()),
+                    "quantity", TextTemplate.escape(item.getQuantity()),
+                    "price", TextTemplate.escape(currencyFormat.format(item.getPrice())))));
             }
-            html.append("</div>");
         }
 
-        html.append("<div class='order-info'>");
-        html.append("<h3>Order Summary</h3>");
-        html.append("<p>Subtotal: ").append(currencyFormat.format(order.getTotalPrice())).append("</p>");
-        if (order.getTotalCarbonScore() != null) {
-            html.append("<p>🌿 Carbon Impact: ").append(order.getTotalCarbonScore()).append(" kg CO₂ saved</p>");
-        }
-        html.append("<p class='total'>Total: ").append(currencyFormat.format(order.getTotalPrice())).append("</p>");
-        html.append("</div>");
-
-        if (order.getShippingAddress() != null && !order.getShippingAddress().trim().isEmpty()) {
-            html.append("<div class='order-info'>");
-            html.append("<h3>Shipping Address</h3>");
-            html.append("<p style='white-space: pre-line;'>").append(order.getShippingAddress()).append("</p>");
-            html.append("</div>");
-        }
-
-        if (order.getTrackingNumber() != null && !order.getTrackingNumber().trim().isEmpty()) {
-            html.append("<div class='order-info'>");
-            html.append("<h3>Tracking Information</h3>");
-            html.append("<p><strong>Tracking Number:</strong> ").append(order.getTrackingNumber()).append("</p>");
-            html.append("</div>");
-        }
-
-        html.append("<div class='footer'>");
-        html.append("<p>Thank you for choosing EcoBazaar!</p>");
-        html.append("<p>Together, we're making the world a greener place. 🌍</p>");
-        html.append("</div>");
-        html.append("</div>");
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
+        Map<String, String> values = new HashMap<>();
+        values.put("orderId", TextTemplate.escape(order.getId()));
+        values.put("orderDate", TextTemplate.escape(order.getCreatedAt()));
+        values.put("status", TextTemplate.escape(order.getStatus()));
+        values.put("paymentMethod", TextTemplate.escape(order.getPaymentMethod()));
+        values.put("items", items.toString());
+        values.put("subtotal", TextTemplate.escape(currencyFormat.format(order.getTotalPrice())));
+        values.put("total", TextTemplate.escape(currencyFormat.format(order.getTotalPrice())));
+        values.put("carbonScore", TextTemplate.escape(order.getTotalCarbonScore()));
+        values.put("shippingAddress", blankToEmpty(order.getShippingAddress()));
+        values.put("trackingNumber", blankToEmpty(order.getTrackingNumber()));
+        return orderConfirmationTemplate.render(values);
+    }
 
-        return html.toString();
+    private String blankToEmpty(String value) {
+        return value == null || value.trim().isEmpty() ? "" : TextTemplate.escape(value);
     }
 }
-
@@ -0,0 +1,258 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.event.TreePlantingSubmittedEvent;
+import com.ecobazaar.backend.repository.TreePlantingSubmissionRepository;
+import com.ecobazaar.backend.search.HammingIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Flags tree-planting photos that were already submitted. After a submission
+ * is stored, a worker decodes its photo at reduced size and computes a 64-bit
+ * difference hash (dHash), which survives re-encoding, resizing and small
+ * edits. The hash is looked up in an in-memory HammingIndex of every earlier
+ * submission; the nearest photo within max-distance bits is recorded as the
+ * suspected original, and the distance becomes a 0-100 risk score that the
+ * review queue sorts by. The index is loaded from the stored hashes at
+ * startup, after which anything submitted before it was ready is caught up.
+ */
+@Service
+public class ImageFingerprintService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageFingerprintService.class);
+
+    private static final String URL_PREFIX = "/uploads/";
+    // dHash compares each of 9 columns with its right neighbour over 8 rows: 64 bits
+    private static final int HASH_COLUMNS = 9;
+    private static final int HASH_ROWS = 8;
+    // Enough pixels per grid cell to average out noise without decoding the full photo
+    private static final int DECODE_SIZE = 256;
+
+    @Autowired
+    private TreePlantingSubmissionRepository treePlantingSubmissionRepository;
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${uploads.root:uploads}")
+    private String uploadsRoot;
+
+    @Value("${tree-planting.duplicates.max-distance:7}")
+    private int maxDistance;
+
+    @Value("${tree-planting.duplicates.workers:2}")
+    private int workers;
+
+    @Value("${tree-planting.duplicates.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${tree-planting.duplicates.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private Path root;
+    private ThreadPoolExecutor fingerprinters;
+    private final HammingIndex index = new HammingIndex();
+    private volatile boolean indexReady;
+
+    @PostConstruct
+    void startWorkers() {
+        root = Paths.get(uploadsRoot).toAbsolutePath().normalize();
+        AtomicInteger threadNumber = new AtomicInteger();
+        // A full queue makes the submitter hash its own photo rather than skip it
+        fingerprinters = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-fingerprint-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        fingerprinters.execute(() -> {
+            try {
+                loadIndex();
+                indexReady = true;
+                backfill();
+            } catch (RuntimeException e) {
+                log.error("Could not load image fingerprints; duplicate detection is off: {}", e.getMessage());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmitted(TreePlantingSubmittedEvent event) {
+        // Until the index is loaded, the startup backfill picks the submission up instead
+        if (indexReady) {
+            fingerprinters.execute(() -> fingerprint(event.getSubmissionId(), event.getImageUrl()));
+        }
+    }
+
+    public int getIndexedCount() {
+        return index.size();
+    }
+
+    // --- Loading ---
+
+    private void loadIndex() {
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = treePlantingSubmissionRepository.findFingerprintsAfter(afterId, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                index.add((Long) row[1], afterId);
+            }
+        } while (rows.size() == loadBatchSize);
+        log.info("Loaded {} image fingerprint(s)", index.size());
+    }
+
+    private void backfill() {
+        long afterId = 0;
+        int queued = 0;
+        List<Object[]> rows;
+        do {
+            rows = treePlantingSubmissionRepository.findUnfingerprintedAfter(afterId, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                String imageUrl = (String) row[1];
+                afterId = id;
+                fingerprinters.execute(() -> fingerprint(id, imageUrl));
+                queued++;
+            }
+        } while (rows.size() == loadBatchSize);
+        if (queued > 0) {
+            log.info("Fingerprinting {} earlier tree-planting photo(s)", queued);
+        }
+    }
+
+    // --- Fingerprinting ---
+
+    private void fingerprint(Long submissionId, String imageUrl) {
+        try {
+            Long hash = hashOf(imageUrl);
+            Long duplicateOfId = null;
+            Integer distance = null;
+            int risk = 0;
+            if (hash != null) {
+                // Search and insert together, so two copies uploaded at once still find each other
+                synchronized (index) {
+                    // Already fingerprinted by the other path (live submission vs startup backfill)
+                    if (index.contains(submissionId)) {
+                        return;
+                    }
+                    for (HammingIndex.Match match : index.search(hash, maxDistance)) {
+                        if (match.getId() != submissionId) {
+                            duplicateOfId = match.getId();
+                            distance = match.getDistance();
+                            break;
+                        }
+                    }
+                    index.add(hash, submissionId);
+                }
+                if (distance != null) {
+                    risk = Math.round(100f * (maxDistance + 1 - distance) / (maxDistance + 1));
+                    log.info("Tree-planting submission #{} looks like #{} ({} bit(s) apart)",
+                             submissionId, duplicateOfId, distance);
+                }
+            }
+            Long duplicate = duplicateOfId;
+            Integer bits = distance;
+            int score = risk;
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    treePlantingSubmissionRepository.recordFingerprint(submissionId, hash, duplicate, bits, score));
+        } catch (RuntimeException e) {
+            log.warn("Could not fingerprint tree-planting submission #{}: {}", submissionId, e.getMessage());
+        }
+    }
+
+    // Null when the photo is missing, outside the uploads root, or in a format ImageIO cannot read
+    private Long hashOf(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        Path file = root.resolve(imageUrl.substring(URL_PREFIX.length())).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            BufferedImage image = imageUploadService.decode(file, DECODE_SIZE);
+            return image == null ? null : dHash(image);
+        } catch (IOException e) {
+            log.debug("Could not decode {}: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Averages luminance over a 9x8 grid and sets one bit per cell that is
+     * darker than the cell to its right. Averaging each cell rather than
+     * sampling one pixel keeps the hash stable when the photo is rescaled.
+     */
+    static long dHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long[] sums = new long[HASH_COLUMNS * HASH_ROWS];
+        int[] counts = new int[HASH_COLUMNS * HASH_ROWS];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellRow = y * HASH_ROWS / height;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int cell = cellRow * HASH_COLUMNS + x * HASH_COLUMNS / width;
+                // Rec. 601 luma in integer arithmetic
+                sums[cell] += (299 * ((rgb >> 16) & 0xff) + 587 * ((rgb >> 8) & 0xff) + 114 * (rgb & 0xff));
+                counts[cell]++;
+            }
+        }
+        long hash = 0;
+        int bit = 0;
+        for (int cellRow = 0; cellRow < HASH_ROWS; cellRow++) {
+            for (int column = 0; column < HASH_COLUMNS - 1; column++) {
+                int cell = cellRow * HASH_COLUMNS + column;
+                long left = sums[cell] / Math.max(1, counts[cell]);
+                long right = sums[cell + 1] / Math.max(1, counts[cell + 1]);
+                if (left < right) {
+                    hash |= 1L << bit;
+                }
+                bit++;
+            }
+        }
+        return hash;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Unfinished photos keep a null risk score and are picked up by the next startup's backfill
+        fingerprinters.shutdownNow();
+        fingerprinters.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,394 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.ImageVariantsDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Ingests uploaded images. The multipart stream is copied to a temporary
+ * file with a hard byte cap, hashed on the way through, and the type is taken
+ * from the file's magic bytes, never from the client's filename or content
+ * type; only then is the file handed to the UploadBlobStore, which discards
+ * it if the same content is already stored. Resized variants (see ImageVariantsDto) are
+ * generated afterwards on a bounded worker pool, decoding the original once
+ * with subsampling and shrinking step by step from the largest variant to
+ * the smallest. Every file is written under a temporary name and renamed, so
+ * a URL never serves a partly written image.
+ */
+@Service
+public class ImageUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageUploadService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SNIFF_LENGTH = 12;
+    private static final String TEMP_DIR = ".tmp";
+    private static final String[] VARIANT_SOURCE_FOLDERS = {"blobs", "images", "tree-planting"};
+
+    // Largest variant first: each one is scaled down from the previous
+    private static final ImageVariantsDto.Variant[] VARIANTS_BY_SIZE = {
+        ImageVariantsDto.Variant.DETAIL, ImageVariantsDto.Variant.CARD, ImageVariantsDto.Variant.THUMBNAIL
+    };
+
+    enum ImageType {
+        JPEG("jpg", "jpeg", true),
+        PNG("png", "png", true),
+        GIF("gif", null, false),
+        WEBP("webp", null, false);
+
+        private final String extension;
+        private final String writerFormat;
+        private final boolean resizable;
+
+        ImageType(String extension, String writerFormat, boolean resizable) {
+            this.extension = extension;
+            this.writerFormat = writerFormat;
+            this.resizable = resizable;
+        }
+    }
+
+    @Autowired
+    private UploadBlobStore uploadBlobStore;
+
+    @Value("${uploads.root:uploads}")
+    private String uploadsRoot;
+
+    @Value("${uploads.images.max-bytes:10485760}")
+    private long maxBytes;
+
+    @Value("${uploads.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${uploads.images.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${uploads.images.variant-workers:2}")
+    private int variantWorkers;
+
+    @Value("${uploads.images.variant-queue-capacity:200}")
+    private int variantQueueCapacity;
+
+    private Path root;
+    private ThreadPoolExecutor variantExecutor;
+
+    @PostConstruct
+    void start() throws IOException {
+        root = Paths.get(uploadsRoot).toAbsolutePath().normalize();
+        Files.createDirectories(root.resolve(TEMP_DIR));
+        AtomicInteger threadNumber = new AtomicInteger();
+        // A full queue drops the job: the variant URLs keep serving the original until regenerated
+        variantExecutor = new ThreadPoolExecutor(variantWorkers, variantWorkers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(variantQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                (job, executor) -> log.warn("Image variant queue is full; variants will be generated on the next rebuild"));
+    }
+
+    @PreDestroy
+    void stop() {
+        variantExecutor.shutdownNow();
+    }
+
+    /**
+     * Stores an uploaded image and returns its URL, taking one reference to
+     * the underlying blob. Throws if the upload is empty, larger than the cap
+     * or not a JPEG, PNG, GIF or WebP image.
+     */
+    public String store(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Image file is empty");
+        }
+        if (file.getSize() > maxBytes) {
+            throw new RuntimeException("Image is larger than " + (maxBytes / (1024 * 1024)) + " MB");
+        }
+
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(root.resolve(TEMP_DIR), "upload-", ".part");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ImageType type;
+            try (InputStream in = file.getInputStream(); OutputStream out = Files.newOutputStream(temp)) {
+                type = copyCapped(in, out, digest);
+            }
+            UploadBlobStore.StoredBlob blob = uploadBlobStore.put(temp, HexFormat.of().formatHex(digest.digest()),
+                                                                  type.extension, Files.size(temp));
+            temp = null;
+
+            if (blob.isCreated() && type.resizable) {
+                Path original = blob.getPath();
+                variantExecutor.execute(() -> generateVariants(original, type));
+            }
+            return blob.getUrl();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store image: " + e.getMessage(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary upload {}: {}", temp, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues variant generation for every stored original that is missing a
+     * variant: blobs, plus the per-folder files written before uploads became
+     * content-addressed. Returns the number of images queued.
+     */
+    public int regenerateMissingVariants() {
+        int queued = 0;
+        for (String folder : VARIANT_SOURCE_FOLDERS) {
+            Path directory = root.resolve(folder);
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(directory)) {
+                Iterator<Path> originals = files
+                        .filter(Files::isRegularFile)
+                        .filter(path -> ImageVariantsDto.Variant.fromDirectory(path.getParent().getFileName().toString()) == null)
+                        .iterator();
+                while (originals.hasNext()) {
+                    Path original = originals.next();
+                    boolean missing = Arrays.stream(VARIANTS_BY_SIZE)
+                            .anyMatch(variant -> !Files.exists(variantPath(original, variant)));
+                    if (!missing) {
+                        continue;
+                    }
+                    ImageType type = sniff(original);
+                    if (type != null && type.resizable
+                            && variantExecutor.getQueue().remainingCapacity() > 0) {
+                        variantExecutor.execute(() -> generateVariants(original, type));
+                        queued++;
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Could not scan {} for missing image variants: {}", directory, e.getMessage());
+            }
+        }
+        return queued;
+    }
+
+    // --- Ingestion ---
+
+    private ImageType copyCapped(InputStream in, OutputStream out, MessageDigest digest) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int head = readFully(in, buffer, SNIFF_LENGTH);
+        ImageType type = detect(buffer, head);
+        if (type == null) {
+            throw new RuntimeException("Unsupported image type; upload a JPEG, PNG, GIF or WebP image");
+        }
+        out.write(buffer, 0, head);
+        digest.update(buffer, 0, head);
+
+        long total = head;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxBytes) {
+                throw new RuntimeException("Image is larger than " + (maxBytes / (1024 * 1024)) + " MB");
+            }
+            out.write(buffer, 0, read);
+            digest.update(buffer, 0, read);
+        }
+        return type;
+    }
+
+    private static int readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int filled = 0;
+        while (filled < length) {
+            int read = in.read(buffer, filled, length - filled);
+            if (read == -1) {
+                break;
+            }
+            filled += read;
+        }
+        return filled;
+    }
+
+    private static ImageType sniff(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] head = new byte[SNIFF_LENGTH];
+            return detect(head, readFully(in, head, SNIFF_LENGTH));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static ImageType detect(byte[] b, int length) {
+        if (length >= 3 && (b[0] & 0xFF) == 0xFF && (b[1] & 0xFF) == 0xD8 && (b[2] & 0xFF) == 0xFF) {
+            return ImageType.JPEG;
+        }
+        if (length >= 8 && (b[0] & 0xFF) == 0x89 && b[1] == 'P' && b[2] == 'N' && b[3] == 'G'
+                && b[4] == 0x0D && b[5] == 0x0A && b[6] == 0x1A && b[7] == 0x0A) {
+            return ImageType.PNG;
+        }
+        if (length >= 6 && b[0] == 'G' && b[1] == 'I' && b[2] == 'F' && b[3] == '8'
+                && (b[4] == '7' || b[4] == '9') && b[5] == 'a') {
+            return ImageType.GIF;
+        }
+        if (length >= 12 && b[0] == 'R' && b[1] == 'I' && b[2] == 'F' && b[3] == 'F'
+                && b[8] == 'W' && b[9] == 'E' && b[10] == 'B' && b[11] == 'P') {
+            return ImageType.WEBP;
+        }
+        return null;
+    }
+
+    // --- Variants ---
+
+    private void generateVariants(Path original, ImageType type) {
+        long started = System.currentTimeMillis();
+        try {
+            BufferedImage image = decode(original, VARIANTS_BY_SIZE[0].getMaxDimension());
+            if (image == null) {
+                return;
+            }
+            for (ImageVariantsDto.Variant variant : VARIANTS_BY_SIZE) {
+                image = scaleToFit(image, variant.getMaxDimension(), type == ImageType.PNG);
+                write(image, type, variantPath(original, variant));
+            }
+            log.debug("Generated image variants for {} in {} ms", original.getFileName(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.warn("Could not generate image variants for {}: {}", original.getFileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes the image, letting the reader skip pixels so the result is no
+     * larger than needed for the biggest variant. Returns null for images
+     * whose declared dimensions exceed max-pixels.
+     */
+    BufferedImage decode(Path original, int largestVariant) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Skipping variants for {}: {}x{} exceeds the pixel limit", original.getFileName(), width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / largestVariant);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves repeatedly before the final bilinear step, which keeps quality close to bicubic at a fraction of the cost
+    private static BufferedImage scaleToFit(BufferedImage image, int maxDimension, boolean keepAlpha) {
+        int imageType = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (Math.max(width, height) <= maxDimension && image.getType() == imageType) {
+            return image;
+        }
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            if (current.getWidth() <= targetWidth * 2 && current.getHeight() <= targetHeight * 2) {
+                width = targetWidth;
+                height = targetHeight;
+            }
+            BufferedImage next = new BufferedImage(width, height, imageType);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!keepAlpha) {
+                    // JPEG has no alpha channel: flatten transparent pixels onto white
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private void write(BufferedImage image, ImageType type, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(root.resolve(TEMP_DIR), "variant-", ".part");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(type.writerFormat).next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (type == ImageType.JPEG) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(jpegQuality);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static Path variantPath(Path original, ImageVariantsDto.Variant variant) {
+        return original.resolveSibling(variant.getDirectory()).resolve(original.getFileName());
+    }
+}
@@ -1,26 +1,62 @@
 package com.ecobazaar.backend.service;
 
+import com.ecobazaar.backend.cache.TtlCache;
+import com.ecobazaar.backend.entity.Role;
+import com.ecobazaar.backend.entity.User;
+import com.ecobazaar.backend.security.AuthenticatedUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
     
+    // Claims that let the filter authenticate a request without loading the user
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    
     @Value("${jwt.secret}")
     private String secretKey;
     
     @Value("${jwt.expiration}")
     private long jwtExpiration;
     
+    @Value("${jwt.cache.max-entries:10000}")
+    private int verifiedTokenCacheSize;
+    
+    @Value("${jwt.cache.ttl-ms:300000}")
+    private long verifiedTokenCacheTtlMs;
+    
+    // Built once from the secret; both are immutable and thread-safe
+    private Key signInKey;
+    private JwtParser parser;
+    
+    // SHA-256 of the compact token -> claims that already passed signature verification
+    private TtlCache<String, Claims> verifiedTokens;
+    
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        verifiedTokens = new TtlCache<>(verifiedTokenCacheSize, Duration.ofMillis(verifiedTokenCacheTtlMs));
+    }
+    
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -34,13 +70,36 @@ public class JwtService {
         return generateToken(new HashMap<>(), username);
     }
     
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        return generateToken(claims, user.getUsername());
+    }
+    
+    /**
+     * Principal described by the token's claims, or null for tokens issued
+     * before claims were added (the caller falls back to a user lookup).
+     */
+    public AuthenticatedUser extractPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), Role.valueOf(role),
+                                     version != null ? version.intValue() : 0);
+    }
+    
     public String generateToken(Map<String, Object> extraClaims, String username) {
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
@@ -49,6 +108,12 @@ public class JwtService {
         return (username.equals(tokenUsername)) && !isTokenExpired(token);
     }
     
+    // Same check against claims the caller already holds, without another lookup
+    public boolean isTokenValid(Claims claims, String username) {
+        return username.equals(claims.getSubject())
+                && (claims.getExpiration() == null || !claims.getExpiration().before(new Date()));
+    }
+    
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -57,16 +122,33 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the signature once per token; repeat calls for the same token
+     * are a hash lookup until the cache TTL or the token's own expiry, whichever
+     * comes first. Invalid tokens throw exactly as before and are never cached.
+     */
+    public Claims extractAllClaims(String token) {
+        String key = sha256(token);
+        Claims claims = verifiedTokens.get(key);
+        if (claims != null) {
+            return claims;
+        }
+        claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            verifiedTokens.put(key, claims, Duration.ofMillis(remainingMs));
+        } else {
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
     }
     
-    private Key getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,114 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.cache.TtlCache;
+import com.ecobazaar.backend.repository.NotificationCounterRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unread notification counts. Reads come from an in-memory AtomicLong per
+ * user, so concurrent updates for different users never contend, backed by
+ * the notification_counters table. Writers adjust the table row inside their
+ * own transaction and the in-memory counter after commit. Cached counters
+ * expire, so any drift is bounded by the TTL.
+ *
+ * A counter loaded while a writer was between its commit and afterCommit
+ * already contains that writer's change. To tell, loads and writers both
+ * take a stamp from one sequence while holding the user's counter row lock,
+ * so the stamps order them the same way the database did: a writer only
+ * applies its delta to counters loaded before it.
+ */
+@Service
+public class NotificationCounterService {
+
+    private static final class CachedCount {
+        private final AtomicLong unread;
+        private final long loadedAt;
+
+        private CachedCount(long unread, long loadedAt) {
+            this.unread = new AtomicLong(unread);
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    @Autowired
+    private NotificationCounterRepository notificationCounterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${notifications.counter-cache.max-entries:50000}")
+    private int maxEntries;
+
+    @Value("${notifications.counter-cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private TtlCache<Long, CachedCount> counters;
+    private TransactionTemplate loadTransaction;
+
+    @PostConstruct
+    void init() {
+        counters = new TtlCache<>(maxEntries, Duration.ofMillis(ttlMs));
+        loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long getUnread(Long userId) {
+        return counters.get(userId, this::load).unread.get();
+    }
+
+    /** Applies a change to one user's unread count; must run in the changing transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Long userId, int delta) {
+        adjust(Map.of(userId, delta));
+    }
+
+    /** Applies per-user unread deltas; must run in the changing transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Map<Long, Integer> deltas) {
+        deltas.forEach((userId, delta) -> {
+            if (delta != 0) {
+                notificationCounterRepository.addToUnread(userId, delta);
+            }
+        });
+        // Taken while this transaction holds the counter rows it just updated
+        long writtenAt = sequence.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deltas.forEach((userId, delta) -> {
+                    CachedCount counter = counters.get(userId);
+                    // A counter loaded after this write already includes it
+                    if (counter != null && counter.loadedAt < writtenAt) {
+                        counter.unread.accumulateAndGet(delta, (current, change) -> Math.max(current + change, 0));
+                    }
+                });
+            }
+        });
+    }
+
+    // Locking read inside INSERT ... SELECT waits for in-flight notification
+    // writes, so the seeded value already includes them; the share lock on the
+    // counter row is held until the stamp is taken
+    private CachedCount load(Long userId) {
+        return loadTransaction.execute(status -> {
+            notificationCounterRepository.initialize(userId);
+            Integer count = notificationCounterRepository.findUnreadCountForShare(userId);
+            return new CachedCount(count != null ? count : 0, sequence.incrementAndGet());
+        });
+    }
+}
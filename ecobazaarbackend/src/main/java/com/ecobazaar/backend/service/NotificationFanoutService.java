@@ -0,0 +1,382 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.NotificationDto;
+import com.ecobazaar.backend.dto.NotificationFanoutStatsDto;
+import com.ecobazaar.backend.entity.Role;
+import com.ecobazaar.backend.event.NotificationsCreatedEvent;
+import com.ecobazaar.backend.repository.OrderItemRepository;
+import com.ecobazaar.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates notifications off the request thread. Callers name a template and
+ * a recipient (or an audience for broadcasts); the rendered notification is
+ * queued once the caller's transaction commits and a writer thread persists
+ * the queue with JDBC batch inserts. When the queue stays full for longer
+ * than the enqueue timeout, the caller writes its own notification instead,
+ * which slows producers down to the rate the database can absorb.
+ *
+ * The queue is in memory: notifications still queued when the process dies
+ * are lost. They are informational, unlike order emails (see EmailOutbox).
+ */
+@Service
+public class NotificationFanoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationFanoutService.class);
+
+    private static final String TEMPLATES_LOCATION = "templates/notifications/templates.properties";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO notifications (user_id, title, message, notification_type, is_read, created_at) " +
+        "VALUES (?, ?, ?, ?, false, ?)";
+
+    public enum Audience {
+        ALL_USERS, CUSTOMERS, SELLERS, ADMINS, CATEGORY_BUYERS
+    }
+
+    private static final class Template {
+        private final String type;
+        private final TextTemplate title;
+        private final TextTemplate message;
+
+        private Template(String type, TextTemplate title, TextTemplate message) {
+            this.type = type;
+            this.title = title;
+            this.message = message;
+        }
+    }
+
+    // userId is set for a targeted notification; audience for a broadcast
+    private record Job(Long userId, Audience audience, Long categoryId,
+                       String title, String message, String type, LocalDateTime createdAt) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${notifications.fanout.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${notifications.fanout.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notifications.fanout.enqueue-timeout-ms:200}")
+    private long enqueueTimeoutMs;
+
+    private final Map<String, Template> templates = new HashMap<>();
+
+    private BlockingQueue<Job> queue;
+    private TransactionTemplate writeTransaction;
+    private Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong batchesWritten = new AtomicLong();
+    private final AtomicLong callerWrites = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private volatile double lastBatchRowsPerSecond;
+
+    @PostConstruct
+    void start() {
+        loadTemplates();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Writes must not join a transaction that has already committed (afterCommit callers)
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        writer = new Thread(this::drainQueue, "notification-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a templated notification for one user. Values fill the
+     * template's {{placeholders}}.
+     */
+    public void notifyUser(Long userId, String templateName, Map<String, ?> values) {
+        Rendered rendered = render(templateName, values);
+        submit(new Job(userId, null, null, rendered.title, rendered.message, rendered.type, LocalDateTime.now()));
+    }
+
+    /**
+     * Queues one templated notification for every active member of an
+     * audience. categoryId is required for CATEGORY_BUYERS and ignored
+     * otherwise.
+     */
+    public void broadcast(Audience audience, Long categoryId, String templateName, Map<String, ?> values) {
+        if (audience == Audience.CATEGORY_BUYERS && categoryId == null) {
+            throw new RuntimeException("categoryId is required for a category broadcast");
+        }
+        Rendered rendered = render(templateName, values);
+        submit(new Job(null, audience, categoryId, rendered.title, rendered.message, rendered.type, LocalDateTime.now()));
+    }
+
+    public NotificationFanoutStatsDto getStats() {
+        return new NotificationFanoutStatsDto(queue.size(), queueCapacity, enqueued.get(), rowsWritten.get(),
+                                              batchesWritten.get(), callerWrites.get(), failedRows.get(),
+                                              lastBatchRowsPerSecond);
+    }
+
+    // --- Queueing ---
+
+    private void submit(Job job) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Notify only about changes that actually committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(job);
+                }
+            });
+        } else {
+            enqueue(job);
+        }
+    }
+
+    private void enqueue(Job job) {
+        try {
+            if (running && queue.offer(job, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                enqueued.incrementAndGet();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Queue full (or shutting down): the caller pays for its own write
+        callerWrites.incrementAndGet();
+        process(List.of(job));
+    }
+
+    // --- Writer ---
+
+    private void drainQueue() {
+        List<Job> jobs = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Job first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                jobs.add(first);
+                queue.drainTo(jobs, batchSize - 1);
+                process(jobs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Notification writer failed on a batch of {} job(s)", jobs.size(), e);
+            } finally {
+                jobs.clear();
+            }
+        }
+    }
+
+    private void process(List<Job> jobs) {
+        List<Job> targeted = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            if (job.userId() != null) {
+                targeted.add(job);
+            } else {
+                expandBroadcast(job);
+            }
+        }
+        if (!targeted.isEmpty()) {
+            insertBatch(targeted);
+        }
+    }
+
+    // Recipients are read and written one page at a time, so a broadcast never
+    // holds more than one batch of ids in memory
+    private void expandBroadcast(Job broadcast) {
+        long afterId = 0;
+        long recipients = 0;
+        while (true) {
+            List<Long> userIds = recipientPage(broadcast, afterId);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            List<Job> page = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                page.add(new Job(userId, null, null, broadcast.title(), broadcast.message(),
+                                 broadcast.type(), broadcast.createdAt()));
+            }
+            insertBatch(page);
+            recipients += userIds.size();
+            afterId = userIds.get(userIds.size() - 1);
+        }
+        log.info("Broadcast '{}' to {} delivered to {} user(s)", broadcast.type(), broadcast.audience(), recipients);
+    }
+
+    private List<Long> recipientPage(Job broadcast, long afterId) {
+        PageRequest page = PageRequest.of(0, batchSize);
+        return switch (broadcast.audience()) {
+            case ALL_USERS -> userRepository.findActiveIdsAfter(afterId, null, page);
+            case CUSTOMERS -> userRepository.findActiveIdsAfter(afterId, Role.CUSTOMER, page);
+            case SELLERS -> userRepository.findActiveIdsAfter(afterId, Role.SELLER, page);
+            case ADMINS -> userRepository.findActiveIdsAfter(afterId, Role.ADMIN, page);
+            case CATEGORY_BUYERS -> orderItemRepository.findBuyerIdsByCategoryAfter(broadcast.categoryId(), afterId, page);
+        };
+    }
+
+    private void insertBatch(List<Job> rows) {
+        long started = System.nanoTime();
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Job job = rows.get(i);
+                            ps.setLong(1, job.userId());
+                            ps.setString(2, job.title());
+                            ps.setString(3, job.message());
+                            ps.setString(4, job.type());
+                            ps.setTimestamp(5, Timestamp.valueOf(job.createdAt()));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    },
+                    keys);
+                notificationCounterService.adjust(unreadDeltas(rows));
+            });
+        } catch (RuntimeException e) {
+            failedRows.addAndGet(rows.size());
+            log.error("Failed to write {} notification(s)", rows.size(), e);
+            return;
+        }
+        long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+        rowsWritten.addAndGet(rows.size());
+        batchesWritten.incrementAndGet();
+        lastBatchRowsPerSecond = rows.size() * 1_000_000_000.0 / elapsedNanos;
+
+        publishCreated(rows, keys.getKeyList());
+    }
+
+    private Map<Long, Integer> unreadDeltas(List<Job> rows) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        rows.forEach(job -> deltas.merge(job.userId(), 1, Integer::sum));
+        return deltas;
+    }
+
+    private void publishCreated(List<Job> rows, List<Map<String, Object>> keys) {
+        Map<Long, List<NotificationDto>> byUser = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Job job = rows.get(i);
+            Long id = i < keys.size() ? generatedId(keys.get(i)) : null;
+            byUser.computeIfAbsent(job.userId(), userId -> new ArrayList<>())
+                  .add(new NotificationDto(id, job.title(), job.message(), job.type(), false, job.createdAt()));
+        }
+        eventPublisher.publishEvent(new NotificationsCreatedEvent(byUser));
+    }
+
+    private Long generatedId(Map<String, Object> key) {
+        for (Object value : key.values()) {
+            if (value instanceof Number number) {
+                return number.longValue();
+            }
+        }
+        return null;
+    }
+
+    // --- Templates ---
+
+    private record Rendered(String type, String title, String message) {
+    }
+
+    private Rendered render(String templateName, Map<String, ?> values) {
+        Template template = templates.get(templateName);
+        if (template == null) {
+            throw new RuntimeException("Unknown notification template: " + templateName);
+        }
+        Map<String, String> text = new HashMap<>();
+        if (values != null) {
+            values.forEach((key, value) -> text.put(key, value == null ? "" : value.toString()));
+        }
+        return new Rendered(template.type, template.title.render(text), template.message.render(text));
+    }
+
+    private void loadTemplates() {
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(new ClassPathResource(TEMPLATES_LOCATION).getInputStream(),
+                                                   StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load notification templates", e);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.endsWith(".type")) {
+                continue;
+            }
+            String name = key.substring(0, key.length() - ".type".length());
+            templates.put(name, new Template(properties.getProperty(key),
+                TextTemplate.compile(properties.getProperty(name + ".title", "")),
+                TextTemplate.compile(properties.getProperty(name + ".message", ""))));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Flush what is queued before the datasource goes away
+        running = false;
+        writer.join(10_000);
+    }
+}
@@ -0,0 +1,160 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.NotificationRetentionStatsDto;
+import com.ecobazaar.backend.repository.NotificationArchiveRepository;
+import com.ecobazaar.backend.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves old notifications from the hot notifications table into
+ * notifications_archive. Read notifications older than read-days are
+ * archived; unread ones only when unread-days is set (0 keeps them forever),
+ * and their users' unread counters are adjusted in the same transaction.
+ *
+ * Each batch is its own short transaction that locks the rows it selects,
+ * then copies and deletes them by primary key, so the sweep only ever locks
+ * the rows it is moving and a concurrent mark-read waits for it instead of
+ * adjusting the same unread counter. The job pauses between batches to
+ * leave room for inbox traffic.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationArchiveRepository notificationArchiveRepository;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${notifications.retention.read-days:90}")
+    private int readDays;
+
+    @Value("${notifications.retention.unread-days:0}")
+    private int unreadDays;
+
+    @Value("${notifications.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${notifications.retention.batch-pause-ms:100}")
+    private long batchPauseMs;
+
+    private final AtomicLong totalRowsArchived = new AtomicLong();
+    private volatile long lastRunRowsArchived;
+    private volatile long lastRunMillis;
+    private volatile LocalDateTime lastRunAt;
+
+    @Scheduled(fixedDelayString = "${notifications.retention.interval-ms:3600000}",
+               initialDelayString = "${notifications.retention.interval-ms:3600000}")
+    public void archiveOnSchedule() {
+        archiveExpired();
+    }
+
+    public synchronized long archiveExpired() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        long moved = archive(true, now.minusDays(readDays));
+        if (unreadDays > 0) {
+            moved += archive(false, now.minusDays(unreadDays));
+        }
+
+        lastRunRowsArchived = moved;
+        lastRunMillis = System.currentTimeMillis() - started;
+        lastRunAt = now;
+        if (moved > 0) {
+            log.info("Archived {} notification(s) in {} ms", moved, lastRunMillis);
+        }
+        return moved;
+    }
+
+    public NotificationRetentionStatsDto getStats() {
+        return new NotificationRetentionStatsDto(totalRowsArchived.get(), lastRunRowsArchived, lastRunMillis,
+                                                 lastRunAt, estimatedRows("notifications"),
+                                                 estimatedRows("notifications_archive"));
+    }
+
+    private long archive(boolean read, LocalDateTime cutoff) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long moved = 0;
+        while (true) {
+            Integer count = transaction.execute(status -> archiveBatch(read, cutoff));
+            if (count == null || count == 0) {
+                return moved;
+            }
+            moved += count;
+            totalRowsArchived.addAndGet(count);
+            if (count < batchSize || !pause()) {
+                return moved;
+            }
+        }
+    }
+
+    private int archiveBatch(boolean read, LocalDateTime cutoff) {
+        List<Object[]> rows = notificationRepository.findExpired(read, cutoff, PageRequest.of(0, batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(rows.size());
+        Map<Long, Integer> unreadDeltas = new HashMap<>();
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+            if (!read) {
+                unreadDeltas.merge((Long) row[1], -1, Integer::sum);
+            }
+        }
+        notificationArchiveRepository.copyFromNotifications(ids, LocalDateTime.now());
+        int deleted = notificationRepository.deleteByIdIn(ids);
+        if (!unreadDeltas.isEmpty()) {
+            notificationCounterService.adjust(unreadDeltas);
+        }
+        return deleted;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // InnoDB's row estimate: free to read, unlike COUNT(*) on a large table
+    private Long estimatedRows(String table) {
+        try {
+            return jdbcTemplate.queryForObject(
+                "SELECT table_rows FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Long.class, table);
+        } catch (Exception e) {
+            log.debug("Could not read row estimate for {}: {}", table, e.getMessage());
+            return null;
+        }
+    }
+}
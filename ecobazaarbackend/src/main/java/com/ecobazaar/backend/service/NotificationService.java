@@ -1,83 +1,124 @@
 package com.ecobazaar.backend.service;
 
+import com.ecobazaar.backend.dto.CursorPageDto;
+import com.ecobazaar.backend.dto.KeysetCursor;
 import com.ecobazaar.backend.dto.NotificationDto;
 import com.ecobazaar.backend.entity.Notification;
 import com.ecobazaar.backend.entity.User;
+import com.ecobazaar.backend.event.NotificationsCreatedEvent;
+import com.ecobazaar.backend.event.NotificationsReadEvent;
 import com.ecobazaar.backend.repository.NotificationRepository;
 import com.ecobazaar.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class NotificationService {
 
+    private static final int LIST_LIMIT = 100;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private NotificationRepository notificationRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Notification createNotification(User user, String title, String message, String notificationType) {
-        Notification notification = new Notification(user, title, message, notificationType);
-        return notificationRepository.save(notification);
+        Notification notification = notificationRepository.save(new Notification(user, title, message, notificationType));
+        notificationCounterService.adjust(user.getId(), 1);
+        eventPublisher.publishEvent(new NotificationsCreatedEvent(Map.of(user.getId(), List.of(convertToDto(notification)))));
+        return notification;
     }
 
+    // Unpaged callers get the newest LIST_LIMIT rows; use getNotificationPage for the rest
     public List<NotificationDto> getUserNotifications(Long userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return notifications.stream().map(this::convertToDto).collect(Collectors.toList());
+        return notificationRepository.findPage(userId, false, null, null, PageRequest.of(0, LIST_LIMIT));
     }
 
     public List<NotificationDto> getUnreadNotifications(Long userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
-        return notifications.stream().map(this::convertToDto).collect(Collectors.toList());
+        return notificationRepository.findPage(userId, true, null, null, PageRequest.of(0, LIST_LIMIT));
+    }
+
+    /**
+     * Keyset-paged inbox, newest first. Pass the previous page's nextCursor
+     * to continue; unreadOnly restricts the page to unread notifications.
+     */
+    public CursorPageDto<NotificationDto> getNotificationPage(Long userId, boolean unreadOnly, String cursor, Integer limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<NotificationDto> rows = notificationRepository.findPage(userId, unreadOnly,
+                after != null ? after.getTimestamp() : null,
+                after != null ? after.getId() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            NotificationDto last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(items, nextCursor, hasMore);
     }
 
     public Long getUnreadNotificationCount(Long userId) {
-        return notificationRepository.countUnreadNotificationsByUserId(userId);
+        return notificationCounterService.getUnread(userId);
     }
 
     public void markAsRead(Long notificationId) {
-        Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
-        if (notificationOpt.isPresent()) {
-            Notification notification = notificationOpt.get();
-            notification.setIsRead(true);
-            notificationRepository.save(notification);
-        }
+        notificationRepository.findUserIdById(notificationId).ifPresent(userId -> {
+            if (notificationRepository.markReadIfUnread(notificationId) > 0) {
+                notificationCounterService.adjust(userId, -1);
+                eventPublisher.publishEvent(new NotificationsReadEvent(userId));
+            }
+        });
     }
 
     public void markNotificationAsRead(Long notificationId) {
-        Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
-        if (notificationOpt.isPresent()) {
-            Notification notification = notificationOpt.get();
-            notification.setIsRead(true);
-            notificationRepository.save(notification);
-        }
+        markAsRead(notificationId);
     }
 
+    // One UPDATE however many notifications are unread
     public void markAllNotificationsAsRead(Long userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
-        for (Notification notification : notifications) {
-            notification.setIsRead(true);
+        int updated = notificationRepository.markAllReadByUserId(userId);
+        if (updated > 0) {
+            notificationCounterService.adjust(userId, -updated);
+            eventPublisher.publishEvent(new NotificationsReadEvent(userId));
         }
-        notificationRepository.saveAll(notifications);
     }
 
     public void markAllAsRead(Long userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
-        for (Notification notification : notifications) {
-            notification.setIsRead(true);
-        }
-        notificationRepository.saveAll(notifications);
+        markAllNotificationsAsRead(userId);
     }
 
+    // Only the delete that actually removed an unread row decrements the counter
     public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.findUserIdById(notificationId).ifPresent(userId -> {
+            if (notificationRepository.deleteIfUnread(notificationId, userId) > 0) {
+                notificationCounterService.adjust(userId, -1);
+                eventPublisher.publishEvent(new NotificationsReadEvent(userId));
+            } else if (notificationRepository.deleteByIdAndUserId(notificationId, userId) > 0) {
+                eventPublisher.publishEvent(new NotificationsReadEvent(userId));
+            }
+        });
     }
 
     public void createSampleNotifications(Long userId) {
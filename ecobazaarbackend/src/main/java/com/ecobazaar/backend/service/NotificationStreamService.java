@@ -0,0 +1,150 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.NotificationDto;
+import com.ecobazaar.backend.event.NotificationsCreatedEvent;
+import com.ecobazaar.backend.event.NotificationsReadEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes notifications to connected browsers over Server-Sent Events so the
+ * bell icon no longer polls. Each user may hold several streams (tabs); an
+ * idle stream costs only its registry entry, since SseEmitter is async and
+ * holds no request thread. Writes run on virtual threads so a slow client
+ * never stalls the notification writer that published the event.
+ *
+ * Events: "notification" carries a NotificationDto, "unread-count" the new
+ * unread total. A comment heartbeat keeps proxies from closing idle streams
+ * and prunes connections that have gone away.
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationStreamService.class);
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Value("${notifications.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService pushExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(emitter);
+        connections.incrementAndGet();
+
+        Runnable remove = () -> unsubscribe(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        // Initial state, so the client needs no separate count request on connect
+        pushExecutor.execute(() -> send(userId, emitter, SseEmitter.event()
+                .name("unread-count").data(notificationService.getUnreadNotificationCount(userId))));
+        return emitter;
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    // --- Event handlers ---
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsCreated(NotificationsCreatedEvent event) {
+        event.getNotificationsByUser().forEach((userId, notifications) -> {
+            if (subscribers.containsKey(userId)) {
+                pushExecutor.execute(() -> pushCreated(userId, notifications));
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsRead(NotificationsReadEvent event) {
+        Long userId = event.getUserId();
+        if (subscribers.containsKey(userId)) {
+            pushExecutor.execute(() -> pushUnreadCount(userId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-ms:25000}",
+               initialDelayString = "${notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((userId, emitters) -> emitters.forEach(emitter ->
+            pushExecutor.execute(() -> send(userId, emitter, SseEmitter.event().comment("keep-alive")))));
+    }
+
+    // --- Helpers ---
+
+    private void pushCreated(Long userId, List<NotificationDto> notifications) {
+        Set<SseEmitter> emitters = subscribers.get(userId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            for (NotificationDto notification : notifications) {
+                send(userId, emitter, SseEmitter.event().name("notification").data(notification));
+            }
+        }
+        pushUnreadCount(userId);
+    }
+
+    private void pushUnreadCount(Long userId) {
+        Set<SseEmitter> emitters = subscribers.get(userId);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        Long count = notificationService.getUnreadNotificationCount(userId);
+        for (SseEmitter emitter : emitters) {
+            send(userId, emitter, SseEmitter.event().name("unread-count").data(count));
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter already completed)
+            unsubscribe(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+        pushExecutor.shutdownNow();
+        log.info("Closed notification streams");
+    }
+}
@@ -1,16 +1,22 @@
 package com.ecobazaar.backend.service;
 
 import com.ecobazaar.backend.entity.*;
+import com.ecobazaar.backend.event.OrderPlacedEvent;
 import com.ecobazaar.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -19,9 +25,6 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
     
-    @Autowired
-    private OrderItemRepository orderItemRepository;
-    
     @Autowired
     private UserRepository userRepository;
 
@@ -32,62 +35,48 @@ public class OrderService {
     private CartRepository cartRepository;
     
     @Autowired
-    private CustomerProfileRepository customerProfileRepository;
+    private CustomerProfileService customerProfileService;
+
+    @Autowired
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     public Order createOrderFromCart(Long userId, String shippingAddress, String paymentMethod, String notes) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<Cart> cartItems = cartRepository.findByUserId(userId);
+        // Cart rows come back with their products in one fetch-joined query
+        List<Cart> cartItems = cartRepository.findByUserIdWithProduct(userId);
         if (cartItems.isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
         
-        // Create new order
-        Order order = new Order();
-        order.setUser(user);
-        order.setShippingAddress(shippingAddress);
-        order.setPaymentMethod(paymentMethod);
-        order.setNotes(notes);
-        order.setStatus(OrderStatus.PENDING);
-        // Ensure NOT NULL columns have initial values before first save
-        order.setTotalPrice(BigDecimal.ZERO);
-        order.setTotalCarbonScore(BigDecimal.ZERO);
-        
-        BigDecimal totalPrice = BigDecimal.ZERO;
-        BigDecimal totalCarbonScore = BigDecimal.ZERO;
-        
-        // Save order first to get ID (safe because totals are initialized)
-        order = orderRepository.save(order);
-        
-        // Create order items from cart
+        Order order = newPendingOrder(user, shippingAddress, paymentMethod, notes);
         for (Cart cartItem : cartItems) {
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setProduct(cartItem.getProduct());
-            orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setPrice(cartItem.getProduct().getPrice());
-            orderItem.setCarbonScore(cartItem.getProduct().getCarbonScore());
-            
-            // Save each order item
-            orderItemRepository.save(orderItem);
-            
-            BigDecimal itemTotal = cartItem.getProduct().getPrice()
-                .multiply(BigDecimal.valueOf(cartItem.getQuantity()));
-            totalPrice = totalPrice.add(itemTotal);
-            
-            BigDecimal itemCarbonScore = cartItem.getProduct().getCarbonScore()
-                .multiply(BigDecimal.valueOf(cartItem.getQuantity()));
-            totalCarbonScore = totalCarbonScore.add(itemCarbonScore);
+            addOrderItem(order, cartItem.getProduct(), cartItem.getQuantity());
         }
         
-        order.setTotalPrice(totalPrice);
-        order.setTotalCarbonScore(totalCarbonScore);
+        // One save: the order row is inserted and its items cascade as a JDBC batch at flush
+        Order savedOrder = orderRepository.save(order);
+        
+        // Take the stock now; an exception here rolls the whole order back
+        stockReservationService.reserve(savedOrder);
         
-        // Clear cart after order creation
-        cartRepository.deleteAll(cartItems);
+        // Queued in this transaction; the outbox dispatcher sends it after commit
+        emailService.enqueueOrderConfirmation(savedOrder);
         
-        Order savedOrder = orderRepository.save(order);
+        // Clear cart after order creation in a single DELETE
+        cartRepository.deleteAllByIdInBatch(cartItems.stream().map(Cart::getId).toList());
+        
+        eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId(), userId, savedOrder.getTotalPrice()));
         
         return savedOrder;
     }
@@ -108,6 +97,9 @@ public class OrderService {
             throw new RuntimeException("Order cannot be confirmed in current status");
         }
         
+        // Confirmed orders keep their stock until shipped instead of expiring
+        stockReservationService.pin(order);
+        
         order.setStatus(OrderStatus.CONFIRMED);
         order.setConfirmedAt(LocalDateTime.now());
         
@@ -134,16 +126,8 @@ public class OrderService {
         order.setShippedAt(LocalDateTime.now());
         order.setTrackingNumber(trackingNumber != null ? trackingNumber : generateTrackingNumber());
         
-        // Update product quantities
-        for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            int newStock = product.getStockQuantity() - item.getQuantity();
-            if (newStock < 0) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
-            }
-            product.setStockQuantity(newStock);
-            productRepository.save(product);
-        }
+        // Stock was taken at checkout; shipping only marks the reservations used
+        stockReservationService.convert(order);
         
         return orderRepository.save(order);
     }
@@ -164,10 +148,9 @@ public class OrderService {
         order.setDeliveredAt(LocalDateTime.now());
         
         // Award eco points to customer based on carbon score
-        User user = order.getUser();
+        customerProfileService.getCustomerProfile(userId);
         int ecoPointsEarned = order.getTotalCarbonScore().intValue();
-        user.setEcoPoints(user.getEcoPoints() + ecoPointsEarned);
-        userRepository.save(user);
+        ecoPointsLedgerService.credit(userId, ecoPointsEarned, EcoPointsLedgerEntry.Reason.ORDER_DELIVERED, orderId);
         
         return orderRepository.save(order);
     }
@@ -207,24 +190,9 @@ public class OrderService {
             throw new RuntimeException("Cart is empty");
         }
         
-        // Create new order
-        Order order = new Order();
-        order.setUser(user);
-        order.setShippingAddress(shippingAddress);
-        order.setPaymentMethod(paymentMethod);
-        order.setNotes(notes);
-        order.setStatus(OrderStatus.PENDING);
-        // Ensure NOT NULL columns have initial values before first save
-        order.setTotalPrice(BigDecimal.ZERO);
-        order.setTotalCarbonScore(BigDecimal.ZERO);
-        
-        BigDecimal totalPrice = BigDecimal.ZERO;
-        BigDecimal totalCarbonScore = BigDecimal.ZERO;
-        
-        // Save order first to get ID (safe because totals are initialized)
-        order = orderRepository.save(order);
-        
-        // Create order items from cart data
+        // Validate and parse every line before touching the database
+        List<Long> productIds = new ArrayList<>(cartItems.size());
+        List<Integer> quantities = new ArrayList<>(cartItems.size());
         for (Map<String, Object> cartItem : cartItems) {
             if (cartItem.get("productId") == null) {
                 throw new RuntimeException("Product ID is missing in cart item");
@@ -232,75 +200,84 @@ public class OrderService {
             if (cartItem.get("quantity") == null) {
                 throw new RuntimeException("Quantity is missing in cart item");
             }
-            
-            Long productId = Long.valueOf(cartItem.get("productId").toString());
-            Integer quantity = Integer.valueOf(cartItem.get("quantity").toString());
-            
-            Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-            
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setProduct(product);
-            orderItem.setQuantity(quantity);
-            orderItem.setPrice(product.getPrice());
-            orderItem.setCarbonScore(product.getCarbonScore());
-            
-            // Save each order item
-            orderItemRepository.save(orderItem);
-            
-            BigDecimal itemTotal = product.getPrice()
-                .multiply(BigDecimal.valueOf(quantity));
-            totalPrice = totalPrice.add(itemTotal);
-            
-            BigDecimal itemCarbonScore = product.getCarbonScore()
-                .multiply(BigDecimal.valueOf(quantity));
-            totalCarbonScore = totalCarbonScore.add(itemCarbonScore);
-
-            cartRepository.findByUserIdAndProductId(userId, productId)
-                .ifPresent(cartRepository::delete);
+            int quantity = Integer.parseInt(cartItem.get("quantity").toString());
+            if (quantity <= 0) {
+                throw new RuntimeException("Quantity must be at least 1");
+            }
+            productIds.add(Long.valueOf(cartItem.get("productId").toString()));
+            quantities.add(quantity);
         }
         
-        order.setTotalPrice(totalPrice);
-        order.setTotalCarbonScore(totalCarbonScore);
+        // Load every product in one query instead of one findById per line
+        Map<Long, Product> products = productRepository.findAllByIdWithRelations(new HashSet<>(productIds)).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        Order order = newPendingOrder(user, shippingAddress, paymentMethod, notes);
+        for (int i = 0; i < productIds.size(); i++) {
+            Product product = products.get(productIds.get(i));
+            if (product == null) {
+                throw new RuntimeException("Product not found");
+            }
+            addOrderItem(order, product, quantities.get(i));
+        }
         
-        // Save order with eco-points data
+        // One save: the order row is inserted and its items cascade as a JDBC batch at flush
         Order savedOrder = orderRepository.save(order);
         
+        // Take the stock now; an exception here rolls the whole order back
+        stockReservationService.reserve(savedOrder);
+        
+        // Queued in this transaction; the outbox dispatcher sends it after commit
+        emailService.enqueueOrderConfirmation(savedOrder);
+        
+        // Remove the purchased lines from the stored cart in a single DELETE
+        cartRepository.deleteByUserIdAndProductIdIn(userId, productIds);
+        
+        eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId(), userId, savedOrder.getTotalPrice()));
+        
         // Deduct eco-points from customer profile if used
         if (ecoPointsUsed != null && ecoPointsUsed > 0) {
-            deductEcoPoints(userId, ecoPointsUsed);
+            ecoPointsLedgerService.debit(userId, ecoPointsUsed, EcoPointsLedgerEntry.Reason.ORDER_REDEMPTION, savedOrder.getId());
         }
         
         return savedOrder;
     }
     
-    private String generateTrackingNumber() {
-        return "EB" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private Order newPendingOrder(User user, String shippingAddress, String paymentMethod, String notes) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setShippingAddress(shippingAddress);
+        order.setPaymentMethod(paymentMethod);
+        order.setNotes(notes);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalPrice(BigDecimal.ZERO);
+        order.setTotalCarbonScore(BigDecimal.ZERO);
+        order.setOrderItems(new ArrayList<>());
+        return order;
     }
     
-    private void deductEcoPoints(Long userId, Integer pointsToDeduct) {
-        try {
-            CustomerProfile profile = customerProfileRepository.findByUserId(userId)
-                    .orElseThrow(() -> new RuntimeException("Customer profile not found"));
-            
-            int currentPoints = profile.getEcoPoints() != null ? profile.getEcoPoints() : 0;
-            int newPoints = Math.max(0, currentPoints - pointsToDeduct); // Ensure points don't go negative
-            
-            profile.setEcoPoints(newPoints);
-            customerProfileRepository.save(profile);
-            
-            System.out.println("=== ECO POINTS DEDUCTED ===");
-            System.out.println("User ID: " + userId);
-            System.out.println("Points deducted: " + pointsToDeduct);
-            System.out.println("Previous points: " + currentPoints);
-            System.out.println("New total points: " + newPoints);
-            System.out.println("=========================");
-            
-        } catch (Exception e) {
-            System.out.println("ERROR deducting eco-points: " + e.getMessage());
-            e.printStackTrace();
-            // Don't throw exception to avoid breaking order creation
+    private void addOrderItem(Order order, Product product, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be at least 1");
         }
+        OrderItem orderItem = new OrderItem();
+        orderItem.setOrder(order);
+        orderItem.setProduct(product);
+        orderItem.setQuantity(quantity);
+        orderItem.setPrice(product.getPrice());
+        orderItem.setCarbonScore(product.getCarbonScore());
+        order.getOrderItems().add(orderItem);
+        
+        BigDecimal itemTotal = product.getPrice()
+            .multiply(BigDecimal.valueOf(quantity));
+        order.setTotalPrice(order.getTotalPrice().add(itemTotal));
+        
+        BigDecimal itemCarbonScore = product.getCarbonScore()
+            .multiply(BigDecimal.valueOf(quantity));
+        order.setTotalCarbonScore(order.getTotalCarbonScore().add(itemCarbonScore));
+    }
+    
+    private String generateTrackingNumber() {
+        return "EB" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
-}
\ No newline at end of file
+}
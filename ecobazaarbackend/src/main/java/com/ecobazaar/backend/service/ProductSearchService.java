@@ -0,0 +1,287 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.ProductSearchResultDto;
+import com.ecobazaar.backend.dto.ProductSummaryDto;
+import com.ecobazaar.backend.dto.SearchFacetDto;
+import com.ecobazaar.backend.entity.Product;
+import com.ecobazaar.backend.event.ProductChangedEvent;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.search.InvertedIndex;
+import com.ecobazaar.backend.search.TextAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process full-text search over active products (name, description and
+ * category name). The index is rebuilt from the database at startup and on
+ * a long schedule, and kept current in between from ProductChangedEvent.
+ */
+@Service
+public class ProductSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 24;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Field weights: a hit in the name matters most, then the category
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // Ranking boosts applied on top of text relevance when boostEco is on
+    private static final double ECO_FRIENDLY_BOOST = 0.5;
+    private static final double LOW_CARBON_BOOST = 0.5;
+
+    // Lower bounds of the price facet bands; the last band is open-ended
+    private static final BigDecimal[] PRICE_BANDS = {
+        BigDecimal.ZERO, new BigDecimal("500"), new BigDecimal("1000"), new BigDecimal("2500"), new BigDecimal("5000")
+    };
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private InvertedIndex index = new InvertedIndex();
+    private Map<Long, ProductSummaryDto> documents = new HashMap<>();
+
+    // Products changed while a rebuild was loading; re-applied after the swap
+    private volatile boolean rebuilding = false;
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private static final class Hit {
+        private final ProductSummaryDto product;
+        private final double score;
+
+        private Hit(ProductSummaryDto product, double score) {
+            this.product = product;
+            this.score = score;
+        }
+    }
+
+    // --- Query ---
+
+    public ProductSearchResultDto search(String query, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                                         Boolean ecoFriendly, boolean boostEco, Integer page, Integer size) {
+        int pageNumber = page == null || page < 0 ? 0 : page;
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        List<String> terms = TextAnalyzer.tokenize(query);
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = terms.isEmpty() ? null : matchAll(terms);
+            if (scores == null) {
+                documents.values().forEach(product -> hits.add(new Hit(product, 1.0)));
+            } else {
+                scores.forEach((id, score) -> hits.add(new Hit(documents.get(id), score)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ecoFriendly != null) {
+            hits.removeIf(hit -> !ecoFriendly.equals(hit.product.getIsEcoFriendly()));
+        }
+
+        // Each facet ignores its own filter so the other buckets stay visible
+        List<SearchFacetDto> categoryFacets = categoryFacets(hits.stream()
+                .filter(hit -> inPriceRange(hit.product, minPrice, maxPrice)).toList());
+        List<SearchFacetDto> priceFacets = priceFacets(hits.stream()
+                .filter(hit -> inCategory(hit.product, categoryId)).toList());
+
+        List<Hit> results = new ArrayList<>(hits.stream()
+                .filter(hit -> inCategory(hit.product, categoryId) && inPriceRange(hit.product, minPrice, maxPrice))
+                .map(hit -> boostEco ? new Hit(hit.product, hit.score * ecoMultiplier(hit.product)) : hit)
+                .toList());
+        results.sort(Comparator.comparingDouble((Hit hit) -> hit.score).reversed()
+                .thenComparing(hit -> hit.product.getId(), Comparator.reverseOrder()));
+
+        int from = Math.min(pageNumber * pageSize, results.size());
+        int to = Math.min(from + pageSize, results.size());
+        List<ProductSummaryDto> items = results.subList(from, to).stream().map(hit -> hit.product).toList();
+        int totalPages = (results.size() + pageSize - 1) / pageSize;
+        return new ProductSearchResultDto(items, pageNumber, pageSize, (long) results.size(), totalPages,
+                                          categoryFacets, priceFacets);
+    }
+
+    // Every query term must match (AND); scores add up across terms
+    private Map<Long, Float> matchAll(List<String> terms) {
+        Map<Long, Float> scores = null;
+        for (String term : terms) {
+            Map<Long, Float> matches = index.match(term);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private double ecoMultiplier(ProductSummaryDto product) {
+        double multiplier = 1.0;
+        if (Boolean.TRUE.equals(product.getIsEcoFriendly())) {
+            multiplier += ECO_FRIENDLY_BOOST;
+        }
+        double carbon = product.getCarbonScore() != null ? Math.max(product.getCarbonScore().doubleValue(), 0) : 0;
+        return multiplier + LOW_CARBON_BOOST / (1.0 + carbon);
+    }
+
+    private boolean inCategory(ProductSummaryDto product, Long categoryId) {
+        return categoryId == null || categoryId.equals(product.getCategoryId());
+    }
+
+    private boolean inPriceRange(ProductSummaryDto product, BigDecimal minPrice, BigDecimal maxPrice) {
+        BigDecimal price = product.getPrice();
+        return (minPrice == null || price.compareTo(minPrice) >= 0)
+                && (maxPrice == null || price.compareTo(maxPrice) <= 0);
+    }
+
+    private List<SearchFacetDto> categoryFacets(List<Hit> hits) {
+        Map<Long, SearchFacetDto> buckets = new LinkedHashMap<>();
+        for (Hit hit : hits) {
+            Long id = hit.product.getCategoryId();
+            if (id == null) {
+                continue;
+            }
+            SearchFacetDto bucket = buckets.computeIfAbsent(id, key ->
+                    new SearchFacetDto(String.valueOf(key), hit.product.getCategoryName(), 0L, null, null));
+            bucket.setCount(bucket.getCount() + 1);
+        }
+        List<SearchFacetDto> facets = new ArrayList<>(buckets.values());
+        facets.sort(Comparator.comparing(SearchFacetDto::getCount).reversed());
+        return facets;
+    }
+
+    private List<SearchFacetDto> priceFacets(List<Hit> hits) {
+        long[] counts = new long[PRICE_BANDS.length];
+        for (Hit hit : hits) {
+            counts[priceBand(hit.product.getPrice())]++;
+        }
+        List<SearchFacetDto> facets = new ArrayList<>(PRICE_BANDS.length);
+        for (int band = 0; band < PRICE_BANDS.length; band++) {
+            BigDecimal min = PRICE_BANDS[band];
+            BigDecimal max = band + 1 < PRICE_BANDS.length ? PRICE_BANDS[band + 1] : null;
+            String label = max != null ? min.toPlainString() + "-" + max.toPlainString() : min.toPlainString() + "+";
+            facets.add(new SearchFacetDto(label, label, counts[band], min, max));
+        }
+        return facets;
+    }
+
+    private int priceBand(BigDecimal price) {
+        for (int band = PRICE_BANDS.length - 1; band > 0; band--) {
+            if (price.compareTo(PRICE_BANDS[band]) >= 0) {
+                return band;
+            }
+        }
+        return 0;
+    }
+
+    // --- Index maintenance ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    // Catches changes that bypass the events, such as category renames
+    @Scheduled(fixedDelayString = "${search.index.rebuild-interval-ms:1800000}",
+               initialDelayString = "${search.index.rebuild-interval-ms:1800000}")
+    public void rebuildOnSchedule() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            InvertedIndex freshIndex = new InvertedIndex();
+            Map<Long, ProductSummaryDto> freshDocuments = new HashMap<>();
+            for (Product product : productRepository.findAllActiveWithRelations()) {
+                freshDocuments.put(product.getId(), toSummary(product));
+                freshIndex.put(product.getId(), termWeights(product));
+            }
+
+            lock.writeLock().lock();
+            try {
+                index = freshIndex;
+                documents = freshDocuments;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Product search index rebuilt with {} products", freshDocuments.size());
+        } finally {
+            rebuilding = false;
+        }
+        changedDuringRebuild.forEach(this::refresh);
+        changedDuringRebuild.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (rebuilding) {
+            changedDuringRebuild.add(event.getProductId());
+        }
+        refresh(event.getProductId());
+    }
+
+    private void refresh(Long productId) {
+        Product product = productRepository.findByIdWithRelations(productId);
+        lock.writeLock().lock();
+        try {
+            if (product == null || !Boolean.TRUE.equals(product.getIsActive())) {
+                index.remove(productId);
+                documents.remove(productId);
+            } else {
+                index.put(productId, termWeights(product));
+                documents.put(productId, toSummary(product));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<String, Float> termWeights(Product product) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, product.getName(), NAME_WEIGHT);
+        addField(weights, product.getCategory() != null ? product.getCategory().getName() : null, CATEGORY_WEIGHT);
+        addField(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        return weights;
+    }
+
+    private void addField(Map<String, Float> weights, String text, float weight) {
+        for (String token : TextAnalyzer.tokenize(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private ProductSummaryDto toSummary(Product product) {
+        return new ProductSummaryDto(product.getId(), product.getName(), product.getPrice(), product.getImageUrl(),
+                ProductChangedEvent.categoryIdOf(product),
+                product.getCategory() != null ? product.getCategory().getName() : null,
+                product.getSeller() != null ? product.getSeller().getId() : null,
+                product.getCarbonScore(), product.getEcoPoints(), product.getCarbonReduction(),
+                product.getIsEcoFriendly(), product.getStockQuantity(), product.getCreatedAt());
+    }
+}
@@ -1,13 +1,19 @@
 package com.ecobazaar.backend.service;
 
+import com.ecobazaar.backend.dto.CursorPageDto;
+import com.ecobazaar.backend.dto.KeysetCursor;
+import com.ecobazaar.backend.dto.ProductSummaryDto;
 import com.ecobazaar.backend.entity.Product;
 import com.ecobazaar.backend.entity.User;
+import com.ecobazaar.backend.event.ProductChangedEvent;
 import com.ecobazaar.backend.repository.ProductRepository;
 import com.ecobazaar.backend.repository.UserRepository;
 import com.ecobazaar.backend.repository.CartRepository;
 import com.ecobazaar.backend.repository.WishlistRepository;
 import com.ecobazaar.backend.repository.OrderItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -16,6 +22,9 @@ import java.util.List;
 @Service
 public class ProductService {
 
+    private static final int DEFAULT_PAGE_SIZE = 24;
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -34,6 +43,15 @@ public class ProductService {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private CatalogueCacheService catalogueCacheService;
+
+    @Autowired
+    private UploadBlobStore uploadBlobStore;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Product> getAllActiveProducts() {
         return productRepository.findByIsActiveTrue();
     }
@@ -49,12 +67,55 @@ public class ProductService {
         return product;
     }
 
-    public List<Product> getProductsByCategory(Long categoryId) {
-        return productRepository.findByCategoryIdAndIsActiveTrue(categoryId);
+    /**
+     * Product detail for the storefront, served from the catalogue cache.
+     * Callers that modify the product must use getProductById instead.
+     */
+    public Product getProductDetail(Long id) {
+        return catalogueCacheService.getProduct(id, this::getProductById);
     }
 
-    public List<Product> getEcoFriendlyProducts() {
-        return productRepository.findByIsEcoFriendlyTrueAndIsActiveTrue();
+    /**
+     * Keyset-paged listing of active products, newest first. All filters are
+     * optional.
+     */
+    public CursorPageDto<ProductSummaryDto> getActiveProductPage(Long categoryId, Long sellerId,
+                                                                 BigDecimal minPrice, BigDecimal maxPrice,
+                                                                 Boolean ecoFriendly, BigDecimal maxCarbonScore,
+                                                                 String cursor, Integer limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        // Category and eco-friendly browsing go through the catalogue cache;
+        // seller, price and carbon filters are too varied to be worth caching
+        if (sellerId == null && minPrice == null && maxPrice == null && maxCarbonScore == null) {
+            CatalogueCacheService.ListingKey key =
+                    new CatalogueCacheService.ListingKey(categoryId, ecoFriendly, cursor, pageSize);
+            return catalogueCacheService.getListing(key, () -> loadActiveProductPage(
+                    categoryId, null, null, null, ecoFriendly, null, after, pageSize));
+        }
+        return loadActiveProductPage(categoryId, sellerId, minPrice, maxPrice, ecoFriendly, maxCarbonScore, after, pageSize);
+    }
+
+    private CursorPageDto<ProductSummaryDto> loadActiveProductPage(Long categoryId, Long sellerId,
+                                                                   BigDecimal minPrice, BigDecimal maxPrice,
+                                                                   Boolean ecoFriendly, BigDecimal maxCarbonScore,
+                                                                   KeysetCursor after, int pageSize) {
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<ProductSummaryDto> rows = productRepository.findActiveProductPage(
+                categoryId, sellerId, minPrice, maxPrice, ecoFriendly, maxCarbonScore,
+                after != null ? after.getTimestamp() : null,
+                after != null ? after.getId() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductSummaryDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ProductSummaryDto last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(items, nextCursor, hasMore);
     }
 
     public List<Product> getProductsBySeller(Long sellerId) {
@@ -80,11 +141,22 @@ public class ProductService {
         );
         product.setCarbonScore(carbonScore);
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved));
+        return saved;
     }
 
-    public Product updateProduct(Long id, Product productDetails) {
+    /**
+     * imageReferenceTaken: the caller took a blob reference for
+     * productDetails' image URL (see UploadBlobStore.retain and store).
+     */
+    public Product updateProduct(Long id, Product productDetails, boolean imageReferenceTaken) {
         Product product = getProductById(id);
+        Boolean wasActive = product.getIsActive();
+        BigDecimal previousCarbonScore = product.getCarbonScore();
+        Long previousCategoryId = ProductChangedEvent.categoryIdOf(product);
+        Boolean wasEcoFriendly = product.getIsEcoFriendly();
+        String previousImageUrl = product.getImageUrl();
         
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
@@ -107,7 +179,11 @@ public class ProductService {
         );
         product.setCarbonScore(carbonScore);
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        uploadBlobStore.replace(previousImageUrl, saved.getImageUrl(), imageReferenceTaken);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(wasActive, previousCarbonScore,
+                previousCategoryId, wasEcoFriendly, saved));
+        return saved;
     }
 
     public void deleteProduct(Long id) {
@@ -123,7 +199,9 @@ public class ProductService {
         // 3. Delete order items (this will affect order totals, but we'll handle that)
         orderItemRepository.deleteByProductId(id);
         
-        // 4. Finally delete the product itself
+        // 4. Finally delete the product itself, releasing its stored image
         productRepository.delete(product);
+        uploadBlobStore.release(product.getImageUrl());
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(product));
     }
 }
@@ -0,0 +1,224 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.entity.Order;
+import com.ecobazaar.backend.entity.OrderItem;
+import com.ecobazaar.backend.entity.OrderStatus;
+import com.ecobazaar.backend.entity.Product;
+import com.ecobazaar.backend.entity.StockReservation;
+import com.ecobazaar.backend.event.StockChangedEvent;
+import com.ecobazaar.backend.repository.OrderRepository;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.repository.StockReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Takes stock at checkout instead of at shipping. Every change to
+ * products.stock_quantity is a single conditional UPDATE, and an order's
+ * products are always locked in ascending id order, so concurrent checkouts
+ * neither oversell nor deadlock on each other.
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
+    @Autowired
+    private NotificationFanoutService notificationFanoutService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${stock.reservation.ttl-minutes:2880}")
+    private long ttlMinutes;
+
+    /**
+     * Reserves every line of a freshly saved order. Runs inside the checkout
+     * transaction: if any product is short, the exception rolls back the
+     * reservations already taken together with the order itself.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Order order) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+        List<StockReservation> reservations = new ArrayList<>();
+        SortedMap<Long, Integer> quantities = quantitiesByProduct(order);
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Long productId = line.getKey();
+            int quantity = line.getValue();
+            if (productRepository.reserveStock(productId, quantity) == 0) {
+                throw new RuntimeException("Insufficient stock for product: " + productName(order, productId));
+            }
+            reservations.add(new StockReservation(order.getId(), productId, quantity, expiresAt));
+        }
+        stockReservationRepository.saveAll(reservations);
+        eventPublisher.publishEvent(new StockChangedEvent(new HashSet<>(quantities.keySet())));
+    }
+
+    /**
+     * Called when the order is confirmed: the stock stays held until shipping.
+     * Fails if the expiry sweep got to the order first.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void pin(Order order) {
+        int held = stockReservationRepository.findByOrderIdOrderByProductIdAsc(order.getId()).size();
+        if (stockReservationRepository.pinByOrderId(order.getId()) < held) {
+            throw new RuntimeException("Stock reservation for this order has expired");
+        }
+    }
+
+    /**
+     * Called when the order ships. Stock was already taken at checkout, so this
+     * only marks the reservations used. Orders placed before reservations
+     * existed fall back to taking the stock now, with the same conditional UPDATE.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void convert(Order order) {
+        Map<Long, StockReservation> reserved = new HashMap<>();
+        for (StockReservation reservation : stockReservationRepository.findByOrderIdOrderByProductIdAsc(order.getId())) {
+            reserved.put(reservation.getProductId(), reservation);
+        }
+
+        Set<Long> taken = new HashSet<>();
+        for (Map.Entry<Long, Integer> line : quantitiesByProduct(order).entrySet()) {
+            Long productId = line.getKey();
+            StockReservation reservation = reserved.get(productId);
+            if (reservation != null) {
+                if (stockReservationRepository.convertIfReserved(reservation.getId()) == 0) {
+                    throw new RuntimeException("Stock reservation for product " + productName(order, productId) + " is no longer held");
+                }
+            } else if (productRepository.reserveStock(productId, line.getValue()) == 0) {
+                throw new RuntimeException("Insufficient stock for product: " + productName(order, productId));
+            } else {
+                taken.add(productId);
+            }
+        }
+        if (!taken.isEmpty()) {
+            eventPublisher.publishEvent(new StockChangedEvent(taken));
+        }
+    }
+
+    // --- Expiry sweep ---
+
+    @Scheduled(fixedDelayString = "${stock.reservation.sweep-interval-ms:300000}",
+               initialDelayString = "${stock.reservation.sweep-interval-ms:300000}")
+    public void releaseExpiredReservations() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> orderIds;
+        int released = 0;
+        do {
+            orderIds = stockReservationRepository.findOrderIdsWithExpiredReservations(now, PageRequest.of(0, SWEEP_BATCH_SIZE));
+            for (Long orderId : orderIds) {
+                try {
+                    // One transaction per order so a failure only holds back that order
+                    Integer count = transaction.execute(status -> releaseOrder(orderId, now));
+                    released += count != null ? count : 0;
+                } catch (RuntimeException e) {
+                    // The order would come back in the next batch; leave it for the next run
+                    log.warn("Could not release expired stock reservations for order {}: {}", orderId, e.getMessage());
+                    return;
+                }
+            }
+        } while (orderIds.size() == SWEEP_BATCH_SIZE);
+
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+    }
+
+    /**
+     * Returns one order's expired reservations to stock and cancels the order
+     * if it is still pending, refunding the eco points it redeemed and telling
+     * the customer. Runs in the caller's transaction; any failure undoes all of it.
+     */
+    private int releaseOrder(Long orderId, LocalDateTime now) {
+        int released = 0;
+        Set<Long> restocked = new HashSet<>();
+        // Ascending product id, the same lock order checkout uses
+        for (StockReservation reservation : stockReservationRepository.findByOrderIdOrderByProductIdAsc(orderId)) {
+            if (stockReservationRepository.expireIfDue(reservation.getId(), now) == 1) {
+                productRepository.releaseStock(reservation.getProductId(), reservation.getQuantity());
+                restocked.add(reservation.getProductId());
+                released++;
+            }
+        }
+        if (!restocked.isEmpty()) {
+            eventPublisher.publishEvent(new StockChangedEvent(restocked));
+        }
+        if (released > 0 && orderRepository.updateStatusIfCurrent(orderId, OrderStatus.PENDING, OrderStatus.CANCELLED) == 1) {
+            // The points redeemed at checkout go back in the same transaction as the stock
+            Long userId = orderRepository.findUserIdById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+            int refunded = ecoPointsLedgerService.refundOrderRedemption(userId, orderId);
+            Map<String, Object> values = new HashMap<>();
+            values.put("orderId", orderId);
+            if (refunded > 0) {
+                values.put("points", refunded);
+            }
+            // Queued after commit, so a rolled-back release does not notify
+            notificationFanoutService.notifyUser(userId, "order-expired", values);
+        }
+        return released;
+    }
+
+    // --- Helpers ---
+
+    // Sorted by product id; an order may list the same product on several lines.
+    // A non-positive quantity would turn the conditional UPDATE into a stock increase
+    private SortedMap<Long, Integer> quantitiesByProduct(Order order) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid quantity for product: " + item.getProduct().getName());
+            }
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private String productName(Order order, Long productId) {
+        return order.getOrderItems().stream()
+            .map(OrderItem::getProduct)
+            .filter(product -> product.getId().equals(productId))
+            .map(Product::getName)
+            .findFirst()
+            .orElse(String.valueOf(productId));
+    }
+}
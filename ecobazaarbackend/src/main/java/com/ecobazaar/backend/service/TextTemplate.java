@@ -0,0 +1,117 @@
+package com.ecobazaar.backend.service;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal text template, parsed once and rendered many times. Used for
+ * email bodies and notification texts.
+ * {{name}} inserts a value as-is (callers escape user data with escape());
+ * {{#name}}...{{/name}} is kept only when name has a non-empty value.
+ */
+public final class TextTemplate {
+
+    private interface Part {
+        void render(Map<String, String> values, StringBuilder out);
+    }
+
+    private final List<Part> parts;
+
+    private TextTemplate(List<Part> parts) {
+        this.parts = parts;
+    }
+
+    public static TextTemplate load(String classpathLocation) {
+        try (InputStream in = new ClassPathResource(classpathLocation).getInputStream()) {
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load template " + classpathLocation, e);
+        }
+    }
+
+    public static TextTemplate compile(String source) {
+        return new TextTemplate(parse(source));
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(1024);
+        parts.forEach(part -> part.render(values, out));
+        return out.toString();
+    }
+
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static List<Part> parse(String source) {
+        List<Part> parts = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                parts.add(literal(source.substring(position)));
+                break;
+            }
+            if (open > position) {
+                parts.add(literal(source.substring(position, open)));
+            }
+            int close = source.indexOf("}}", open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed tag at offset " + open);
+            }
+            String tag = source.substring(open + 2, close).trim();
+            if (tag.startsWith("#")) {
+                String name = tag.substring(1);
+                String end = "{{/" + name + "}}";
+                int sectionEnd = source.indexOf(end, close + 2);
+                if (sectionEnd < 0) {
+                    throw new IllegalArgumentException("Section " + name + " is not closed");
+                }
+                List<Part> body = parse(source.substring(close + 2, sectionEnd));
+                parts.add((values, out) -> {
+                    String value = values.get(name);
+                    if (value != null && !value.isEmpty()) {
+                        body.forEach(part -> part.render(values, out));
+                    }
+                });
+                position = sectionEnd + end.length();
+            } else {
+                parts.add((values, out) -> {
+                    String value = values.get(tag);
+                    if (value != null) {
+                        out.append(value);
+                    }
+                });
+                position = close + 2;
+            }
+        }
+        return parts;
+    }
+
+    private static Part literal(String text) {
+        return (values, out) -> out.append(text);
+    }
+}
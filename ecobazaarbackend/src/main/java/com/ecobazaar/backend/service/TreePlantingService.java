@@ -1,22 +1,26 @@
 package com.ecobazaar.backend.service;
 
+import com.ecobazaar.backend.dto.CursorPageDto;
+import com.ecobazaar.backend.dto.KeysetCursor;
+import com.ecobazaar.backend.dto.TreePlantingReviewItemDto;
 import com.ecobazaar.backend.entity.*;
+import com.ecobazaar.backend.event.TreePlantingSubmittedEvent;
 import com.ecobazaar.backend.repository.TreePlantingSubmissionRepository;
 import com.ecobazaar.backend.repository.OrderRepository;
-import com.ecobazaar.backend.repository.CustomerProfileRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @Transactional
@@ -29,14 +33,22 @@ public class TreePlantingService {
     private OrderRepository orderRepository;
     
     @Autowired
-    private CustomerProfileRepository customerProfileRepository;
+    private EcoPointsLedgerService ecoPointsLedgerService;
     
     @Autowired
-    private NotificationService notificationService;
+    private NotificationFanoutService notificationFanoutService;
+    
+    @Autowired
+    private ImageUploadService imageUploadService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
-    private static final String UPLOAD_DIR = "uploads/tree-planting/";
     private static final int BASE_ECO_POINTS = 50;
     private static final int ECO_FRIENDLY_BONUS = 20;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_REVIEW = 500;
     
     public TreePlantingSubmission submitTreePlanting(Long userId, Long orderId, MultipartFile image, String description) {
         try {
@@ -82,7 +94,7 @@ public class TreePlantingService {
             }
             
             // Save image
-            String imageUrl = saveTreePlantingImage(image);
+            String imageUrl = imageUploadService.store(image);
             System.out.println("Image saved to: " + imageUrl);
             
             // Check if order contains eco-friendly products
@@ -100,6 +112,7 @@ public class TreePlantingService {
             submission.setSubmittedAt(LocalDateTime.now()); // Add this missing field
             
             TreePlantingSubmission savedSubmission = treePlantingSubmissionRepository.save(submission);
+            eventPublisher.publishEvent(new TreePlantingSubmittedEvent(savedSubmission.getId(), imageUrl));
             System.out.println("Submission saved with ID: " + savedSubmission.getId());
             System.out.println("================================");
             
@@ -121,11 +134,13 @@ public class TreePlantingService {
     }
     
     public List<TreePlantingSubmission> getPendingSubmissions() {
-        return treePlantingSubmissionRepository.findByStatusOrderBySubmittedAtDesc(TreePlantingSubmission.SubmissionStatus.PENDING);
+        // Highest duplicate risk first; see ImageFingerprintService
+        return treePlantingSubmissionRepository.findByStatusOrderByRiskScoreDescSubmittedAtDesc(TreePlantingSubmission.SubmissionStatus.PENDING);
     }
     
     public TreePlantingSubmission reviewSubmission(Long submissionId, boolean approved, String adminNotes, Long adminId) {
-        TreePlantingSubmission submission = treePlantingSubmissionRepository.findById(submissionId)
+        // Locked like bulkReview's rows, so two reviews of one submission cannot both credit points
+        TreePlantingSubmission submission = treePlantingSubmissionRepository.findByIdForUpdate(submissionId)
                 .orElseThrow(() -> new RuntimeException("Submission not found"));
         
         // Allow re-approval of rejected submissions, but not re-review of approved ones
@@ -156,84 +171,123 @@ public class TreePlantingService {
             System.out.println("Eco points to award: " + ecoPoints);
             System.out.println("Is eco-friendly product: " + submission.getIsEcoFriendlyProduct());
             
-            awardEcoPoints(submission.getUser().getId(), ecoPoints);
+            ecoPointsLedgerService.credit(submission.getUser().getId(), ecoPoints,
+                EcoPointsLedgerEntry.Reason.TREE_PLANTING, submission.getId());
             
             // Send approval notification
-            String title = "Tree Planting Approved!";
-            String message = String.format("Your tree planting submission has been approved! You've earned %d eco points. Keep up the great work!", ecoPoints);
-            notificationService.createNotification(submission.getUser(), title, message, "TREE_PLANTING_APPROVED");
+            notificationFanoutService.notifyUser(submission.getUser().getId(), "tree-planting-approved",
+                Map.of("points", ecoPoints));
             
         } else {
             submission.setStatus(TreePlantingSubmission.SubmissionStatus.REJECTED);
             
             // Send rejection notification
-            String title = "Tree Planting Submission Rejected";
-            String message = "Your tree planting submission has been rejected. Reason: " + adminNotes + ". Please ensure you upload a clear photo of yourself planting a tree.";
-            notificationService.createNotification(submission.getUser(), title, message, "TREE_PLANTING_REJECTED");
+            notificationFanoutService.notifyUser(submission.getUser().getId(), "tree-planting-rejected",
+                Map.of("reason", String.valueOf(adminNotes)));
         }
         
         return treePlantingSubmissionRepository.save(submission);
     }
     
-    private String saveTreePlantingImage(MultipartFile image) {
-        try {
-            System.out.println("=== SAVING TREE PLANTING IMAGE ===");
-            System.out.println("Original filename: " + image.getOriginalFilename());
-            System.out.println("Image size: " + image.getSize());
-            System.out.println("Content type: " + image.getContentType());
-            
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            System.out.println("Upload path: " + uploadPath.toAbsolutePath());
-            
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-                System.out.println("Created directory: " + uploadPath);
+    /**
+     * Keyset-paged review queue, newest first or, with riskFirst, suspected
+     * duplicates first. Every filter is optional; the date range is
+     * [from, to). Pass the previous page's nextCursor, with the same
+     * ordering, to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<TreePlantingReviewItemDto> getReviewQueuePage(TreePlantingSubmission.SubmissionStatus status,
+                                                                      Boolean ecoFriendly,
+                                                                      LocalDateTime from, LocalDateTime to,
+                                                                      boolean riskFirst,
+                                                                      String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<TreePlantingReviewItemDto> rows;
+        if (riskFirst) {
+            KeysetCursor after = KeysetCursor.decodeRanked(cursor);
+            rows = treePlantingSubmissionRepository.findReviewPageByRisk(status, ecoFriendly, from, to,
+                    after != null ? after.getRank() : null,
+                    after != null ? after.getTimestamp() : null,
+                    after != null ? after.getId() : null,
+                    PageRequest.of(0, pageSize + 1));
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            if (after != null && after.getRank() != null) {
+                throw new IllegalArgumentException("Cursor belongs to a different ordering");
             }
-            
-            // Generate unique filename
-            String originalFilename = image.getOriginalFilename();
-            String extension = originalFilename != null ? originalFilename.substring(originalFilename.lastIndexOf(".")) : ".jpg";
-            String filename = UUID.randomUUID().toString() + extension;
-            
-            System.out.println("Generated filename: " + filename);
-            
-            // Save file
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(image.getInputStream(), filePath);
-            
-            String imageUrl = "/uploads/tree-planting/" + filename;
-            System.out.println("Image URL: " + imageUrl);
-            System.out.println("File exists: " + Files.exists(filePath));
-            System.out.println("================================");
-            
-            return imageUrl;
-            
-        } catch (IOException e) {
-            System.out.println("ERROR saving image: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to save tree planting image: " + e.getMessage());
+            rows = treePlantingSubmissionRepository.findReviewPage(status, ecoFriendly, from, to,
+                    after != null ? after.getTimestamp() : null,
+                    after != null ? after.getId() : null,
+                    PageRequest.of(0, pageSize + 1));
         }
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<TreePlantingReviewItemDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            TreePlantingReviewItemDto last = items.get(items.size() - 1);
+            // Unscored rows sort as risk 0, the same as in the query
+            Integer rank = riskFirst ? (last.getRiskScore() != null ? last.getRiskScore() : 0) : null;
+            nextCursor = new KeysetCursor(rank, last.getSubmittedAt(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(items, nextCursor, hasMore);
     }
     
-    private void awardEcoPoints(Long userId, int points) {
-        CustomerProfile profile = customerProfileRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Customer profile not found"));
+    /**
+     * Approves or rejects a batch of submissions in one transaction. The
+     * reviewable rows are locked, updated with one statement, and on approval
+     * credited through the ledger with set-based statements; notifications go
+     * through the fanout queue, which writes them with batch inserts after
+     * commit. Submissions that are missing or already approved are skipped
+     * and reported, the same rule as reviewSubmission.
+     */
+    public Map<String, Object> bulkReview(List<Long> submissionIds, boolean approved, String adminNotes, Long adminId) {
+        if (submissionIds == null || submissionIds.isEmpty()) {
+            throw new RuntimeException("No submissions selected");
+        }
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(submissionIds);
+        if (requested.size() > MAX_BULK_REVIEW) {
+            throw new RuntimeException("At most " + MAX_BULK_REVIEW + " submissions can be reviewed at once");
+        }
         
-        int currentPoints = profile.getEcoPoints() != null ? profile.getEcoPoints() : 0;
-        int newPoints = currentPoints + points;
-        profile.setEcoPoints(newPoints);
+        List<Long> reviewable = new ArrayList<>();
+        List<Long> submitterIds = new ArrayList<>();
+        for (Object[] row : treePlantingSubmissionRepository.lockReviewable(requested)) {
+            reviewable.add(((Number) row[0]).longValue());
+            submitterIds.add(((Number) row[1]).longValue());
+        }
+        List<Long> skipped = new ArrayList<>(requested);
+        skipped.removeAll(reviewable);
         
-        CustomerProfile savedProfile = customerProfileRepository.save(profile);
+        int pointsAwarded = 0;
+        if (!reviewable.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            if (approved) {
+                treePlantingSubmissionRepository.approveAll(reviewable, BASE_ECO_POINTS,
+                        BASE_ECO_POINTS + ECO_FRIENDLY_BONUS, adminNotes, adminId, now);
+                ecoPointsLedgerService.creditTreePlantingApprovals(reviewable);
+                for (Object[] award : treePlantingSubmissionRepository.findAwards(reviewable)) {
+                    int points = ((Number) award[1]).intValue();
+                    pointsAwarded += points;
+                    notificationFanoutService.notifyUser(((Number) award[0]).longValue(), "tree-planting-approved",
+                        Map.of("points", points));
+                }
+            } else {
+                treePlantingSubmissionRepository.rejectAll(reviewable, adminNotes, adminId, now);
+                for (Long userId : submitterIds) {
+                    notificationFanoutService.notifyUser(userId, "tree-planting-rejected",
+                        Map.of("reason", String.valueOf(adminNotes)));
+                }
+            }
+        }
         
-        // Debug logging
-        System.out.println("=== ECO POINTS AWARDED ===");
-        System.out.println("User ID: " + userId);
-        System.out.println("Points to award: " + points);
-        System.out.println("Previous points: " + currentPoints);
-        System.out.println("New total points: " + newPoints);
-        System.out.println("Saved profile eco_points: " + savedProfile.getEcoPoints());
-        System.out.println("=========================");
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put(approved ? "approved" : "rejected", reviewable.size());
+        result.put("pointsAwarded", pointsAwarded);
+        result.put("skippedIds", skipped);
+        return result;
     }
     
     public Long getPendingSubmissionsCount() {
@@ -0,0 +1,253 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.ImageVariantsDto;
+import com.ecobazaar.backend.entity.UploadBlob;
+import com.ecobazaar.backend.repository.UploadBlobRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed storage for uploads. A file lives at
+ * uploads/blobs/{h[0..2]}/{h[2..4]}/{hash}.{ext}, where hash is the SHA-256 of
+ * its bytes, so two-level sharding keeps every directory small and an
+ * identical upload maps onto the file that is already there. The
+ * upload_blobs row counts the references to each blob: storing takes one,
+ * and callers release it when the referencing row is deleted or points
+ * elsewhere. Unreferenced blobs are deleted by a periodic sweep once they
+ * have stayed unreferenced for the grace period.
+ */
+@Service
+public class UploadBlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadBlobStore.class);
+
+    private static final String BLOBS_DIR = "blobs";
+    private static final String BLOBS_URL_PREFIX = "/uploads/" + BLOBS_DIR + "/";
+    private static final Pattern BLOB_URL =
+            Pattern.compile("^/uploads/" + BLOBS_DIR + "/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})\\.[a-z0-9]+$");
+    private static final int LOCK_STRIPES = 64;
+
+    /** Where a stored upload ended up; created is false when the content was already on disk. */
+    public static class StoredBlob {
+        private final String url;
+        private final Path path;
+        private final boolean created;
+
+        StoredBlob(String url, Path path, boolean created) {
+            this.url = url;
+            this.path = path;
+            this.created = created;
+        }
+
+        public String getUrl() { return url; }
+        public Path getPath() { return path; }
+        public boolean isCreated() { return created; }
+    }
+
+    @Autowired
+    private UploadBlobRepository uploadBlobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${uploads.root:uploads}")
+    private String uploadsRoot;
+
+    @Value("${uploads.blobs.gc-grace-ms:3600000}")
+    private long gcGraceMs;
+
+    @Value("${uploads.blobs.gc-batch-size:500}")
+    private int gcBatchSize;
+
+    private Path blobsRoot;
+
+    // Serializes placing and collecting the same blob within this instance
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @PostConstruct
+    void init() {
+        blobsRoot = Paths.get(uploadsRoot).toAbsolutePath().normalize().resolve(BLOBS_DIR);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Takes a reference to the blob with the given hash, moving the file into
+     * place if the content is new and discarding it otherwise. Joins the
+     * caller's transaction: if it rolls back, the reference is undone and a
+     * newly placed file is removed again.
+     */
+    @Transactional
+    public StoredBlob put(Path file, String hash, String extension, long sizeBytes) throws IOException {
+        Path target = blobPath(hash, extension);
+        boolean created = false;
+        synchronized (lockFor(hash)) {
+            uploadBlobRepository.acquire(hash, extension, sizeBytes);
+            if (Files.exists(target)) {
+                Files.deleteIfExists(file);
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                created = true;
+            }
+        }
+        if (created && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        deleteIfOrphaned(hash, extension);
+                    }
+                }
+            });
+        }
+        return new StoredBlob(urlFor(hash, extension), target, created);
+    }
+
+    /**
+     * Takes another reference to a stored blob named by its URL, for image
+     * URLs a client sends back instead of uploading. Returns false for URLs
+     * that are not blobs, which need no reference, and throws for a blob that
+     * is not stored.
+     */
+    @Transactional
+    public boolean retain(String url) {
+        String hash = hashOf(url);
+        if (hash == null) {
+            return false;
+        }
+        if (uploadBlobRepository.retain(hash, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Image not found: " + url);
+        }
+        return true;
+    }
+
+    /** Drops one reference held by an image URL; URLs that are not blobs are ignored. */
+    @Transactional
+    public void release(String url) {
+        String hash = hashOf(url);
+        if (hash != null && uploadBlobRepository.release(hash, LocalDateTime.now()) == 0) {
+            log.warn("Released blob {} that had no references", hash);
+        }
+    }
+
+    /**
+     * Releases the old image when a row's image URL changes. newReferenceTaken
+     * says the new URL arrived with a reference of its own (from store or
+     * retain); the row keeps only one, so the previous reference is released
+     * even when the URL is the same, e.g. the current photo uploaded again.
+     */
+    @Transactional
+    public void replace(String previousUrl, String newUrl, boolean newReferenceTaken) {
+        if (previousUrl != null && (newReferenceTaken || !previousUrl.equals(newUrl))) {
+            release(previousUrl);
+        }
+    }
+
+    public static String hashOf(String url) {
+        if (url == null || !url.startsWith(BLOBS_URL_PREFIX)) {
+            return null;
+        }
+        Matcher matcher = BLOB_URL.matcher(url);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${uploads.blobs.gc-interval-ms:3600000}",
+               initialDelayString = "${uploads.blobs.gc-interval-ms:3600000}")
+    public void collectGarbage() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(gcGraceMs * 1_000_000);
+        int removed = 0;
+        long bytes = 0;
+        List<UploadBlob> candidates;
+        do {
+            candidates = uploadBlobRepository.findCollectable(cutoff, PageRequest.of(0, gcBatchSize));
+            for (UploadBlob blob : candidates) {
+                synchronized (lockFor(blob.getHash())) {
+                    Integer deleted = transaction.execute(status ->
+                            uploadBlobRepository.deleteIfUnreferenced(blob.getHash(), cutoff));
+                    if (deleted != null && deleted > 0) {
+                        deleteFiles(blob.getHash(), blob.getExtension());
+                        removed++;
+                        bytes += blob.getSizeBytes();
+                    }
+                }
+            }
+        } while (candidates.size() == gcBatchSize);
+        if (removed > 0) {
+            log.info("Removed {} unreferenced upload blob(s), {} bytes", removed, bytes);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Object[] totals = uploadBlobRepository.summarize().get(0);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("blobs", ((Number) totals[0]).longValue());
+        stats.put("totalBytes", ((Number) totals[1]).longValue());
+        stats.put("references", ((Number) totals[2]).longValue());
+        stats.put("unreferenced", uploadBlobRepository.countByRefCount(0));
+        return stats;
+    }
+
+    // --- Helpers ---
+
+    private void deleteIfOrphaned(String hash, String extension) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        synchronized (lockFor(hash)) {
+            Boolean exists = transaction.execute(status -> uploadBlobRepository.existsById(hash));
+            if (Boolean.FALSE.equals(exists)) {
+                deleteFiles(hash, extension);
+            }
+        }
+    }
+
+    private void deleteFiles(String hash, String extension) {
+        Path original = blobPath(hash, extension);
+        try {
+            for (ImageVariantsDto.Variant variant : ImageVariantsDto.Variant.values()) {
+                Files.deleteIfExists(original.resolveSibling(variant.getDirectory()).resolve(original.getFileName()));
+            }
+            Files.deleteIfExists(original);
+        } catch (IOException e) {
+            log.warn("Could not delete blob {}: {}", hash, e.getMessage());
+        }
+    }
+
+    private Path blobPath(String hash, String extension) {
+        return blobsRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + "." + extension);
+    }
+
+    private static String urlFor(String hash, String extension) {
+        return BLOBS_URL_PREFIX + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + "." + extension;
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Integer.parseInt(hash.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+}
@@ -0,0 +1,330 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.cache.TtlCache;
+import com.ecobazaar.backend.dto.ImageVariantsDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves files under /uploads with HTTP caching and range support. Blob
+ * files are named by their SHA-256, so their ETag is the hash itself and
+ * they are sent as immutable for a year; anything else (files from before
+ * content addressing, or an original standing in for a variant that has not
+ * been generated yet) gets an ETag from a cached content hash and a short
+ * max-age so clients revalidate. Bodies go out through the container's
+ * sendfile support when it has it, so the connector writes them without
+ * copying them through the JVM; otherwise they are copied in 64 KB chunks.
+ */
+@Service
+public class UploadServingService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadServingService.class);
+
+    private static final String URL_PREFIX = "/uploads/";
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final Pattern BLOB_PATH =
+            Pattern.compile("^blobs/[0-9a-f]{2}/[0-9a-f]{2}/(?:([a-z]+)/)?([0-9a-f]{64})\\.[a-z0-9]+$");
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    // Tomcat request attributes for handing the body to the connector's sendfile
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Value("${uploads.root:uploads}")
+    private String uploadsRoot;
+
+    @Value("${uploads.serving.revalidate-max-age-seconds:300}")
+    private long revalidateMaxAgeSeconds;
+
+    @Value("${uploads.serving.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    @Value("${uploads.serving.etag-cache-entries:10000}")
+    private int etagCacheEntries;
+
+    private Path root;
+
+    // Content hashes of files that are not content-addressed, valid while size and mtime match
+    private TtlCache<Path, FileTag> fileTags;
+
+    private static class FileTag {
+        private final long size;
+        private final long modified;
+        private final String etag;
+
+        FileTag(long size, long modified, String etag) {
+            this.size = size;
+            this.modified = modified;
+            this.etag = etag;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        root = Paths.get(uploadsRoot).toAbsolutePath().normalize();
+        fileTags = new TtlCache<>(etagCacheEntries, Duration.ofDays(1));
+    }
+
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String relative = relativePath(request);
+        Path requested = resolve(relative);
+        if (requested == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // A variant that is not generated yet is answered with its original
+        Path file = requested;
+        boolean fallback = false;
+        if (!Files.isRegularFile(file)) {
+            String originalPath = ImageVariantsDto.originalPath(relative);
+            file = originalPath != null ? resolve(originalPath) : null;
+            if (file == null || !Files.isRegularFile(file)) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            relative = originalPath;
+            fallback = true;
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        Matcher blob = BLOB_PATH.matcher(relative);
+        boolean contentAddressed = blob.matches();
+        String etag = contentAddressed
+                ? "\"" + blob.group(2) + (blob.group(1) != null ? "-" + blob.group(1) : "") + "\""
+                : contentEtag(file, length, lastModified);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, contentAddressed && !fallback
+                ? IMMUTABLE_CACHE_CONTROL
+                : "public, max-age=" + revalidateMaxAgeSeconds);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && rangeApplies(request, etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        // transferTo into a servlet stream cannot be zero-copy and goes through two 8 KB
+        // buffers, so one larger buffer is copied straight to the response instead
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, COPY_BUFFER_BYTES));
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                out.write(buffer.array(), 0, read);
+                position += read;
+                remaining -= read;
+            }
+        }
+    }
+
+    // --- Path resolution ---
+
+    private static String relativePath(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(URL_PREFIX)) {
+            return "";
+        }
+        return UriUtils.decode(path.substring(URL_PREFIX.length()), StandardCharsets.UTF_8);
+    }
+
+    // Null for anything outside the uploads root or inside a hidden directory (e.g. .tmp)
+    private Path resolve(String relative) {
+        if (relative.isEmpty() || relative.indexOf('\0') >= 0) {
+            return null;
+        }
+        for (String segment : relative.split("/")) {
+            if (segment.startsWith(".")) {
+                return null;
+            }
+        }
+        Path path = root.resolve(relative).normalize();
+        return path.startsWith(root) ? path : null;
+    }
+
+    // --- Validators ---
+
+    private String contentEtag(Path file, long size, long modified) throws IOException {
+        FileTag tag = fileTags.get(file);
+        if (tag != null && tag.size == size && tag.modified == modified) {
+            return tag.etag;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            String etag = "\"" + HexFormat.of().formatHex(digest.digest()) + "\"";
+            fileTags.put(file, new FileTag(size, modified, etag));
+            return etag;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // If-None-Match takes precedence; If-Modified-Since only applies without it
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesAny(ifNoneMatch, etag, true);
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    // A Range is honoured only if If-Range (when sent) still identifies this representation
+    private static boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return matchesAny(ifRange, etag, false);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && lastModified / 1000 == date / 1000;
+    }
+
+    private static boolean matchesAny(String header, String etag, boolean weakComparison) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                if (!weakComparison) {
+                    continue;
+                }
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns {start, end} (inclusive) for a satisfiable single range, an
+     * empty array when the header should be ignored (malformed or several
+     * ranges, which are answered with the whole file) and null when the range
+     * cannot be satisfied.
+     */
+    static long[] parseRange(String header, long length) {
+        Matcher matcher = SINGLE_RANGE.matcher(header.trim());
+        if (!matcher.matches()) {
+            return new long[0];
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        try {
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return new long[0];
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix == 0 || length == 0) {
+                    return null;
+                }
+                return new long[] { Math.max(0, length - suffix), length - 1 };
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length) {
+                return null;
+            }
+            if (end < start) {
+                return new long[0];
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring unparseable range {}", header);
+            return new long[0];
+        }
+    }
+}
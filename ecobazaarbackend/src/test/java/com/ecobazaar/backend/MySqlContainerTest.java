@@ -0,0 +1,20 @@
+package com.ecobazaar.backend;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * Base for tests that need real MySQL behaviour (query plans, row locks).
+ * One container is started per test JVM and shared by every subclass;
+ * Spring points the datasource at it. Docker is required: without it the
+ * container fails to start and so do these tests, rather than skipping.
+ */
+public abstract class MySqlContainerTest {
+
+    @ServiceConnection
+    protected static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    static {
+        MYSQL.start();
+    }
+}
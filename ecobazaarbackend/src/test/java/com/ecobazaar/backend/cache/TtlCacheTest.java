@@ -0,0 +1,101 @@
+package com.ecobazaar.backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TtlCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        TtlCache<String, Integer> cache = new TtlCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        // reading "a" makes "b" the eldest
+        assertThat(cache.get("a")).isEqualTo(1);
+        cache.put("c", 3);
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void entriesExpireAfterTtl() throws InterruptedException {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, Duration.ofMillis(20));
+        cache.put("a", 1);
+        assertThat(cache.get("a")).isEqualTo(1);
+
+        Thread.sleep(60);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void perEntryTtlIsCappedByCacheTtl() throws InterruptedException {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, Duration.ofMillis(20));
+        cache.put("long", 1, Duration.ofHours(1));
+        cache.put("zero", 2, Duration.ZERO);
+
+        assertThat(cache.get("zero")).isNull();
+        Thread.sleep(60);
+        assertThat(cache.get("long")).isNull();
+    }
+
+    @Test
+    void shorterPerEntryTtlExpiresFirst() throws InterruptedException {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, Duration.ofMinutes(1));
+        cache.put("short", 1, Duration.ofMillis(20));
+        cache.put("default", 2);
+
+        Thread.sleep(60);
+
+        assertThat(cache.get("short")).isNull();
+        assertThat(cache.get("default")).isEqualTo(2);
+    }
+
+    @Test
+    void readThroughLoadsOnceAndDoesNotCacheNull() {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("a", k -> loads.incrementAndGet())).isEqualTo(1);
+        assertThat(cache.get("a", k -> loads.incrementAndGet())).isEqualTo(1);
+        assertThat(loads.get()).isEqualTo(1);
+
+        assertThat(cache.get("missing", k -> null)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void removeHandsOutAnEntryOnlyOnce() {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", 1);
+
+        assertThat(cache.remove("a")).isEqualTo(1);
+        assertThat(cache.remove("a")).isNull();
+    }
+
+    @Test
+    void invalidateIfDropsMatchingEntries() {
+        TtlCache<String, Integer> cache = new TtlCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        cache.invalidateIf((key, value) -> value % 2 == 1);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo(2);
+        assertThat(cache.get("c")).isNull();
+    }
+}
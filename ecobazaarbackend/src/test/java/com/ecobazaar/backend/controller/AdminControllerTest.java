@@ -0,0 +1,47 @@
+package com.ecobazaar.backend.controller;
+
+import com.ecobazaar.backend.service.NotificationFanoutService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+
+    @Mock
+    private NotificationFanoutService notificationFanoutService;
+
+    @InjectMocks
+    private AdminController adminController;
+
+    @Test
+    void broadcastWithoutTitleOrMessageIsRejected() {
+        Map<String, String> missingTitle = new HashMap<>(Map.of("audience", "ALL_USERS", "message", "Hello"));
+        Map<String, String> blankMessage = new HashMap<>(Map.of("audience", "ALL_USERS", "title", "News", "message", "  "));
+
+        assertThat(adminController.broadcastNotification(missingTitle).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(adminController.broadcastNotification(blankMessage).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(notificationFanoutService);
+    }
+
+    @Test
+    void broadcastIsQueuedWithTrimmedText() {
+        ResponseEntity<String> response = adminController.broadcastNotification(
+                Map.of("audience", "CUSTOMERS", "title", " Sale ", "message", "Everything 10% off"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        verify(notificationFanoutService).broadcast(NotificationFanoutService.Audience.CUSTOMERS, null, "announcement",
+                Map.of("title", "Sale", "message", "Everything 10% off"));
+    }
+}
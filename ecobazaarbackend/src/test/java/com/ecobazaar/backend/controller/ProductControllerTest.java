@@ -0,0 +1,51 @@
+package com.ecobazaar.backend.controller;
+
+import com.ecobazaar.backend.dto.CursorPageDto;
+import com.ecobazaar.backend.dto.ProductSummaryDto;
+import com.ecobazaar.backend.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductControllerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @InjectMocks
+    private ProductController productController;
+
+    private final List<ProductSummaryDto> firstPage = List.of(new ProductSummaryDto());
+
+    @Test
+    void categoryListingReturnsFirstKeysetPage() {
+        when(productService.getActiveProductPage(3L, null, null, null, null, null, null, 10))
+                .thenReturn(new CursorPageDto<>(firstPage, "next", true));
+
+        assertThat(productController.getProductsByCategory(3L, 10).getBody()).isSameAs(firstPage);
+    }
+
+    @Test
+    void ecoFriendlyListingReturnsFirstKeysetPage() {
+        when(productService.getActiveProductPage(null, null, null, null, true, null, null, null))
+                .thenReturn(new CursorPageDto<>(firstPage, null, false));
+
+        assertThat(productController.getEcoFriendlyProducts(null).getBody()).isSameAs(firstPage);
+    }
+
+    @Test
+    void sellerListingReturnsFirstKeysetPage() {
+        when(productService.getActiveProductPage(null, 5L, null, null, null, null, null, null))
+                .thenReturn(new CursorPageDto<>(firstPage, null, false));
+
+        assertThat(productController.getProductsBySeller(5L, null).getBody()).isSameAs(firstPage);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecobazaar.backend.controller;
+
+import com.ecobazaar.backend.entity.Product;
+import com.ecobazaar.backend.entity.User;
+import com.ecobazaar.backend.security.UserDetailsServiceImpl;
+import com.ecobazaar.backend.service.ImageUploadService;
+import com.ecobazaar.backend.service.ProductService;
+import com.ecobazaar.backend.service.UploadBlobStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A blob URL sent in the imageUrl field must hold its own reference;
+ * otherwise deleting the product releases a reference owned by another
+ * product and the blob can be collected while still in use.
+ */
+@ExtendWith(MockitoExtension.class)
+class SellerControllerTest {
+
+    private static final String BLOB_URL = "/uploads/blobs/ab/ab/" + "ab".repeat(32) + ".jpg";
+    private static final Long SELLER_ID = 5L;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private ImageUploadService imageUploadService;
+
+    @Mock
+    private UploadBlobStore uploadBlobStore;
+
+    @InjectMocks
+    private SellerController sellerController;
+
+    @Test
+    void addProductRetainsBlobUrlFromImageUrlField() {
+        when(userDetailsService.getUserId(any())).thenReturn(SELLER_ID);
+        when(uploadBlobStore.retain(BLOB_URL)).thenReturn(true);
+        when(productService.createProduct(any(), eq(SELLER_ID))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResponseEntity<Product> response = addProduct(BLOB_URL);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody().getImageUrl()).isEqualTo(BLOB_URL);
+        InOrder order = inOrder(uploadBlobStore, productService);
+        order.verify(uploadBlobStore).retain(BLOB_URL);
+        order.verify(productService).createProduct(any(), eq(SELLER_ID));
+        verify(uploadBlobStore, never()).release(any());
+    }
+
+    @Test
+    void addProductReleasesRetainedBlobWhenSaveFails() {
+        when(userDetailsService.getUserId(any())).thenReturn(SELLER_ID);
+        when(uploadBlobStore.retain(BLOB_URL)).thenReturn(true);
+        when(productService.createProduct(any(), eq(SELLER_ID))).thenThrow(new RuntimeException("Seller not found"));
+
+        ResponseEntity<Product> response = addProduct(BLOB_URL);
+
+        assertThat(response.getStatusCode().is4xxClientError()).isTrue();
+        verify(uploadBlobStore).release(BLOB_URL);
+    }
+
+    @Test
+    void updateProductPassesRetainedReferenceToService() {
+        when(userDetailsService.getUserId(any())).thenReturn(SELLER_ID);
+        when(productService.getProductById(9L)).thenReturn(ownedProduct(9L, BLOB_URL));
+        when(uploadBlobStore.retain(BLOB_URL)).thenReturn(true);
+        when(productService.updateProduct(eq(9L), any(), eq(true))).thenAnswer(invocation -> invocation.getArgument(1));
+
+        ResponseEntity<Product> response = sellerController.updateProduct(9L, "Tote", "Jute tote", "199", "",
+                "10", "0.4", "120", "2.5", "true", null, BLOB_URL);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        verify(productService).updateProduct(eq(9L), any(), eq(true));
+    }
+
+    @Test
+    void updateProductWithoutNewImageTakesNoReference() {
+        when(userDetailsService.getUserId(any())).thenReturn(SELLER_ID);
+        when(productService.getProductById(9L)).thenReturn(ownedProduct(9L, BLOB_URL));
+        when(productService.updateProduct(eq(9L), any(), eq(false))).thenAnswer(invocation -> invocation.getArgument(1));
+
+        sellerController.updateProduct(9L, "Tote", "Jute tote", "199", "",
+                "10", "0.4", "120", "2.5", "true", null, null);
+
+        verify(uploadBlobStore, never()).retain(any());
+        verify(productService).updateProduct(eq(9L), any(), eq(false));
+    }
+
+    private ResponseEntity<Product> addProduct(String imageUrl) {
+        return sellerController.addProduct("Tote", "Jute tote", "199", "", "10", "0.4", "120", "2.5", "true",
+                null, imageUrl);
+    }
+
+    private static Product ownedProduct(Long id, String imageUrl) {
+        User seller = new User();
+        seller.setId(SELLER_ID);
+        Product product = new Product();
+        product.setId(id);
+        product.setSeller(seller);
+        product.setImageUrl(imageUrl);
+        return product;
+    }
+}
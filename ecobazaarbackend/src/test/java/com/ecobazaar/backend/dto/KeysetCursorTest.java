@@ -0,0 +1,87 @@
+package com.ecobazaar.backend.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        LocalDateTime timestamp = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000);
+        KeysetCursor cursor = new KeysetCursor(timestamp, 1234567890123L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.getTimestamp()).isEqualTo(timestamp);
+        assertThat(decoded.getId()).isEqualTo(1234567890123L);
+    }
+
+    @Test
+    void roundTripKeepsWholeSecondsAndMidnight() {
+        LocalDateTime midnight = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        assertThat(KeysetCursor.decode(new KeysetCursor(midnight, 1L).encode()).getTimestamp()).isEqualTo(midnight);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor(LocalDateTime.of(2025, 6, 30, 23, 59, 59), 99L).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rankedCursorRoundTrip() {
+        LocalDateTime timestamp = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+        KeysetCursor decoded = KeysetCursor.decodeRanked(new KeysetCursor(87, timestamp, 9L).encode());
+
+        assertThat(decoded.getRank()).isEqualTo(87);
+        assertThat(decoded.getTimestamp()).isEqualTo(timestamp);
+        assertThat(decoded.getId()).isEqualTo(9L);
+    }
+
+    @Test
+    void rankedDecodeRejectsCursorWithoutRank() {
+        String plain = new KeysetCursor(LocalDateTime.of(2025, 5, 1, 12, 0), 9L).encode();
+
+        assertThat(KeysetCursor.decode(plain).getRank()).isNull();
+        assertThatThrownBy(() -> KeysetCursor.decodeRanked(plain)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(KeysetCursor.decodeRanked(null)).isNull();
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("2025-01-01T00:00"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("|5"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("yesterday|5"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("2025-01-01T00:00|five"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("2025-01-01T00:00|"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("2025-01-01T00:00|5|high"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("2025-01-01T00:00|5|1|2"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cursorWithoutTimestampCannotBeEncoded() {
+        assertThatThrownBy(() -> new KeysetCursor(null, 5L).encode()).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new KeysetCursor(LocalDateTime.now(), null).encode())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecobazaar.backend.repository;
+
+import com.ecobazaar.backend.MySqlContainerTest;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL behind the hot repository methods and checks that
+ * MySQL can serve each one from the index declared for it on the entity.
+ * The schema is generated from the entities into a MySQL container, so the
+ * checks run on every build (Docker required, see MySqlContainerTest).
+ *
+ * The index must be among possible_keys; if the optimizer picks a key (it
+ * may skip indexes on near-empty tables), it must be that index. Unique-key
+ * probes use IN lists: a single-row lookup on an empty table is resolved as
+ * a const table and reports no possible_keys at all.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest extends MySqlContainerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', textBlock = """
+        CartRepository.addQuantity (duplicate key probe)   | uk_cart_user_product                 | SELECT id FROM cart WHERE user_id = 1 AND product_id IN (2, 3)
+        CartRepository.findCartItemDetailsByUserId         | uk_cart_user_product                 | SELECT id, quantity FROM cart WHERE user_id = 1 ORDER BY id
+        WishlistRepository.existsByUserIdAndProductId      | uk_wishlists_user_product            | SELECT id FROM wishlists WHERE user_id = 1 AND product_id IN (2, 3)
+        ProductRepository.findActiveProductPage            | idx_products_active_created          | SELECT id FROM products WHERE is_active = true ORDER BY created_at DESC, id DESC LIMIT 25
+        ProductRepository.findActiveProductPage (category) | idx_products_category_active         | SELECT id FROM products WHERE category_id = 1 AND is_active = true ORDER BY created_at DESC, id DESC LIMIT 25
+        ProductRepository.findBySellerId                   | idx_products_seller                  | SELECT id FROM products WHERE seller_id = 1
+        NotificationRepository (unread page)               | idx_notifications_user_read_created  | SELECT id FROM notifications WHERE user_id = 1 AND is_read = false ORDER BY created_at DESC LIMIT 20
+        NotificationRepository.findExpired                 | idx_notifications_read_created       | SELECT id, user_id FROM notifications WHERE is_read = true AND created_at < NOW() ORDER BY created_at, id LIMIT 1000
+        OrderRepository (orders of a user)                 | idx_orders_user_created              | SELECT id FROM orders WHERE user_id = 1 ORDER BY created_at DESC
+        OrderRepository (orders by status)                 | idx_orders_status                    | SELECT id FROM orders WHERE status = 'PENDING'
+        TreePlantingSubmissionRepository.findReviewPage    | idx_tree_submissions_status_submitted | SELECT id FROM tree_planting_submissions WHERE status = 'PENDING' ORDER BY submitted_at DESC, id DESC LIMIT 25
+        """)
+    void hotQueryCanUseItsIndex(String query, String index, String sql) {
+        Map<String, Object> plan = jdbcTemplate.queryForList("EXPLAIN " + sql).get(0);
+        String possibleKeys = (String) plan.get("possible_keys");
+        String key = (String) plan.get("key");
+
+        assertThat(possibleKeys == null ? new String[0] : possibleKeys.split(","))
+                .as("possible_keys for %s", query)
+                .contains(index);
+        if (key != null) {
+            assertThat(Arrays.asList(key.split(","))).as("key for %s", query).contains(index);
+        }
+    }
+}
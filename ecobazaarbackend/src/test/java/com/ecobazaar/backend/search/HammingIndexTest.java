@@ -0,0 +1,103 @@
+package com.ecobazaar.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HammingIndexTest {
+
+    @Test
+    void findsExactAndNearHashesNearestFirst() {
+        HammingIndex index = new HammingIndex();
+        index.add(0L, 1);
+        index.add(0b111L, 2);
+        index.add(1L << 63, 3);
+        index.add(-1L, 4);
+
+        List<HammingIndex.Match> matches = index.search(0L, 3);
+
+        assertThat(matches).extracting(HammingIndex.Match::getId).containsExactly(1L, 3L, 2L);
+        assertThat(matches).extracting(HammingIndex.Match::getDistance).containsExactly(0, 1, 3);
+    }
+
+    @Test
+    void entryMatchingInSeveralChunksIsReportedOnce() {
+        HammingIndex index = new HammingIndex();
+        index.add(0x1234_5678_9abc_def0L, 7);
+
+        assertThat(index.search(0x1234_5678_9abc_def0L, 8)).hasSize(1);
+    }
+
+    @Test
+    void addingAnIdTwiceKeepsOneEntry() {
+        HammingIndex index = new HammingIndex();
+        assertThat(index.add(0L, 7)).isTrue();
+        // e.g. the live path and the startup backfill fingerprinting the same submission
+        assertThat(index.add(0L, 7)).isFalse();
+        assertThat(index.add(1L, 7)).isFalse();
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search(0L, 1)).extracting(HammingIndex.Match::getId).containsExactly(7L);
+    }
+
+    @Test
+    void containsTracksEveryIdAcrossGrowth() {
+        HammingIndex index = new HammingIndex();
+        for (long id = 1; id <= 5000; id++) {
+            index.add(id * 31, id);
+        }
+        for (long id = 1; id <= 5000; id++) {
+            assertThat(index.add(id * 31, id)).isFalse();
+        }
+
+        assertThat(index.size()).isEqualTo(5000);
+        assertThat(index.contains(1)).isTrue();
+        assertThat(index.contains(5000)).isTrue();
+        assertThat(index.contains(5001)).isFalse();
+        assertThat(index.contains(0)).isFalse();
+    }
+
+    @Test
+    void searchMatchesBruteForce() {
+        Random random = new Random(7);
+        List<Long> hashes = new ArrayList<>();
+        HammingIndex index = new HammingIndex();
+        // more than the initial capacity, with clusters of near duplicates
+        for (int i = 0; i < 3000; i++) {
+            long hash = i % 3 == 0 || hashes.isEmpty()
+                    ? random.nextLong()
+                    : flipBits(hashes.get(random.nextInt(hashes.size())), random.nextInt(14), random);
+            hashes.add(hash);
+            index.add(hash, i);
+        }
+        assertThat(index.size()).isEqualTo(3000);
+
+        for (int q = 0; q < 200; q++) {
+            long query = flipBits(hashes.get(random.nextInt(hashes.size())), random.nextInt(6), random);
+            for (int radius : new int[] {0, 3, 4, 7, 10, 12}) {
+                List<Long> expected = new ArrayList<>();
+                for (int id = 0; id < hashes.size(); id++) {
+                    if (Long.bitCount(query ^ hashes.get(id)) <= radius) {
+                        expected.add((long) id);
+                    }
+                }
+                List<HammingIndex.Match> matches = index.search(query, radius);
+                assertThat(matches).extracting(HammingIndex.Match::getId)
+                        .as("query %016x radius %d", query, radius)
+                        .containsExactlyInAnyOrderElementsOf(expected);
+                assertThat(matches).isSortedAccordingTo((a, b) -> Integer.compare(a.getDistance(), b.getDistance()));
+            }
+        }
+    }
+
+    private static long flipBits(long hash, int flips, Random random) {
+        for (int i = 0; i < flips; i++) {
+            hash ^= 1L << random.nextInt(64);
+        }
+        return hash;
+    }
+}
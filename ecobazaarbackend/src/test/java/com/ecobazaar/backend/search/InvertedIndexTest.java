@@ -0,0 +1,70 @@
+package com.ecobazaar.backend.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.put(1L, Map.of("bamboo", 3.0f, "toothbrush", 3.0f));
+        index.put(2L, Map.of("bamboozle", 3.0f, "game", 1.0f));
+        index.put(3L, Map.of("cotton", 3.0f, "bag", 3.0f));
+    }
+
+    @Test
+    void exactMatchOutscoresPrefixMatch() {
+        Map<Long, Float> scores = index.match("bamboo");
+
+        assertThat(scores).containsOnlyKeys(1L, 2L);
+        assertThat(scores.get(1L)).isGreaterThan(scores.get(2L));
+    }
+
+    @Test
+    void prefixMatchesEveryTermStartingWithQuery() {
+        assertThat(index.match("bam")).containsOnlyKeys(1L, 2L);
+        assertThat(index.match("cot")).containsOnlyKeys(3L);
+    }
+
+    @Test
+    void fuzzyMatchOnlyWhenNothingMatchesByPrefix() {
+        // one typo in a five-letter term
+        assertThat(index.match("cottn")).containsOnlyKeys(3L);
+        // "bamboo" matches by prefix, so near misses such as "bambo" elsewhere are not expanded
+        index.put(4L, Map.of("bambo", 1.0f));
+        assertThat(index.match("bamboo")).doesNotContainKey(4L);
+    }
+
+    @Test
+    void shortTermsAreNotFuzzyMatched() {
+        assertThat(index.match("bug")).isEmpty();
+    }
+
+    @Test
+    void fuzzyMatchScoresBelowExactMatch() {
+        index.put(5L, Map.of("cotton", 3.0f));
+        index.put(6L, Map.of("cottons", 3.0f));
+        float typo = index.match("cottn").get(5L);
+        float exact = index.match("cotton").get(5L);
+
+        assertThat(typo).isLessThan(exact);
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsDocumentTerms() {
+        index.put(3L, Map.of("jute", 3.0f));
+        assertThat(index.match("cotton")).isEmpty();
+        assertThat(index.match("jute")).containsOnlyKeys(3L);
+
+        index.remove(3L);
+        assertThat(index.match("jute")).isEmpty();
+        assertThat(index.documentCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecobazaar.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+    @Test
+    void lookupReturnsBestRankedSuggestionsForPrefix() {
+        // ids: 0 bamboo brush, 1 bamboo straw, 2 bag, 3 cotton bag
+        long[] rank = {5, 9, 7, 1};
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+            Map.entry("bamboo brush", 0),
+            Map.entry("bamboo straw", 1),
+            Map.entry("bag", 2),
+            Map.entry("cotton bag", 3),
+            Map.entry("bag", 3)
+        ), rank, 2);
+
+        assertThat(trie.lookup("ba", 10)).containsExactly(1, 2);
+        assertThat(trie.lookup("bag", 10)).containsExactly(2, 3);
+        assertThat(trie.lookup("bamboo ", 10)).containsExactly(1, 0);
+        assertThat(trie.lookup("ba", 1)).containsExactly(1);
+        assertThat(trie.lookup("x", 10)).isEmpty();
+    }
+
+    @Test
+    void suggestionReachableByTwoKeysIsListedOnce() {
+        long[] rank = {3, 2};
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+            Map.entry("jute", 0),
+            Map.entry("jute bag", 0),
+            Map.entry("jumper", 1)
+        ), rank, 5);
+
+        assertThat(trie.lookup("ju", 10)).containsExactly(0, 1);
+    }
+
+    @Test
+    void equalRanksBreakTiesByLowerId() {
+        long[] rank = {4, 4, 4};
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+            Map.entry("soap", 2),
+            Map.entry("soap", 0),
+            Map.entry("soap", 1)
+        ), rank, 5);
+
+        assertThat(trie.lookup("so", 10)).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void topKPerNodeMatchesBruteForce() {
+        Random random = new Random(42);
+        int ids = 200;
+        long[] rank = new long[ids];
+        List<Map.Entry<String, Integer>> keys = new ArrayList<>();
+        for (int id = 0; id < ids; id++) {
+            rank[id] = random.nextInt(50);
+            int keyCount = 1 + random.nextInt(2);
+            for (int k = 0; k < keyCount; k++) {
+                keys.add(Map.entry(randomWord(random), id));
+            }
+        }
+        int maxPerNode = 8;
+        SuggestionTrie trie = SuggestionTrie.build(keys, rank, maxPerNode);
+
+        for (Map.Entry<String, Integer> key : keys) {
+            String word = key.getKey();
+            for (int length = 0; length <= word.length(); length++) {
+                String prefix = word.substring(0, length);
+                int[] expected = keys.stream()
+                        .filter(k -> k.getKey().startsWith(prefix))
+                        .map(Map.Entry::getValue)
+                        .distinct()
+                        .sorted(Comparator.<Integer>comparingLong(id -> -rank[id]).thenComparing(id -> id))
+                        .limit(maxPerNode)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                assertThat(trie.lookup(prefix, maxPerNode)).as("prefix '%s'", prefix).containsExactly(expected);
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        int length = 1 + random.nextInt(6);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+}
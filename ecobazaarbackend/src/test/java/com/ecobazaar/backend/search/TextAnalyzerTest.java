@@ -0,0 +1,53 @@
+package com.ecobazaar.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextAnalyzerTest {
+
+    @Test
+    void normalizeLowerCasesAndStripsAccents() {
+        assertThat(TextAnalyzer.normalize("Café CRÈME Brûlée")).isEqualTo("cafe creme brulee");
+        assertThat(TextAnalyzer.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void tokenizeSplitsOnPunctuationAndDropsStopWordsAndSingleCharacters() {
+        assertThat(TextAnalyzer.tokenize("The Bamboo-Toothbrush, for a 2x clean!"))
+            .containsExactly("bamboo", "toothbrush", "2x", "clean");
+    }
+
+    @Test
+    void tokenizeKeepsDigitsAndHandlesEmptyInput() {
+        assertThat(TextAnalyzer.tokenize("500ml bottle")).containsExactly("500ml", "bottle");
+        assertThat(TextAnalyzer.tokenize("")).isEmpty();
+        assertThat(TextAnalyzer.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void wordsKeepsEverything() {
+        assertThat(TextAnalyzer.words("A Jute bag, of course")).containsExactly("a", "jute", "bag", "of", "course");
+    }
+
+    @Test
+    void maxEditsGrowsWithTermLength() {
+        assertThat(TextAnalyzer.maxEdits("bag")).isZero();
+        assertThat(TextAnalyzer.maxEdits("soap")).isEqualTo(1);
+        assertThat(TextAnalyzer.maxEdits("bamboos")).isEqualTo(1);
+        assertThat(TextAnalyzer.maxEdits("toothbrush")).isEqualTo(2);
+    }
+
+    @Test
+    void boundedEditDistanceMatchesLevenshteinWithinBound() {
+        assertThat(TextAnalyzer.boundedEditDistance("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(TextAnalyzer.boundedEditDistance("bamboo", "bambo", 1)).isEqualTo(1);
+        assertThat(TextAnalyzer.boundedEditDistance("soap", "soap", 0)).isZero();
+    }
+
+    @Test
+    void boundedEditDistanceGivesUpPastTheBound() {
+        assertThat(TextAnalyzer.boundedEditDistance("kitten", "sitting", 1)).isEqualTo(2);
+        assertThat(TextAnalyzer.boundedEditDistance("a", "abcdef", 2)).isEqualTo(3);
+    }
+}
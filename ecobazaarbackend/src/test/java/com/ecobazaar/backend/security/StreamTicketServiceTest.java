@@ -0,0 +1,53 @@
+package com.ecobazaar.backend.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamTicketServiceTest {
+
+    private StreamTicketService streamTicketService;
+
+    @BeforeEach
+    void setUp() {
+        streamTicketService = new StreamTicketService();
+        ReflectionTestUtils.setField(streamTicketService, "ticketTtlSeconds", 30L);
+        ReflectionTestUtils.setField(streamTicketService, "maxOpenTickets", 100);
+        streamTicketService.init();
+    }
+
+    @Test
+    void ticketIdentifiesItsUserExactlyOnce() {
+        String ticket = streamTicketService.issue(42L);
+
+        assertThat(streamTicketService.redeem(ticket)).isEqualTo(42L);
+        assertThat(streamTicketService.redeem(ticket)).isNull();
+    }
+
+    @Test
+    void ticketsAreUnguessableAndDistinct() {
+        String first = streamTicketService.issue(1L);
+        String second = streamTicketService.issue(1L);
+
+        assertThat(first).isNotEqualTo(second).hasSizeGreaterThanOrEqualTo(43).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void unknownOrMissingTicketIsRejected() {
+        assertThat(streamTicketService.redeem("not-a-ticket")).isNull();
+        assertThat(streamTicketService.redeem(null)).isNull();
+        assertThat(streamTicketService.redeem(" ")).isNull();
+    }
+
+    @Test
+    void expiredTicketIsRejected() {
+        ReflectionTestUtils.setField(streamTicketService, "ticketTtlSeconds", 0L);
+        streamTicketService.init();
+
+        String ticket = streamTicketService.issue(42L);
+
+        assertThat(streamTicketService.redeem(ticket)).isNull();
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.MySqlContainerTest;
+import com.ecobazaar.backend.dto.CarbonAnalyticsDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carbon dashboard against MySQL for a customer with a handful of orders and
+ * one with thousands: the number of SQL statements must not grow with the
+ * order count, and the aggregated figures must match the seeded rows.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CustomerProfileService.class, EcoPointsLedgerService.class})
+class CarbonAnalyticsQueryTest extends MySqlContainerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CarbonAnalyticsQueryTest.class);
+
+    private static final BigDecimal ECO_CARBON = new BigDecimal("2.00");
+    private static final BigDecimal HIGH_CARBON = new BigDecimal("6.00");
+    private static final BigDecimal PRICE = new BigDecimal("100.00");
+
+    @Autowired
+    private CustomerProfileService customerProfileService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void statementCountDoesNotGrowWithOrderHistory() {
+        Long fewOrders = seedCustomerWithOrders(10);
+        Long manyOrders = seedCustomerWithOrders(5000);
+
+        Measurement few = measure(fewOrders);
+        Measurement many = measure(manyOrders);
+
+        log.info("Carbon analytics: 10 orders -> {} statements in {} ms; 5000 orders -> {} statements in {} ms",
+                 few.statements, few.millis, many.statements, many.millis);
+        assertThat(many.statements).isEqualTo(few.statements);
+        assertThat(many.analytics.getOrderHistory()).hasSize(50);
+        assertThat(few.analytics.getOrderHistory()).hasSize(10);
+    }
+
+    @Test
+    void aggregatesMatchSeededOrders() {
+        Long userId = seedCustomerWithOrders(1000);
+
+        CarbonAnalyticsDto analytics = measure(userId).analytics;
+
+        // Half the orders are eco-friendly (2 kg, saving 3 kg each); the PENDING order is not counted
+        assertThat(analytics.getTotalOrders()).isEqualTo(1000);
+        assertThat(analytics.getEcoFriendlyOrders()).isEqualTo(500);
+        assertThat(analytics.getTotalCarbonEmitted()).isEqualByComparingTo(
+                ECO_CARBON.add(HIGH_CARBON).multiply(BigDecimal.valueOf(500)));
+        assertThat(analytics.getTotalCarbonSaved()).isEqualByComparingTo(BigDecimal.valueOf(1500));
+        assertThat(analytics.getAverageCarbonPerOrder()).isEqualByComparingTo("4.00");
+        assertThat(analytics.getMonthlyData()).hasSize(6);
+        assertThat(analytics.getMonthlyData().stream().mapToInt(CarbonAnalyticsDto.MonthlyCarbonDto::getOrders).sum())
+                .isEqualTo(1000);
+    }
+
+    private Measurement measure(Long userId) {
+        testEntityManager.flush();
+        testEntityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long started = System.nanoTime();
+        CarbonAnalyticsDto analytics = customerProfileService.getCarbonAnalytics(userId);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        return new Measurement(analytics, statistics.getPrepareStatementCount(), millis);
+    }
+
+    // Orders are spread over the last 90 days so they fall inside the monthly window
+    private Long seedCustomerWithOrders(int orders) {
+        String name = "carbon-" + UUID.randomUUID().toString().substring(0, 8);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(
+                "INSERT INTO users (username, email, password, first_name, last_name, role, is_active, is_verified, " +
+                "token_version, eco_points, carbon_saved, created_at, updated_at) " +
+                "VALUES (?, ?, 'secret', 'Car', 'Bon', 'CUSTOMER', true, true, 0, 0, 0, ?, ?)",
+                name, name + "@example.com", Timestamp.valueOf(now), Timestamp.valueOf(now));
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, name);
+        customerProfileService.getCustomerProfile(userId);
+
+        List<Object[]> rows = new ArrayList<>(orders + 1);
+        for (int i = 0; i < orders; i++) {
+            Timestamp createdAt = Timestamp.valueOf(now.minusDays(i % 90));
+            rows.add(new Object[] {userId, PRICE, i % 2 == 0 ? ECO_CARBON : HIGH_CARBON, "DELIVERED", createdAt, createdAt});
+        }
+        rows.add(new Object[] {userId, PRICE, ECO_CARBON, "PENDING", Timestamp.valueOf(now), Timestamp.valueOf(now)});
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO orders (user_id, total_price, total_carbon_score, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        return userId;
+    }
+
+    private static class Measurement {
+        private final CarbonAnalyticsDto analytics;
+        private final long statements;
+        private final long millis;
+
+        Measurement(CarbonAnalyticsDto analytics, long statements, long millis) {
+            this.analytics = analytics;
+            this.statements = statements;
+            this.millis = millis;
+        }
+    }
+}
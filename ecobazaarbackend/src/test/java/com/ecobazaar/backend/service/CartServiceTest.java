@@ -0,0 +1,76 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.entity.Cart;
+import com.ecobazaar.backend.repository.CartRepository;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CartServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private CartService cartService;
+
+    @Test
+    void addToCartUpsertsInsteadOfFindThenSave() {
+        Cart line = new Cart();
+        line.setQuantity(3);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.existsById(2L)).thenReturn(true);
+        when(cartRepository.findByUserIdAndProductId(1L, 2L)).thenReturn(Optional.of(line));
+
+        assertThat(cartService.addToCart(1L, 2L, 2)).isSameAs(line);
+
+        InOrder order = inOrder(cartRepository);
+        order.verify(cartRepository).addQuantity(eq(1L), eq(2L), eq(2), any());
+        order.verify(cartRepository).findByUserIdAndProductId(1L, 2L);
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    void addToCartRejectsNonPositiveQuantity() {
+        assertThatThrownBy(() -> cartService.addToCart(1L, 2L, 0)).hasMessageContaining("at least 1");
+        assertThatThrownBy(() -> cartService.addToCart(1L, 2L, -3)).hasMessageContaining("at least 1");
+
+        verifyNoInteractions(cartRepository);
+    }
+
+    @Test
+    void addToCartRejectsUnknownProduct() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.existsById(2L)).thenReturn(false);
+
+        assertThatThrownBy(() -> cartService.addToCart(1L, 2L, 1)).hasMessage("Product not found");
+
+        verify(cartRepository, never()).addQuantity(anyLong(), anyLong(), anyInt(), any());
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.CursorPageDto;
+import com.ecobazaar.backend.dto.ProductSummaryDto;
+import com.ecobazaar.backend.entity.Product;
+import com.ecobazaar.backend.event.StockChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogueCacheServiceTest {
+
+    private CatalogueCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogueCacheService();
+        ReflectionTestUtils.setField(cache, "detailMaxEntries", 100);
+        ReflectionTestUtils.setField(cache, "listingMaxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        cache.init();
+    }
+
+    @Test
+    void stockChangeEvictsDetailAndPagesListingTheProduct() {
+        AtomicInteger detailLoads = new AtomicInteger();
+        AtomicInteger listingLoads = new AtomicInteger();
+        CatalogueCacheService.ListingKey withProduct = new CatalogueCacheService.ListingKey(1L, null, null, 24);
+        CatalogueCacheService.ListingKey withoutProduct = new CatalogueCacheService.ListingKey(2L, null, null, 24);
+
+        loadDetail(5L, detailLoads);
+        loadDetail(6L, detailLoads);
+        loadListing(withProduct, 5L, listingLoads);
+        loadListing(withoutProduct, 6L, listingLoads);
+
+        cache.onStockChanged(new StockChangedEvent(Set.of(5L)));
+
+        loadDetail(5L, detailLoads);
+        loadDetail(6L, detailLoads);
+        loadListing(withProduct, 5L, listingLoads);
+        loadListing(withoutProduct, 6L, listingLoads);
+        // Only product 5 and the page listing it were loaded again
+        assertThat(detailLoads.get()).isEqualTo(3);
+        assertThat(listingLoads.get()).isEqualTo(3);
+    }
+
+    private void loadDetail(Long id, AtomicInteger loads) {
+        cache.getProduct(id, key -> {
+            loads.incrementAndGet();
+            Product product = new Product();
+            product.setId(key);
+            return product;
+        });
+    }
+
+    private void loadListing(CatalogueCacheService.ListingKey key, Long productId, AtomicInteger loads) {
+        cache.getListing(key, () -> {
+            loads.incrementAndGet();
+            ProductSummaryDto item = new ProductSummaryDto();
+            item.setId(productId);
+            return new CursorPageDto<>(List.of(item), null, false);
+        });
+    }
+}
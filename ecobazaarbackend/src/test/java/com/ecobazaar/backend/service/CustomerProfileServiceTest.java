@@ -0,0 +1,60 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.entity.User;
+import com.ecobazaar.backend.repository.CustomerProfileRepository;
+import com.ecobazaar.backend.repository.OrderRepository;
+import com.ecobazaar.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerProfileServiceTest {
+
+    @Mock
+    private CustomerProfileRepository customerProfileRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
+    @InjectMocks
+    private CustomerProfileService customerProfileService;
+
+    @Test
+    void ecoPointsBalanceComesFromTheLedgerWithoutRecomputing() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(new User()));
+        when(ecoPointsLedgerService.findBalance(7L)).thenReturn(Optional.of(40));
+
+        assertThat(customerProfileService.getEcoPointsBalance(7L)).isEqualTo(40);
+
+        verify(ecoPointsLedgerService).findBalance(7L);
+        verifyNoMoreInteractions(ecoPointsLedgerService);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void ecoPointsBalanceRejectsUnknownUser() {
+        when(userRepository.findById(7L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> customerProfileService.getEcoPointsBalance(7L))
+                .hasMessageContaining("User not found");
+        verifyNoInteractions(ecoPointsLedgerService);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.entity.EcoPointsLedgerEntry;
+import com.ecobazaar.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Redemption must report failures through the returned map without calling
+ * the throwing ledger methods, which would mark the shared transaction
+ * rollback-only and turn the response into a 500 at commit.
+ */
+@ExtendWith(MockitoExtension.class)
+class EcoPointsServiceTest {
+
+    @Mock
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private EcoPointsService ecoPointsService;
+
+    @Test
+    void missingProfileIsReportedWithoutThrowingLedgerCalls() {
+        when(ecoPointsLedgerService.findBalance(7L)).thenReturn(Optional.empty());
+
+        Map<String, Object> result = ecoPointsService.validateRedemption(7L, 200, new BigDecimal("10000"), List.of());
+
+        assertThat(result).containsEntry("valid", false).containsEntry("message", "Customer profile not found");
+        verify(ecoPointsLedgerService, never()).getBalance(anyLong());
+    }
+
+    @Test
+    void lostConcurrentDebitIsReportedWithoutThrowing() {
+        when(ecoPointsLedgerService.findBalance(7L)).thenReturn(Optional.of(500), Optional.of(40));
+        when(ecoPointsLedgerService.tryDebit(eq(7L), anyInt(), eq(EcoPointsLedgerEntry.Reason.REDEMPTION), any()))
+            .thenReturn(Optional.empty());
+
+        Map<String, Object> result = ecoPointsService.processRedemption(7L, 200, new BigDecimal("10000"), List.of());
+
+        assertThat(result).containsEntry("success", false);
+        assertThat((String) result.get("message")).contains("You have 40 points");
+        verify(ecoPointsLedgerService, never()).debit(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    void successfulRedemptionReportsRemainingBalance() {
+        when(ecoPointsLedgerService.findBalance(7L)).thenReturn(Optional.of(500));
+        when(ecoPointsLedgerService.tryDebit(eq(7L), eq(200), eq(EcoPointsLedgerEntry.Reason.REDEMPTION), any()))
+            .thenReturn(Optional.of(300));
+
+        Map<String, Object> result = ecoPointsService.processRedemption(7L, 200, new BigDecimal("10000"), List.of());
+
+        assertThat(result).containsEntry("success", true).containsEntry("remainingPoints", 300);
+    }
+}
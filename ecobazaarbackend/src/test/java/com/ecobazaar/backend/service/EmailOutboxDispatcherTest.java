@@ -0,0 +1,199 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.MySqlContainerTest;
+import com.ecobazaar.backend.entity.EmailOutbox;
+import com.ecobazaar.backend.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the outbox against MySQL with an in-process fake SMTP server: a
+ * mail sender that records every delivered recipient and costs a fixed
+ * delay per connection (one send call). Reports throughput, and checks
+ * batching, crash recovery and retry/dead-letter handling.
+ */
+@DataJpaTest(properties = {
+    "app.email.enabled=true",
+    "app.email.outbox.batch-size=50",
+    "app.email.outbox.messages-per-connection=10",
+    "app.email.outbox.workers=4",
+    "app.email.outbox.max-attempts=3",
+    "app.email.outbox.base-backoff-ms=0",
+    // The test drives dispatch() itself
+    "app.email.outbox.poll-interval-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EmailService.class, EmailOutboxDispatcher.class, EmailOutboxDispatcherTest.FakeSmtp.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxDispatcherTest extends MySqlContainerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcherTest.class);
+
+    private static final long CONNECTION_MILLIS = 20;
+    private static final String BOUNCING = "bounce@example.com";
+
+    @TestConfiguration
+    static class FakeSmtp {
+        @Bean
+        RecordingMailSender mailSender() {
+            return new RecordingMailSender();
+        }
+    }
+
+    static class RecordingMailSender extends JavaMailSenderImpl {
+        final Map<String, AtomicInteger> delivered = new ConcurrentHashMap<>();
+        final AtomicInteger connections = new AtomicInteger();
+
+        @Override
+        public void send(MimeMessage... messages) {
+            connections.incrementAndGet();
+            try {
+                Thread.sleep(CONNECTION_MILLIS);
+                Map<Object, Exception> failed = new HashMap<>();
+                for (MimeMessage message : messages) {
+                    String recipient = message.getAllRecipients()[0].toString();
+                    if (BOUNCING.equals(recipient)) {
+                        failed.put(message, new MessagingException("550 mailbox unavailable"));
+                    } else {
+                        delivered.computeIfAbsent(recipient, key -> new AtomicInteger()).incrementAndGet();
+                    }
+                }
+                if (!failed.isEmpty()) {
+                    throw new MailSendException(failed);
+                }
+            } catch (InterruptedException | MessagingException e) {
+                throw new MailSendException("Fake SMTP failed", e);
+            }
+        }
+
+        void reset() {
+            delivered.clear();
+            connections.set(0);
+        }
+    }
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private RecordingMailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+        mailSender.reset();
+    }
+
+    @Test
+    void sendsEveryQueuedEmailOnceInBatchedConnections() throws InterruptedException {
+        int emails = 500;
+        enqueue(emails);
+
+        long started = System.nanoTime();
+        dispatcher.dispatch();
+        awaitStatus(EmailOutbox.Status.SENT, emails);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        log.info("Outbox sent {} emails in {} ms: {} emails/s over {} connections ({} ms per connection)",
+                 emails, Math.round(seconds * 1000), Math.round(emails / seconds),
+                 mailSender.connections.get(), CONNECTION_MILLIS);
+        assertThat(mailSender.delivered).hasSize(emails);
+        assertThat(mailSender.delivered.values()).allMatch(count -> count.get() == 1);
+        // 10 messages per connection
+        assertThat(mailSender.connections.get()).isEqualTo(emails / 10);
+    }
+
+    @Test
+    void emailsClaimedByACrashedDispatcherAreSentAfterRestart() throws InterruptedException {
+        enqueue(120);
+        // A dispatcher claimed the first 50 and died before sending; its lease has run out
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Long> ids = emailOutboxRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, 50));
+            emailOutboxRepository.claim(ids, "crashed-run", LocalDateTime.now().minusSeconds(1));
+        });
+        assertThat(emailOutboxRepository.countByStatus(EmailOutbox.Status.SENDING)).isEqualTo(50);
+
+        dispatcher.dispatch();
+        awaitStatus(EmailOutbox.Status.SENT, 120);
+
+        assertThat(mailSender.delivered).hasSize(120);
+        assertThat(emailOutboxRepository.countByStatus(EmailOutbox.Status.SENDING)).isZero();
+    }
+
+    @Test
+    void failingEmailIsRetriedThenParkedAsDead() throws InterruptedException {
+        enqueue(9);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                emailOutboxRepository.save(new EmailOutbox(BOUNCING, "Order", "<p>Order</p>", "TEST", null)));
+
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            dispatcher.dispatch();
+            int expectedAttempts = attempt;
+            awaitCondition(() -> emailOutboxRepository.findAll().stream()
+                    .anyMatch(email -> BOUNCING.equals(email.getRecipient())
+                            && email.getAttempts() == expectedAttempts
+                            && email.getStatus() != EmailOutbox.Status.SENDING));
+        }
+
+        EmailOutbox bounced = emailOutboxRepository.findAll().stream()
+                .filter(email -> BOUNCING.equals(email.getRecipient())).findFirst().orElseThrow();
+        assertThat(bounced.getStatus()).isEqualTo(EmailOutbox.Status.DEAD);
+        assertThat(bounced.getLastError()).contains("550");
+        assertThat(emailOutboxRepository.countByStatus(EmailOutbox.Status.SENT)).isEqualTo(9);
+        assertThat(mailSender.delivered.values()).allMatch(count -> count.get() == 1);
+    }
+
+    private void enqueue(int count) {
+        List<EmailOutbox> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            emails.add(new EmailOutbox("customer" + i + "@example.com", "Order Confirmation - Order #" + i,
+                                       "<p>Thanks for order " + i + "</p>", EmailService.TYPE_ORDER_CONFIRMATION, (long) i));
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> emailOutboxRepository.saveAll(emails));
+    }
+
+    private void awaitStatus(EmailOutbox.Status status, long count) throws InterruptedException {
+        awaitCondition(() -> emailOutboxRepository.countByStatus(status) == count);
+    }
+
+    private static void awaitCondition(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out waiting for the outbox").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecobazaar.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageFingerprintServiceTest {
+
+    @Test
+    void brighteningLeftToRightSetsEveryBit() {
+        assertThat(ImageFingerprintService.dHash(gradient(90, 80, true))).isEqualTo(-1L);
+        assertThat(ImageFingerprintService.dHash(gradient(90, 80, false))).isZero();
+    }
+
+    @Test
+    void hashSurvivesRescaling() {
+        int[][] cells = randomCells(new Random(3));
+
+        long small = ImageFingerprintService.dHash(blocks(cells, 10));
+        long large = ImageFingerprintService.dHash(blocks(cells, 37));
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void hashSurvivesSmallBrightnessShift() {
+        int[][] cells = randomCells(new Random(5));
+        int[][] brighter = new int[cells.length][];
+        for (int row = 0; row < cells.length; row++) {
+            brighter[row] = cells[row].clone();
+            for (int column = 0; column < cells[row].length; column++) {
+                brighter[row][column] = Math.min(255, cells[row][column] + 10);
+            }
+        }
+
+        long original = ImageFingerprintService.dHash(blocks(cells, 10));
+        long shifted = ImageFingerprintService.dHash(blocks(brighter, 10));
+
+        assertThat(Long.bitCount(original ^ shifted)).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void unrelatedImagesAreFarApart() {
+        long first = ImageFingerprintService.dHash(blocks(randomCells(new Random(11)), 10));
+        long second = ImageFingerprintService.dHash(blocks(randomCells(new Random(12)), 10));
+
+        assertThat(Long.bitCount(first ^ second)).isGreaterThan(12);
+    }
+
+    private static BufferedImage gradient(int width, int height, boolean brighteningRight) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            int level = x * 255 / (width - 1);
+            int gray = brighteningRight ? level : 255 - level;
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, gray << 16 | gray << 8 | gray);
+            }
+        }
+        return image;
+    }
+
+    // One flat gray block per hash cell (9 columns x 8 rows), each cellSize pixels square
+    private static BufferedImage blocks(int[][] cells, int cellSize) {
+        BufferedImage image = new BufferedImage(9 * cellSize, 8 * cellSize, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int gray = cells[y / cellSize][x / cellSize];
+                image.setRGB(x, y, gray << 16 | gray << 8 | gray);
+            }
+        }
+        return image;
+    }
+
+    private static int[][] randomCells(Random random) {
+        int[][] cells = new int[8][9];
+        for (int[] row : cells) {
+            for (int column = 0; column < row.length; column++) {
+                // spaced levels so neighbouring cells never tie
+                row[column] = 20 + 20 * random.nextInt(11);
+            }
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.repository.NotificationCounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationCounterServiceTest {
+
+    @Mock
+    private NotificationCounterRepository notificationCounterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private NotificationCounterService notificationCounterService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationCounterService, "maxEntries", 100);
+        ReflectionTestUtils.setField(notificationCounterService, "ttlMs", 60_000L);
+        notificationCounterService.init();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void counterLoadedBeforeWriteGetsTheDelta() {
+        when(notificationCounterRepository.findUnreadCountForShare(1L)).thenReturn(2);
+        assertThat(notificationCounterService.getUnread(1L)).isEqualTo(2);
+
+        notificationCounterService.adjust(1L, 1);
+        commit();
+
+        verify(notificationCounterRepository).addToUnread(1L, 1);
+        assertThat(notificationCounterService.getUnread(1L)).isEqualTo(3);
+    }
+
+    @Test
+    void counterLoadedAfterWriteIsNotIncrementedTwice() {
+        notificationCounterService.adjust(1L, 1);
+        // Loaded between the writer's commit and its afterCommit: already includes the write
+        when(notificationCounterRepository.findUnreadCountForShare(1L)).thenReturn(3);
+        assertThat(notificationCounterService.getUnread(1L)).isEqualTo(3);
+
+        commit();
+
+        assertThat(notificationCounterService.getUnread(1L)).isEqualTo(3);
+    }
+
+    @Test
+    void decrementNeverGoesBelowZero() {
+        when(notificationCounterRepository.findUnreadCountForShare(1L)).thenReturn(1);
+        notificationCounterService.getUnread(1L);
+
+        notificationCounterService.adjust(1L, -2);
+        commit();
+
+        assertThat(notificationCounterService.getUnread(1L)).isZero();
+    }
+
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+}
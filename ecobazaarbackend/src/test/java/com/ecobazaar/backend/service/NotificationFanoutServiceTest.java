@@ -0,0 +1,144 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.MySqlContainerTest;
+import com.ecobazaar.backend.dto.NotificationFanoutStatsDto;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the fan-out writer against MySQL: rows/s for a broadcast and a
+ * burst of targeted notifications, next to the one-INSERT-per-notification
+ * baseline it replaced, and checks that the rows go in as batches.
+ */
+@DataJpaTest(properties = "notifications.fanout.batch-size=500")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({NotificationFanoutService.class, NotificationCounterService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationFanoutServiceTest extends MySqlContainerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationFanoutServiceTest.class);
+
+    private static final int CUSTOMERS = 2000;
+    private static final int BASELINE_ROWS = 500;
+
+    @Autowired
+    private NotificationFanoutService notificationFanoutService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void broadcastIsWrittenInBatchesOfBatchSize() throws InterruptedException {
+        seedCustomers(CUSTOMERS);
+        long recipients = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE is_active = true AND role = 'CUSTOMER'", Long.class);
+        String title = "Broadcast " + UUID.randomUUID();
+        NotificationFanoutStatsDto before = notificationFanoutService.getStats();
+
+        long started = System.nanoTime();
+        notificationFanoutService.broadcast(NotificationFanoutService.Audience.CUSTOMERS, null, "announcement",
+                Map.of("title", title, "message", "Spring sale"));
+        // Stats are bumped just after each batch commits
+        awaitCondition(() -> rowsTitled(title) == recipients
+                && notificationFanoutService.getStats().getRowsWritten() - before.getRowsWritten() == recipients);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        NotificationFanoutStatsDto after = notificationFanoutService.getStats();
+        long batches = after.getBatchesWritten() - before.getBatchesWritten();
+        log.info("Broadcast wrote {} rows in {} batches: {} rows/s (baseline, one INSERT per row: {} rows/s)",
+                 recipients, batches, Math.round(recipients / seconds), Math.round(baselineRowsPerSecond()));
+        assertThat(batches).isEqualTo((recipients + 499) / 500);
+        assertThat(after.getCallerWrites()).isEqualTo(before.getCallerWrites());
+        assertThat(after.getFailedRows()).isEqualTo(before.getFailedRows());
+    }
+
+    @Test
+    void targetedBurstIsCoalescedIntoBatches() throws InterruptedException {
+        List<Long> userIds = seedCustomers(200);
+        String title = "Targeted " + UUID.randomUUID();
+        NotificationFanoutStatsDto before = notificationFanoutService.getStats();
+        int notifications = userIds.size() * 5;
+
+        long started = System.nanoTime();
+        for (int round = 0; round < 5; round++) {
+            for (Long userId : userIds) {
+                notificationFanoutService.notifyUser(userId, "announcement", Map.of("title", title, "message", "Hi"));
+            }
+        }
+        awaitCondition(() -> rowsTitled(title) == notifications
+                && notificationFanoutService.getStats().getRowsWritten() - before.getRowsWritten() == notifications);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        NotificationFanoutStatsDto after = notificationFanoutService.getStats();
+        long batches = after.getBatchesWritten() - before.getBatchesWritten();
+        log.info("{} targeted notifications written in {} batches: {} rows/s",
+                 notifications, batches, Math.round(notifications / seconds));
+        // The writer drains whatever has queued up into one batch, so a burst never costs one insert per row
+        assertThat(batches).isLessThan(notifications);
+        assertThat(after.getRowsWritten() - before.getRowsWritten()).isEqualTo(notifications);
+    }
+
+    // The pre-fan-out path: one INSERT and one transaction per notification
+    private double baselineRowsPerSecond() {
+        Long userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long started = System.nanoTime();
+        for (int i = 0; i < BASELINE_ROWS; i++) {
+            transaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO notifications (user_id, title, message, notification_type, is_read, created_at) " +
+                    "VALUES (?, 'Baseline', 'Baseline', 'ANNOUNCEMENT', false, ?)",
+                    userId, Timestamp.valueOf(LocalDateTime.now())));
+        }
+        return BASELINE_ROWS / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private long rowsTitled(String title) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications WHERE title = ?", Long.class, title);
+    }
+
+    private List<Long> seedCustomers(int count) {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "fanout-" + run + "-" + i;
+            rows.add(new Object[] {name, name + "@example.com", now, now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (username, email, password, first_name, last_name, role, is_active, is_verified, " +
+                "token_version, eco_points, carbon_saved, created_at, updated_at) " +
+                "VALUES (?, ?, 'secret', 'Fan', 'Out', 'CUSTOMER', true, true, 0, 0, 0, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE ?", Long.class, "fanout-" + run + "-%");
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 60_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out waiting for the notification writer").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
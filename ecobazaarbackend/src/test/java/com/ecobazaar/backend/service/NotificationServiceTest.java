@@ -0,0 +1,76 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.event.NotificationsReadEvent;
+import com.ecobazaar.backend.repository.NotificationRepository;
+import com.ecobazaar.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NotificationCounterService notificationCounterService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @Test
+    void deletingAnUnreadNotificationDecrementsOnce() {
+        when(notificationRepository.findUserIdById(5L)).thenReturn(Optional.of(42L));
+        when(notificationRepository.deleteIfUnread(5L, 42L)).thenReturn(1);
+
+        notificationService.deleteNotification(5L);
+
+        verify(notificationCounterService).adjust(42L, -1);
+        verify(notificationRepository, never()).deleteByIdAndUserId(anyLong(), anyLong());
+        verify(eventPublisher).publishEvent(any(NotificationsReadEvent.class));
+    }
+
+    @Test
+    void deleteThatLostTheRaceDoesNotDecrement() {
+        // The concurrent delete already removed the row: both conditional deletes match nothing
+        when(notificationRepository.findUserIdById(5L)).thenReturn(Optional.of(42L));
+        when(notificationRepository.deleteIfUnread(5L, 42L)).thenReturn(0);
+        when(notificationRepository.deleteByIdAndUserId(5L, 42L)).thenReturn(0);
+
+        notificationService.deleteNotification(5L);
+
+        verify(notificationCounterService, never()).adjust(anyLong(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deletingAReadNotificationLeavesTheCounterAlone() {
+        when(notificationRepository.findUserIdById(5L)).thenReturn(Optional.of(42L));
+        when(notificationRepository.deleteIfUnread(5L, 42L)).thenReturn(0);
+        when(notificationRepository.deleteByIdAndUserId(5L, 42L)).thenReturn(1);
+
+        notificationService.deleteNotification(5L);
+
+        verify(notificationCounterService, never()).adjust(anyLong(), anyInt());
+        verify(eventPublisher).publishEvent(any(NotificationsReadEvent.class));
+    }
+}
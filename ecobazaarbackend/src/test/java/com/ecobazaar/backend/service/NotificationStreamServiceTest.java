@@ -0,0 +1,127 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.NotificationDto;
+import com.ecobazaar.backend.event.NotificationsCreatedEvent;
+import com.ecobazaar.backend.event.NotificationsReadEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load model for the notification stream: thousands of idle subscribers
+ * over a ten-minute window, counting unread-count lookups against what the
+ * same clients cost when each polled /count and /unread every 30 seconds.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationStreamServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationStreamServiceTest.class);
+
+    private static final int SUBSCRIBERS = 2000;
+    private static final int WINDOW_SECONDS = 600;
+    private static final int POLL_INTERVAL_SECONDS = 30;
+    // COUNT query plus unread list query per poll
+    private static final int QUERIES_PER_POLL = 2;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private NotificationStreamService notificationStreamService;
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationStreamService, "streamTimeoutMs", 60_000L);
+        when(notificationService.getUnreadNotificationCount(anyLong())).thenAnswer(invocation -> {
+            lookups.incrementAndGet();
+            return 3L;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationStreamService.shutdown();
+    }
+
+    @Test
+    void streamCostsOneLookupPerConnectAndPerChangeInsteadOfPerPoll() throws InterruptedException {
+        for (long userId = 1; userId <= SUBSCRIBERS; userId++) {
+            notificationStreamService.subscribe(userId);
+        }
+        assertThat(notificationStreamService.getConnectionCount()).isEqualTo(SUBSCRIBERS);
+        awaitLookups(SUBSCRIBERS);
+
+        // Activity in the window: 100 subscribers get a notification, 50 read one,
+        // and 500 users without an open stream get notifications too
+        Map<Long, List<NotificationDto>> created = new HashMap<>();
+        for (long userId = 1; userId <= 100; userId++) {
+            created.put(userId, List.of(notification(userId)));
+        }
+        for (long userId = SUBSCRIBERS + 1; userId <= SUBSCRIBERS + 500; userId++) {
+            created.put(userId, List.of(notification(userId)));
+        }
+        notificationStreamService.onNotificationsCreated(new NotificationsCreatedEvent(created));
+        for (long userId = 101; userId <= 150; userId++) {
+            notificationStreamService.onNotificationsRead(new NotificationsReadEvent(userId));
+        }
+        notificationStreamService.onNotificationsRead(new NotificationsReadEvent((long) SUBSCRIBERS + 1));
+
+        int streamLookups = SUBSCRIBERS + 100 + 50;
+        awaitLookups(streamLookups);
+        Thread.sleep(200);
+        int pollingQueries = SUBSCRIBERS * (WINDOW_SECONDS / POLL_INTERVAL_SECONDS) * QUERIES_PER_POLL;
+
+        log.info("{} clients over {} s: {} unread-count lookups with streams vs {} queries polling every {} s",
+                 SUBSCRIBERS, WINDOW_SECONDS, lookups.get(), pollingQueries, POLL_INTERVAL_SECONDS);
+        // Users without a stream cost nothing
+        assertThat(lookups.get()).isEqualTo(streamLookups);
+        assertThat(lookups.get()).isLessThan(pollingQueries / 20);
+    }
+
+    @Test
+    void heartbeatNeedsNoLookups() throws InterruptedException {
+        for (long userId = 1; userId <= 100; userId++) {
+            notificationStreamService.subscribe(userId);
+        }
+        awaitLookups(100);
+
+        for (int beat = 0; beat < 20; beat++) {
+            notificationStreamService.heartbeat();
+        }
+        Thread.sleep(200);
+
+        assertThat(lookups.get()).isEqualTo(100);
+        assertThat(notificationStreamService.getConnectionCount()).isEqualTo(100);
+    }
+
+    private void awaitLookups(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (lookups.get() < expected) {
+            assertThat(System.nanoTime()).as("timed out waiting for pushes").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static NotificationDto notification(long userId) {
+        return new NotificationDto(userId, "Order shipped", "Your order is on its way", "ORDER", false, LocalDateTime.now());
+    }
+}
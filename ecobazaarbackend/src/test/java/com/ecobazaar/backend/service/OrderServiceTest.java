@@ -0,0 +1,146 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.entity.Cart;
+import com.ecobazaar.backend.entity.Order;
+import com.ecobazaar.backend.entity.OrderItem;
+import com.ecobazaar.backend.entity.Product;
+import com.ecobazaar.backend.entity.User;
+import com.ecobazaar.backend.repository.CartRepository;
+import com.ecobazaar.backend.repository.OrderRepository;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.repository.UserRepository;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checkout issues a fixed number of repository calls whatever the cart
+ * size: one product load, one order save (items cascade) and one cart
+ * delete. Run for 1, 10 and 50 lines, the cart sizes checkout is tuned for.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CustomerProfileService customerProfileService;
+
+    @Mock
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    @ParameterizedTest(name = "{0} cart lines")
+    @ValueSource(ints = {1, 10, 50})
+    void orderFromStoredCartIsSavedOnceAndCartClearedInOneDelete(int lines) {
+        List<Cart> cart = new ArrayList<>();
+        for (int i = 1; i <= lines; i++) {
+            Cart line = new Cart();
+            line.setId(100L + i);
+            line.setProduct(product(i));
+            line.setQuantity(2);
+            cart.add(line);
+        }
+        when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
+        when(cartRepository.findByUserIdWithProduct(1L)).thenReturn(cart);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        orderService.createOrderFromCart(1L, "1 Green St", "CARD", null);
+
+        Order saved = savedOrder();
+        assertThat(saved.getOrderItems()).hasSize(lines).allMatch(item -> item.getOrder() == saved);
+        assertThat(saved.getTotalPrice()).isEqualByComparingTo(BigDecimal.valueOf(20L * lines));
+        verify(cartRepository).deleteAllByIdInBatch(cart.stream().map(Cart::getId).toList());
+        verify(cartRepository, never()).delete(any(Cart.class));
+        verify(cartRepository, never()).deleteById(anyLong());
+    }
+
+    @ParameterizedTest(name = "{0} cart lines")
+    @ValueSource(ints = {1, 10, 50})
+    void orderFromSubmittedLinesLoadsProductsOnceAndDeletesCartRowsInOneStatement(int lines) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= lines; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("productId", (long) i);
+            item.put("quantity", 3);
+            items.add(item);
+            products.add(product(i));
+        }
+        when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
+        when(productRepository.findAllByIdWithRelations(anyCollection())).thenReturn(products);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        orderService.createOrderFromCartItems(1L, items, "1 Green St", "CARD", null, null, null, false);
+
+        Order saved = savedOrder();
+        assertThat(saved.getOrderItems()).extracting(OrderItem::getQuantity).hasSize(lines).containsOnly(3);
+        verify(productRepository, times(1)).findAllByIdWithRelations(anyCollection());
+        verify(productRepository, never()).findById(anyLong());
+        verify(cartRepository, times(1)).deleteByUserIdAndProductIdIn(any(), anyCollection());
+        verify(cartRepository, never()).findByUserIdAndProductId(any(), any());
+        verify(cartRepository, never()).delete(any(Cart.class));
+    }
+
+    // Exactly one save, carrying every item
+    private Order savedOrder() {
+        ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, times(1)).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Order withId(Order order) {
+        order.setId(9L);
+        return order;
+    }
+
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(BigDecimal.TEN);
+        product.setCarbonScore(BigDecimal.ONE);
+        return product;
+    }
+}
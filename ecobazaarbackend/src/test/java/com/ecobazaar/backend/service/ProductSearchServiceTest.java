@@ -0,0 +1,99 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.ProductSearchResultDto;
+import com.ecobazaar.backend.dto.ProductSummaryDto;
+import com.ecobazaar.backend.entity.Category;
+import com.ecobazaar.backend.entity.Product;
+import com.ecobazaar.backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSearchService productSearchService;
+
+    @BeforeEach
+    void setUp() {
+        Category personalCare = category(1L, "Personal Care");
+        Category bags = category(2L, "Bags");
+        when(productRepository.findAllActiveWithRelations()).thenReturn(List.of(
+            product(1L, "Bamboo Toothbrush", "Biodegradable handle", personalCare, "99", true),
+            product(2L, "Bamboo Cutlery Set", "Travel cutlery", personalCare, "349", true),
+            product(3L, "Cotton Tote Bag", "Organic cotton", bags, "199", false)
+        ));
+        productSearchService.rebuild();
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        assertThat(ids(search("bamboo"))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(search("bamboo toothbrush"))).containsExactly(1L);
+        assertThat(ids(search("bamboo tote"))).isEmpty();
+    }
+
+    @Test
+    void termsMayMatchDifferentFieldsAndUsePrefixesOrTypos() {
+        // "organic" only appears in the description, "tote" in the name
+        assertThat(ids(search("organic tote"))).containsExactly(3L);
+        assertThat(ids(search("tooth"))).containsExactly(1L);
+        assertThat(ids(search("cuttlery"))).containsExactly(2L);
+    }
+
+    @Test
+    void stopWordsDoNotNarrowTheQuery() {
+        assertThat(ids(search("the bamboo toothbrush"))).containsExactly(1L);
+    }
+
+    @Test
+    void filtersApplyAfterMatching() {
+        ProductSearchResultDto ecoOnly = productSearchService.search("bamboo", null, null, null, true, false, 0, 10);
+        assertThat(ids(ecoOnly)).containsExactlyInAnyOrder(1L, 2L);
+
+        ProductSearchResultDto cheap = productSearchService.search("bamboo", null, null, new BigDecimal("100"),
+                null, false, 0, 10);
+        assertThat(ids(cheap)).containsExactly(1L);
+    }
+
+    private ProductSearchResultDto search(String query) {
+        return productSearchService.search(query, null, null, null, null, false, 0, 10);
+    }
+
+    private static List<Long> ids(ProductSearchResultDto result) {
+        return result.getItems().stream().map(ProductSummaryDto::getId).toList();
+    }
+
+    private static Category category(Long id, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
+
+    private static Product product(Long id, String name, String description, Category category,
+                                   String price, boolean ecoFriendly) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        product.setIsEcoFriendly(ecoFriendly);
+        product.setIsActive(true);
+        return product;
+    }
+}
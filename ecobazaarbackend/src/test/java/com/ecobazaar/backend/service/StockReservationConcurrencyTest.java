@@ -0,0 +1,202 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.MySqlContainerTest;
+import com.ecobazaar.backend.entity.Order;
+import com.ecobazaar.backend.entity.OrderItem;
+import com.ecobazaar.backend.entity.OrderStatus;
+import com.ecobazaar.backend.entity.Product;
+import com.ecobazaar.backend.entity.User;
+import com.ecobazaar.backend.repository.OrderRepository;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hundreds of buyers check out the same two products at once on a real
+ * MySQL, half of them listing the products in the opposite order. Stock
+ * must never go below zero, exactly the starting stock must be sold, and
+ * no checkout may fail with a deadlock or lock wait timeout.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StockReservationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationConcurrencyTest extends MySqlContainerTest {
+
+    private static final int STOCK = 50;
+    private static final int BUYERS = 300;
+    private static final int THREADS = 32;
+
+    @MockitoBean
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
+    @MockitoBean
+    private NotificationFanoutService notificationFanoutService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transaction;
+    private User buyer;
+    private Product first;
+    private Product second;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            buyer = userRepository.save(user());
+            first = productRepository.save(product("Bamboo toothbrush", buyer));
+            second = productRepository.save(product("Steel bottle", buyer));
+        });
+    }
+
+    @Test
+    void concurrentCheckoutsInOppositeOrderNeitherOversellNorDeadlock() throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger lowestStock = new AtomicInteger(STOCK);
+
+        // Samples both stock levels while the buyers run
+        Thread watcher = new Thread(() -> {
+            while (running.get()) {
+                Integer lowest = jdbcTemplate.queryForObject(
+                        "SELECT MIN(stock_quantity) FROM products WHERE id IN (?, ?)",
+                        Integer.class, first.getId(), second.getId());
+                lowestStock.accumulateAndGet(lowest, Math::min);
+            }
+        });
+        watcher.start();
+
+        ExecutorService buyers = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < BUYERS; i++) {
+            boolean reversed = i % 2 == 1;
+            buyers.submit(() -> {
+                start.await();
+                try {
+                    transaction.executeWithoutResult(status ->
+                            stockReservationService.reserve(orderRepository.save(order(reversed))));
+                    reserved.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if (e.getMessage() != null && e.getMessage().startsWith("Insufficient stock")) {
+                        soldOut.incrementAndGet();
+                    } else {
+                        unexpected.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        buyers.shutdown();
+        assertThat(buyers.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        running.set(false);
+        watcher.join();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(reserved.get()).isEqualTo(STOCK);
+        assertThat(soldOut.get()).isEqualTo(BUYERS - STOCK);
+        assertThat(lowestStock.get()).isGreaterThanOrEqualTo(0);
+        assertThat(stockOf(first)).isZero();
+        assertThat(stockOf(second)).isZero();
+        assertThat(reservedQuantityOf(first)).isEqualTo(STOCK);
+        assertThat(reservedQuantityOf(second)).isEqualTo(STOCK);
+    }
+
+    private int stockOf(Product product) {
+        return jdbcTemplate.queryForObject(
+                "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, product.getId());
+    }
+
+    private int reservedQuantityOf(Product product) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM stock_reservations WHERE product_id = ?",
+                Integer.class, product.getId());
+    }
+
+    private Order order(boolean reversed) {
+        Order order = new Order();
+        order.setUser(buyer);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalPrice(BigDecimal.valueOf(20));
+        List<OrderItem> items = new ArrayList<>();
+        items.add(item(order, reversed ? second : first));
+        items.add(item(order, reversed ? first : second));
+        order.setOrderItems(items);
+        return order;
+    }
+
+    private static OrderItem item(Order order, Product product) {
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(1);
+        item.setPrice(product.getPrice());
+        return item;
+    }
+
+    private static User user() {
+        String name = "buyer-" + UUID.randomUUID();
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("secret");
+        user.setFirstName("Stress");
+        user.setLastName("Test");
+        return user;
+    }
+
+    private static Product product(String name, User seller) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setSeller(seller);
+        product.setStockQuantity(STOCK);
+        product.setIsActive(true);
+        return product;
+    }
+}
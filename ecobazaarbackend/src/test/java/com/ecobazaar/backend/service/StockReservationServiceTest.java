@@ -0,0 +1,195 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.entity.Order;
+import com.ecobazaar.backend.entity.OrderItem;
+import com.ecobazaar.backend.entity.OrderStatus;
+import com.ecobazaar.backend.entity.Product;
+import com.ecobazaar.backend.entity.StockReservation;
+import com.ecobazaar.backend.event.StockChangedEvent;
+import com.ecobazaar.backend.repository.OrderRepository;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.repository.StockReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
+    @Mock
+    private NotificationFanoutService notificationFanoutService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private StockReservationService stockReservationService;
+
+    @Test
+    void reserveRejectsNonPositiveQuantityBeforeTouchingStock() {
+        Order order = order(1L, line(10L, 2), line(20L, -5));
+
+        assertThatThrownBy(() -> stockReservationService.reserve(order))
+            .hasMessageContaining("Invalid quantity");
+
+        verify(productRepository, never()).reserveStock(anyLong(), anyInt());
+        verifyNoInteractions(stockReservationRepository);
+    }
+
+    @Test
+    void reserveLocksProductsInAscendingIdOrder() {
+        Order order = order(1L, line(30L, 1), line(10L, 2), line(20L, 1), line(10L, 1));
+        when(productRepository.reserveStock(anyLong(), anyInt())).thenReturn(1);
+
+        stockReservationService.reserve(order);
+
+        InOrder locks = inOrder(productRepository);
+        locks.verify(productRepository).reserveStock(10L, 3);
+        locks.verify(productRepository).reserveStock(20L, 1);
+        locks.verify(productRepository).reserveStock(30L, 1);
+        verify(stockReservationRepository).saveAll(any());
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+            event instanceof StockChangedEvent stock && stock.getProductIds().equals(Set.of(10L, 20L, 30L))));
+    }
+
+    @Test
+    void reserveStopsAtFirstShortProduct() {
+        Order order = order(1L, line(10L, 1), line(20L, 4), line(30L, 1));
+        when(productRepository.reserveStock(10L, 1)).thenReturn(1);
+        when(productRepository.reserveStock(20L, 4)).thenReturn(0);
+
+        assertThatThrownBy(() -> stockReservationService.reserve(order))
+            .hasMessageContaining("Insufficient stock for product: Product 20");
+
+        verify(productRepository, never()).reserveStock(eq(30L), anyInt());
+        verify(stockReservationRepository, never()).saveAll(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void sweepReleasesStockRefundsPointsAndNotifiesInOneTransaction() {
+        TransactionStatus status = expiredOrder(7L, reservation(100L, 7L, 2L, 1), reservation(101L, 7L, 5L, 3));
+        when(orderRepository.updateStatusIfCurrent(7L, OrderStatus.PENDING, OrderStatus.CANCELLED)).thenReturn(1);
+        when(orderRepository.findUserIdById(7L)).thenReturn(Optional.of(42L));
+        when(ecoPointsLedgerService.refundOrderRedemption(42L, 7L)).thenReturn(150);
+
+        stockReservationService.releaseExpiredReservations();
+
+        InOrder steps = inOrder(productRepository, orderRepository, ecoPointsLedgerService,
+                                notificationFanoutService, transactionManager);
+        steps.verify(productRepository).releaseStock(2L, 1);
+        steps.verify(productRepository).releaseStock(5L, 3);
+        steps.verify(orderRepository).updateStatusIfCurrent(7L, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        steps.verify(ecoPointsLedgerService).refundOrderRedemption(42L, 7L);
+        steps.verify(notificationFanoutService).notifyUser(42L, "order-expired", Map.of("orderId", 7L, "points", 150));
+        steps.verify(transactionManager).commit(status);
+    }
+
+    @Test
+    void failedRefundRollsBackTheRelease() {
+        TransactionStatus status = expiredOrder(7L, reservation(100L, 7L, 2L, 1));
+        when(orderRepository.updateStatusIfCurrent(7L, OrderStatus.PENDING, OrderStatus.CANCELLED)).thenReturn(1);
+        when(orderRepository.findUserIdById(7L)).thenReturn(Optional.of(42L));
+        when(ecoPointsLedgerService.refundOrderRedemption(42L, 7L))
+            .thenThrow(new RuntimeException("Customer profile not found"));
+
+        stockReservationService.releaseExpiredReservations();
+
+        verify(transactionManager).rollback(status);
+        verify(transactionManager, never()).commit(any());
+        verify(notificationFanoutService, never()).notifyUser(anyLong(), anyString(), anyMap());
+    }
+
+    @Test
+    void orderThatLeftPendingIsNeitherRefundedNorNotified() {
+        TransactionStatus status = expiredOrder(7L, reservation(100L, 7L, 2L, 1));
+        when(orderRepository.updateStatusIfCurrent(7L, OrderStatus.PENDING, OrderStatus.CANCELLED)).thenReturn(0);
+
+        stockReservationService.releaseExpiredReservations();
+
+        verify(productRepository).releaseStock(2L, 1);
+        verifyNoInteractions(ecoPointsLedgerService, notificationFanoutService);
+        verify(transactionManager).commit(status);
+    }
+
+    // --- Fixtures ---
+
+    private TransactionStatus expiredOrder(Long orderId, StockReservation... reservations) {
+        TransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(stockReservationRepository.findOrderIdsWithExpiredReservations(any(), any())).thenReturn(List.of(orderId));
+        when(stockReservationRepository.findByOrderIdOrderByProductIdAsc(orderId)).thenReturn(List.of(reservations));
+        when(stockReservationRepository.expireIfDue(anyLong(), any())).thenReturn(1);
+        return status;
+    }
+
+    static StockReservation reservation(Long id, Long orderId, Long productId, int quantity) {
+        StockReservation reservation = new StockReservation(orderId, productId, quantity, LocalDateTime.now());
+        reservation.setId(id);
+        return reservation;
+    }
+
+    static Order order(Long id, OrderItem... items) {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderItems(new ArrayList<>());
+        for (OrderItem item : items) {
+            item.setOrder(order);
+            order.getOrderItems().add(item);
+        }
+        return order;
+    }
+
+    static OrderItem line(Long productId, int quantity) {
+        Product product = new Product();
+        product.setId(productId);
+        product.setName("Product " + productId);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
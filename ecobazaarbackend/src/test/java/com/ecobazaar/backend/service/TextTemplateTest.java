@@ -0,0 +1,77 @@
+package com.ecobazaar.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextTemplateTest {
+
+    @Test
+    void rendersVariablesAndLeavesMissingOnesEmpty() {
+        TextTemplate template = TextTemplate.compile("Hi {{ name }}, order #{{orderId}}{{missing}}.");
+
+        assertThat(template.render(Map.of("name", "Asha", "orderId", "42"))).isEqualTo("Hi Asha, order #42.");
+    }
+
+    @Test
+    void sectionIsKeptOnlyForNonEmptyValue() {
+        TextTemplate template = TextTemplate.compile("Total{{#discount}} (saved {{discount}}){{/discount}}!");
+
+        assertThat(template.render(Map.of("discount", "₹50"))).isEqualTo("Total (saved ₹50)!");
+        assertThat(template.render(Map.of("discount", ""))).isEqualTo("Total!");
+        assertThat(template.render(Map.of())).isEqualTo("Total!");
+    }
+
+    @Test
+    void nestedSectionsRenderIndependently() {
+        TextTemplate template = TextTemplate.compile("{{#a}}A{{#b}}B{{/b}}{{/a}}");
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "1");
+
+        assertThat(template.render(values)).isEqualTo("A");
+        values.put("b", "1");
+        assertThat(template.render(values)).isEqualTo("AB");
+    }
+
+    @Test
+    void valuesAreInsertedVerbatimSoCallersEscape() {
+        TextTemplate template = TextTemplate.compile("<p>{{name}}</p>");
+        String name = "<script>alert('x')</script> & \"co\"";
+
+        assertThat(template.render(Map.of("name", name))).isEqualTo("<p>" + name + "</p>");
+        assertThat(template.render(Map.of("name", TextTemplate.escape(name))))
+                .isEqualTo("<p>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;co&quot;</p>");
+        assertThat(TextTemplate.escape(null)).isEmpty();
+        assertThat(TextTemplate.escape(3)).isEqualTo("3");
+    }
+
+    @Test
+    void valueContainingTagSyntaxIsNotExpanded() {
+        TextTemplate template = TextTemplate.compile("{{a}}");
+
+        assertThat(template.render(Map.of("a", "{{b}}", "b", "oops"))).isEqualTo("{{b}}");
+    }
+
+    @Test
+    void malformedTemplatesAreRejected() {
+        assertThatThrownBy(() -> TextTemplate.compile("Hi {{name"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TextTemplate.compile("{{#items}}no end"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void loadsTemplateFromClasspath() {
+        String html = TextTemplate.load("templates/email/order-item.html")
+                .render(Map.of("name", "Jute Bag", "quantity", "2", "price", "₹120.00"));
+
+        assertThat(html).contains("<strong>Jute Bag</strong>").contains("Quantity: 2 × ₹120.00");
+        assertThatThrownBy(() -> TextTemplate.load("templates/email/missing.html"))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+}
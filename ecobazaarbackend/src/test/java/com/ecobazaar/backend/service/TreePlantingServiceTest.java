@@ -0,0 +1,115 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.dto.CursorPageDto;
+import com.ecobazaar.backend.dto.KeysetCursor;
+import com.ecobazaar.backend.dto.TreePlantingReviewItemDto;
+import com.ecobazaar.backend.entity.EcoPointsLedgerEntry;
+import com.ecobazaar.backend.entity.TreePlantingSubmission;
+import com.ecobazaar.backend.entity.User;
+import com.ecobazaar.backend.repository.TreePlantingSubmissionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TreePlantingServiceTest {
+
+    @Mock
+    private TreePlantingSubmissionRepository treePlantingSubmissionRepository;
+
+    @Mock
+    private EcoPointsLedgerService ecoPointsLedgerService;
+
+    @Mock
+    private NotificationFanoutService notificationFanoutService;
+
+    @InjectMocks
+    private TreePlantingService treePlantingService;
+
+    @Test
+    void reviewLocksTheSubmissionBeforeCrediting() {
+        TreePlantingSubmission submission = submission(TreePlantingSubmission.SubmissionStatus.PENDING);
+        when(treePlantingSubmissionRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(submission));
+        when(treePlantingSubmissionRepository.save(submission)).thenReturn(submission);
+
+        treePlantingService.reviewSubmission(5L, true, "ok", 1L);
+
+        verify(treePlantingSubmissionRepository, never()).findById(any());
+        verify(ecoPointsLedgerService).credit(eq(42L), eq(submission.getEcoPointsAwarded()),
+                eq(EcoPointsLedgerEntry.Reason.TREE_PLANTING), eq(5L));
+        assertThat(submission.getStatus()).isEqualTo(TreePlantingSubmission.SubmissionStatus.APPROVED);
+    }
+
+    @Test
+    void reviewOfApprovedSubmissionCreditsNothing() {
+        when(treePlantingSubmissionRepository.findByIdForUpdate(5L))
+                .thenReturn(Optional.of(submission(TreePlantingSubmission.SubmissionStatus.APPROVED)));
+
+        assertThatThrownBy(() -> treePlantingService.reviewSubmission(5L, true, "again", 1L))
+                .hasMessageContaining("already been approved");
+
+        verifyNoInteractions(ecoPointsLedgerService, notificationFanoutService);
+    }
+
+    @Test
+    void riskOrderedPageCarriesRankInCursor() {
+        LocalDateTime submittedAt = LocalDateTime.of(2025, 4, 2, 10, 0);
+        when(treePlantingSubmissionRepository.findReviewPageByRisk(any(), any(), any(), any(),
+                isNull(), isNull(), isNull(), any()))
+                .thenReturn(List.of(item(3L, 90, submittedAt), item(2L, null, submittedAt), item(1L, null, submittedAt)));
+
+        CursorPageDto<TreePlantingReviewItemDto> page =
+                treePlantingService.getReviewQueuePage(null, null, null, null, true, null, 2);
+
+        KeysetCursor next = KeysetCursor.decodeRanked(page.getNextCursor());
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(next.getRank()).isZero();
+        assertThat(next.getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void cursorFromOtherOrderingIsRejected() {
+        String ranked = new KeysetCursor(10, LocalDateTime.now(), 1L).encode();
+        String plain = new KeysetCursor(LocalDateTime.now(), 1L).encode();
+
+        assertThatThrownBy(() -> treePlantingService.getReviewQueuePage(null, null, null, null, false, ranked, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> treePlantingService.getReviewQueuePage(null, null, null, null, true, plain, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TreePlantingSubmission submission(TreePlantingSubmission.SubmissionStatus status) {
+        User user = new User();
+        user.setId(42L);
+        TreePlantingSubmission submission = new TreePlantingSubmission();
+        submission.setId(5L);
+        submission.setUser(user);
+        submission.setStatus(status);
+        submission.setIsEcoFriendlyProduct(false);
+        return submission;
+    }
+
+    private static TreePlantingReviewItemDto item(Long id, Integer riskScore, LocalDateTime submittedAt) {
+        TreePlantingReviewItemDto item = new TreePlantingReviewItemDto();
+        item.setId(id);
+        item.setRiskScore(riskScore);
+        item.setSubmittedAt(submittedAt);
+        return item;
+    }
+}
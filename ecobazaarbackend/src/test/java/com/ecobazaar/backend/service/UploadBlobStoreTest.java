@@ -0,0 +1,89 @@
+package com.ecobazaar.backend.service;
+
+import com.ecobazaar.backend.repository.UploadBlobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UploadBlobStoreTest {
+
+    private static final String HASH = "ab".repeat(32);
+    private static final String BLOB_URL = "/uploads/blobs/ab/ab/" + HASH + ".jpg";
+    private static final String OTHER_HASH = "cd".repeat(32);
+    private static final String OTHER_URL = "/uploads/blobs/cd/cd/" + OTHER_HASH + ".png";
+
+    @Mock
+    private UploadBlobRepository uploadBlobRepository;
+
+    @InjectMocks
+    private UploadBlobStore uploadBlobStore;
+
+    @Test
+    void hashOfAcceptsOnlyBlobUrls() {
+        assertThat(UploadBlobStore.hashOf(BLOB_URL)).isEqualTo(HASH);
+        assertThat(UploadBlobStore.hashOf("https://example.com/a.jpg")).isNull();
+        assertThat(UploadBlobStore.hashOf("/uploads/products/a.jpg")).isNull();
+        assertThat(UploadBlobStore.hashOf("/uploads/blobs/ab/ab/" + HASH + ".jpg/../x")).isNull();
+        assertThat(UploadBlobStore.hashOf(null)).isNull();
+    }
+
+    @Test
+    void retainTakesReferenceOnStoredBlob() {
+        when(uploadBlobRepository.retain(eq(HASH), any())).thenReturn(1);
+
+        assertThat(uploadBlobStore.retain(BLOB_URL)).isTrue();
+    }
+
+    @Test
+    void retainIgnoresUrlsThatAreNotBlobs() {
+        assertThat(uploadBlobStore.retain("https://example.com/photo.jpg")).isFalse();
+        verifyNoInteractions(uploadBlobRepository);
+    }
+
+    @Test
+    void retainRejectsBlobThatIsNotStored() {
+        when(uploadBlobRepository.retain(eq(HASH), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> uploadBlobStore.retain(BLOB_URL)).hasMessageContaining("Image not found");
+    }
+
+    @Test
+    void replaceReleasesExtraReferenceWhenSameImageIsStoredAgain() {
+        when(uploadBlobRepository.release(eq(HASH), any())).thenReturn(1);
+
+        uploadBlobStore.replace(BLOB_URL, BLOB_URL, true);
+
+        verify(uploadBlobRepository, times(1)).release(eq(HASH), any());
+    }
+
+    @Test
+    void replaceKeepsReferenceWhenImageIsUnchanged() {
+        uploadBlobStore.replace(BLOB_URL, BLOB_URL, false);
+
+        verify(uploadBlobRepository, never()).release(anyString(), any());
+    }
+
+    @Test
+    void replaceReleasesPreviousImageWhenUrlChanges() {
+        when(uploadBlobRepository.release(eq(HASH), any())).thenReturn(1);
+
+        uploadBlobStore.replace(BLOB_URL, OTHER_URL, true);
+
+        verify(uploadBlobRepository).release(eq(HASH), any());
+        verify(uploadBlobRepository, never()).release(eq(OTHER_HASH), any());
+    }
+}
@@ -0,0 +1,195 @@
+package com.ecobazaar.backend.service;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repeatable measurement of /uploads serving: MB/s and CPU per request for
+ * a 2 MB legacy file through UploadServingService next to Spring's
+ * ResourceHttpRequestHandler (the static-resource handler it replaced), and
+ * the bytes a revisiting client downloads once it has the ETag.
+ */
+class UploadServingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadServingBenchmarkTest.class);
+
+    private static final String FILE = "legacy/photo.jpg";
+    private static final int FILE_BYTES = 2 * 1024 * 1024;
+    private static final int WARMUP = 20;
+    private static final int REQUESTS = 200;
+
+    @TempDir
+    Path uploads;
+
+    private UploadServingService service;
+    private ResourceHttpRequestHandler resourceHandler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        byte[] body = new byte[FILE_BYTES];
+        new Random(42).nextBytes(body);
+        Files.createDirectories(uploads.resolve("legacy"));
+        Files.write(uploads.resolve(FILE), body);
+
+        service = new UploadServingService();
+        ReflectionTestUtils.setField(service, "uploadsRoot", uploads.toString());
+        ReflectionTestUtils.setField(service, "revalidateMaxAgeSeconds", 300L);
+        ReflectionTestUtils.setField(service, "sendfileMinBytes", 49152L);
+        ReflectionTestUtils.setField(service, "etagCacheEntries", 100);
+        service.init();
+
+        resourceHandler = new ResourceHttpRequestHandler();
+        resourceHandler.setLocations(List.of(new FileSystemResource(uploads.toString() + "/")));
+        resourceHandler.setServletContext(new MockServletContext());
+        resourceHandler.afterPropertiesSet();
+    }
+
+    @Test
+    void measureThroughputAgainstResourceHandler() throws Exception {
+        Result serving = run(() -> {
+            CountingResponse response = new CountingResponse();
+            service.serve(request(), response);
+            return response;
+        });
+        Result baseline = run(() -> {
+            MockHttpServletRequest request = request();
+            request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, FILE);
+            CountingResponse response = new CountingResponse();
+            resourceHandler.handleRequest(request, response);
+            return response;
+        });
+
+        log.info("UploadServingService: {} MB/s, {} us CPU/request; ResourceHttpRequestHandler: {} MB/s, {} us CPU/request",
+                 Math.round(serving.megabytesPerSecond), Math.round(serving.cpuMicrosPerRequest),
+                 Math.round(baseline.megabytesPerSecond), Math.round(baseline.cpuMicrosPerRequest));
+        assertThat(serving.bytes).isEqualTo((long) FILE_BYTES * REQUESTS);
+        assertThat(baseline.bytes).isEqualTo((long) FILE_BYTES * REQUESTS);
+    }
+
+    @Test
+    void revisitsWithEtagDownloadNothing() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        service.serve(request(), first);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        long bodyBytes = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            MockHttpServletRequest revisit = request();
+            revisit.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            service.serve(revisit, response);
+            assertThat(response.getStatus()).isEqualTo(304);
+            bodyBytes += response.getContentAsByteArray().length;
+        }
+
+        log.info("{} revisits with If-None-Match: {} body bytes (first visit {} bytes)",
+                 REQUESTS, bodyBytes, first.getContentAsByteArray().length);
+        assertThat(bodyBytes).isZero();
+    }
+
+    @Test
+    void largeBodyIsHandedToSendfile() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.serve(request, response);
+
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+                .isEqualTo(uploads.resolve(FILE).toRealPath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo((long) FILE_BYTES);
+        assertThat(response.getContentLengthLong()).isEqualTo(FILE_BYTES);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private Result run(Exchange exchange) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            exchange.perform();
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStarted = threads.getCurrentThreadCpuTime();
+        long started = System.nanoTime();
+        long bytes = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            CountingResponse response = exchange.perform();
+            assertThat(response.getStatus()).isEqualTo(200);
+            bytes += response.written;
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        double cpuMicros = (threads.getCurrentThreadCpuTime() - cpuStarted) / 1e3;
+        return new Result(bytes, bytes / 1e6 / seconds, cpuMicros / REQUESTS);
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/uploads/" + FILE);
+    }
+
+    private interface Exchange {
+        CountingResponse perform() throws Exception;
+    }
+
+    // Counts and discards the body, so the mock's in-memory buffer does not dominate the numbers
+    private static class CountingResponse extends MockHttpServletResponse {
+        private long written;
+
+        private final ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                written++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written += len;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+
+    private static class Result {
+        private final long bytes;
+        private final double megabytesPerSecond;
+        private final double cpuMicrosPerRequest;
+
+        Result(long bytes, double megabytesPerSecond, double cpuMicrosPerRequest) {
+            this.bytes = bytes;
+            this.megabytesPerSecond = megabytesPerSecond;
+            this.cpuMicrosPerRequest = cpuMicrosPerRequest;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.ecobazaar.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadServingServiceTest {
+
+    private static final String HASH = "ab".repeat(32);
+    private static final String BLOB_PATH = "blobs/ab/ab/" + HASH + ".txt";
+    private static final String BODY = "0123456789";
+
+    @TempDir
+    Path uploads;
+
+    private UploadServingService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path blob = uploads.resolve(BLOB_PATH);
+        Files.createDirectories(blob.getParent());
+        Files.writeString(blob, BODY);
+        Files.createDirectories(uploads.resolve("legacy"));
+        Files.writeString(uploads.resolve("legacy/notes.txt"), BODY);
+
+        service = new UploadServingService();
+        ReflectionTestUtils.setField(service, "uploadsRoot", uploads.toString());
+        ReflectionTestUtils.setField(service, "revalidateMaxAgeSeconds", 300L);
+        ReflectionTestUtils.setField(service, "sendfileMinBytes", 49152L);
+        ReflectionTestUtils.setField(service, "etagCacheEntries", 100);
+        service.init();
+    }
+
+    // --- parseRange ---
+
+    @Test
+    void parseRangeHandlesBoundedOpenAndSuffixRanges() {
+        assertThat(UploadServingService.parseRange("bytes=0-4", 10)).containsExactly(0, 4);
+        assertThat(UploadServingService.parseRange("bytes=5-", 10)).containsExactly(5, 9);
+        assertThat(UploadServingService.parseRange("bytes=-3", 10)).containsExactly(7, 9);
+        assertThat(UploadServingService.parseRange("bytes=-30", 10)).containsExactly(0, 9);
+        assertThat(UploadServingService.parseRange("bytes=8-100", 10)).containsExactly(8, 9);
+    }
+
+    @Test
+    void parseRangeReturnsNullWhenUnsatisfiable() {
+        assertThat(UploadServingService.parseRange("bytes=10-", 10)).isNull();
+        assertThat(UploadServingService.parseRange("bytes=-0", 10)).isNull();
+        assertThat(UploadServingService.parseRange("bytes=-5", 0)).isNull();
+    }
+
+    @Test
+    void parseRangeIgnoresMalformedAndMultipleRanges() {
+        assertThat(UploadServingService.parseRange("bytes=0-1,4-5", 10)).isEmpty();
+        assertThat(UploadServingService.parseRange("items=0-4", 10)).isEmpty();
+        assertThat(UploadServingService.parseRange("bytes=-", 10)).isEmpty();
+        assertThat(UploadServingService.parseRange("bytes=5-2", 10)).isEmpty();
+        assertThat(UploadServingService.parseRange("bytes=99999999999999999999-", 10)).isEmpty();
+    }
+
+    // --- serve ---
+
+    @Test
+    void blobIsServedImmutableWithHashEtag() throws IOException {
+        MockHttpServletResponse response = serve(request(BLOB_PATH));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + HASH + "\"");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    void ifNoneMatchWithCurrentEtagIsNotModified() throws IOException {
+        MockHttpServletRequest request = request(BLOB_PATH);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"" + HASH + "\"");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() throws IOException {
+        MockHttpServletRequest request = request(BLOB_PATH);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, System.currentTimeMillis() + 60_000);
+
+        assertThat(serve(request).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void legacyFileGetsContentEtagAndShortMaxAge() throws IOException {
+        MockHttpServletResponse first = serve(request("legacy/notes.txt"));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).startsWith("\"").hasSize(66);
+        assertThat(first.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("public, max-age=300");
+
+        MockHttpServletRequest revalidate = request("legacy/notes.txt");
+        revalidate.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        assertThat(serve(revalidate).getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void rangeIsServedAsPartialContent() throws IOException {
+        MockHttpServletRequest request = request(BLOB_PATH);
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws IOException {
+        MockHttpServletRequest request = request(BLOB_PATH);
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void rangeHonouredWhenIfRangeMatchesStrongEtag() throws IOException {
+        MockHttpServletRequest request = request(BLOB_PATH);
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"" + HASH + "\"");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("01");
+    }
+
+    @Test
+    void staleOrWeakIfRangeSendsWholeFile() throws IOException {
+        MockHttpServletRequest stale = request(BLOB_PATH);
+        stale.addHeader(HttpHeaders.RANGE, "bytes=0-1");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+        MockHttpServletResponse staleResponse = serve(stale);
+        assertThat(staleResponse.getStatus()).isEqualTo(200);
+        assertThat(staleResponse.getContentAsString()).isEqualTo(BODY);
+
+        // If-Range uses strong comparison, so a weak validator never matches
+        MockHttpServletRequest weak = request(BLOB_PATH);
+        weak.addHeader(HttpHeaders.RANGE, "bytes=0-1");
+        weak.addHeader(HttpHeaders.IF_RANGE, "W/\"" + HASH + "\"");
+        assertThat(serve(weak).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void ifRangeDateMustMatchLastModified() throws IOException {
+        long lastModified = Files.getLastModifiedTime(uploads.resolve(BLOB_PATH)).toMillis();
+
+        MockHttpServletRequest current = request(BLOB_PATH);
+        current.addHeader(HttpHeaders.RANGE, "bytes=0-1");
+        current.addHeader(HttpHeaders.IF_RANGE, lastModified);
+        assertThat(serve(current).getStatus()).isEqualTo(206);
+
+        MockHttpServletRequest older = request(BLOB_PATH);
+        older.addHeader(HttpHeaders.RANGE, "bytes=0-1");
+        older.addHeader(HttpHeaders.IF_RANGE, lastModified - 60_000);
+        assertThat(serve(older).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void pathsOutsideRootOrInHiddenDirectoriesAreNotFound() throws IOException {
+        Files.createDirectories(uploads.resolve(".tmp"));
+        Files.writeString(uploads.resolve(".tmp/partial.txt"), BODY);
+
+        assertThat(serve(request(".tmp/partial.txt")).getStatus()).isEqualTo(404);
+        assertThat(serve(request("../secret.txt")).getStatus()).isEqualTo(404);
+        assertThat(serve(request("legacy/missing.txt")).getStatus()).isEqualTo(404);
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String relative) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/" + relative);
+        request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return request;
+    }
+}
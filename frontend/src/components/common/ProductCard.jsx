@@ -21,7 +21,7 @@ const ProductCard = ({ product, viewMode = 'grid' }) => {
   const originalPrice = Number(product.originalPrice ?? product.price ?? 0);
   const reviewsCount = product.reviews ?? 24;
   const stockQuantity = product.stockQuantity ?? product.stock ?? 0;
-  const imageSrc = product.imageUrl || product.image || product.images?.[0] || 'https://via.placeholder.com/300';
+  const imageSrc = product.imageVariants?.card || product.imageUrl || product.image || product.images?.[0] || 'https://via.placeholder.com/300';
 
   const handleAddToCart = async (event) => {
     event.preventDefault();
@@ -7,10 +7,11 @@ import {
   Package,
   Home,
   Info,
-  ShoppingBag
+  ShoppingBag,
+  Bell
 } from 'lucide-react';
 import { motion, AnimatePresence } from 'framer-motion';
-import { authAPI } from '../../services/api';
+import { authAPI, adminAPI } from '../../services/api';
 import Logo from '../common/Logo';
 import ThemeToggle from '../common/ThemeToggle';
 
@@ -21,6 +22,10 @@ const Navbar = () => {
   
   // Cart state
   const [cartCount, setCartCount] = useState(0);
+  
+  // Notification bell, kept current by the notification stream
+  const [unreadCount, setUnreadCount] = useState(0);
+  const [latestNotification, setLatestNotification] = useState(null);
   const navigate = useNavigate();
 
   // Initialize authentication state
@@ -77,6 +82,19 @@ const Navbar = () => {
     };
   }, []);
 
+  // Open the notification stream while signed in; it pushes the unread count instead of polling
+  useEffect(() => {
+    if (!isAuthenticated) {
+      setUnreadCount(0);
+      return undefined;
+    }
+    const stream = adminAPI.openNotificationStream({
+      onUnreadCount: setUnreadCount,
+      onNotification: setLatestNotification
+    });
+    return () => stream.close();
+  }, [isAuthenticated]);
+
   // Load cart items and listen for cart updates
   useEffect(() => {
     const loadCart = () => {
@@ -136,6 +154,17 @@ const Navbar = () => {
                 <ShoppingBag size={18} />
                 <span>Orders</span>
               </Link>
+              <span
+                className="relative px-2 py-2 text-slate-700 dark:text-emerald-50"
+                title={latestNotification ? latestNotification.title : 'Notifications'}
+              >
+                <Bell size={18} />
+                {unreadCount > 0 && (
+                  <span className="absolute -top-1 -right-1 bg-emerald-600 text-white text-[10px] w-5 h-5 rounded-full flex items-center justify-center font-bold">
+                    {unreadCount > 99 ? '99+' : unreadCount}
+                  </span>
+                )}
+              </span>
               <Link to="/cart" className="relative px-3 py-2 font-bold text-slate-700 dark:text-emerald-50 hover:text-emerald-600 dark:hover:text-emerald-300 transition-colors">
                 <span>Smart Cart</span>
                 {cartCount > 0 && (
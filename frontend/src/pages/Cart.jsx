@@ -7,6 +7,7 @@ const API_BASE_URL = import.meta.env?.VITE_API_URL || 'http://localhost:8081/api
 
 const Cart = () => {
   const [cartItems, setCartItems] = useState([]);
+  const [summary, setSummary] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
 
@@ -32,13 +33,16 @@ const Cart = () => {
     try {
       setLoading(true);
       setError('');
-      const response = await axios.get(`${API_BASE_URL}/cart/details/${resolvedUserId}`);
-      setCartItems(Array.isArray(response.data) ? response.data : []);
+      // Summary endpoint returns the items together with server-computed totals
+      const response = await axios.get(`${API_BASE_URL}/cart/summary/${resolvedUserId}`);
+      setCartItems(Array.isArray(response.data?.items) ? response.data.items : []);
+      setSummary(response.data);
     } catch (err) {
       console.error('Error fetching cart:', err);
       try {
         const fallbackRes = await axios.get(`${API_BASE_URL}/cart/user/${resolvedUserId}`);
         setCartItems(Array.isArray(fallbackRes.data) ? fallbackRes.data : []);
+        setSummary(null);
       } catch (fallbackError) {
         console.error('Fallback cart fetch failed:', fallbackError);
         setError('Unable to load your cart. Please try again.');
@@ -62,6 +66,8 @@ const Cart = () => {
       }
 
       setCartItems((prev) => prev.filter((item) => item.cartId !== cartId));
+      // Refresh totals from the server rather than recomputing them here
+      fetchCart();
     } catch (err) {
       console.error('Error deleting item:', err);
       setError('Failed to remove item. Please try again.');
@@ -69,15 +75,16 @@ const Cart = () => {
     }
   };
 
-  const subtotal = cartItems.reduce((acc, item) => acc + Number(item.price || 0) * Number(item.quantity || 0), 0);
-  const totalCarbonSaved = cartItems.reduce(
-    (acc, item) => acc + Number(item.carbonSaved || 0) * Number(item.quantity || 0),
-    0
-  );
-  const totalEcoPoints = cartItems.reduce(
-    (acc, item) => acc + Number(item.ecoPoints || 0) * Number(item.quantity || 0),
-    0
-  );
+  // Totals come from /cart/summary; the client-side sums only cover the legacy fallback endpoint
+  const subtotal = summary
+    ? Number(summary.subtotal || 0)
+    : cartItems.reduce((acc, item) => acc + Number(item.price || 0) * Number(item.quantity || 0), 0);
+  const totalCarbonSaved = summary
+    ? Number(summary.totalCarbonReduction || 0)
+    : cartItems.reduce((acc, item) => acc + Number(item.carbonSaved || 0) * Number(item.quantity || 0), 0);
+  const totalEcoPoints = summary
+    ? Number(summary.totalEcoPoints || 0)
+    : cartItems.reduce((acc, item) => acc + Number(item.ecoPoints || 0) * Number(item.quantity || 0), 0);
 
   if (loading) {
     return (
@@ -240,7 +240,7 @@ const ProductDetail = () => {
           {/* Product Images */}
             <div>
               <img
-                src={getImageUrl(product.imageUrl)}
+                src={getImageUrl(product.imageVariants?.detail || product.imageUrl)}
                 alt={product.name}
                 className="w-full h-96 object-cover rounded-lg shadow-lg"
               />
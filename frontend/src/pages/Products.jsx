@@ -32,7 +32,7 @@ const normalizeProduct = (product = {}) => {
     shipping: product.shipping || product.shippingInfo || 'Ships sustainably',
     category: rawCategory ?? categoryName,
     categoryName,
-    imageUrl: product.imageUrl || product.productImageUrl || product.image || product.images?.[0] || null,
+    imageUrl: product.imageVariants?.card || product.imageUrl || product.productImageUrl || product.image || product.images?.[0] || null,
   };
 };
 
@@ -297,11 +297,17 @@ export const productsAPI = {
   // Get product by ID
   getProductById: (id) => api.get(`/products/${id}`),
   
-  // Get products by category
-  getProductsByCategory: (categoryId) => api.get(`/products/category/${categoryId}`),
+  // Get one keyset page of products; pass back `nextCursor` as `cursor` for the next page
+  // params: { categoryId, sellerId, minPrice, maxPrice, ecoFriendly, maxCarbonScore, cursor, limit }
+  getProductsPage: (params = {}) => api.get('/products/page', { params }),
+  searchProducts: (params = {}) => api.get('/products/search', { params }),
+  autocomplete: (q, limit = 8) => api.get('/products/autocomplete', { params: { q, limit } }),
   
-  // Get eco-friendly products
-  getEcoFriendlyProducts: () => api.get('/products/eco-friendly'),
+  // Get products by category (first page, newest first; use getProductsPage for more)
+  getProductsByCategory: (categoryId, limit) => api.get(`/products/category/${categoryId}`, { params: { limit } }),
+  
+  // Get eco-friendly products (first page, newest first; use getProductsPage for more)
+  getEcoFriendlyProducts: (limit) => api.get('/products/eco-friendly', { params: { limit } }),
   
   // Seller product management
   getSellerProducts: () => api.get('/seller/products'),
@@ -489,6 +495,7 @@ export const customerAPI = {
     productIds
   }),
   getEcoPointsRules: () => api.get('/eco-points/rules'),
+  getEcoPointsHistory: (limit = 50) => api.get('/eco-points/history', { params: { limit } }),
   
   // Wishlist management
   getWishlist: () => api.get('/customer/wishlist'),
@@ -690,15 +697,29 @@ export const adminAPI = {
   // Overview Dashboard
   getAdminOverview: () => api.get('/admin/overview'),
   getRecentActivity: () => api.get('/admin/recent-activity'),
+  getCatalogueCacheStats: () => api.get('/admin/cache/catalogue'),
+  clearCatalogueCache: () => api.delete('/admin/cache/catalogue'),
+  // body: { audience: 'ALL_USERS' | 'CUSTOMERS' | 'SELLERS' | 'ADMINS' | 'CATEGORY_BUYERS', categoryId, title, message }
+  broadcastNotification: (data) => api.post('/admin/notifications/broadcast', data),
+  getNotificationFanoutStats: () => api.get('/admin/notifications/fanout/stats'),
+  getNotificationRetentionStats: () => api.get('/admin/notifications/retention'),
+  runNotificationRetention: () => api.post('/admin/notifications/retention/run'),
+  rebuildEcoPointsBalances: () => api.post('/admin/eco-points/rebuild'),
+  rebuildImageVariants: () => api.post('/admin/images/variants/rebuild'),
+  getUploadBlobStats: () => api.get('/admin/uploads/blobs/stats'),
   
   // User Management
   getAllUsers: () => api.get('/admin/users'),
   getUsersByRole: (role) => api.get(`/admin/users/role/${role}`),
+  // params: { role, sortBy: 'totalSpent' | 'totalOrders' | 'createdAt', direction, page, size }
+  getUsersPage: (params = {}) => api.get('/admin/users/page', { params }),
   updateUserStatus: (userId, isActive) => api.put(`/admin/users/${userId}/status`, { isActive }),
   updateUserRole: (userId, role) => api.put(`/admin/users/${userId}/role`, { role }),
   
   // Seller Management
   getAllSellers: () => api.get('/admin/sellers'),
+  // params: { sortBy: 'totalRevenue' | 'totalOrders' | 'totalProducts' | 'createdAt', direction, page, size }
+  getSellerLeaderboard: (params = {}) => api.get('/admin/sellers/leaderboard', { params }),
   approveSeller: (sellerId, adminNotes) => api.put(`/admin/sellers/${sellerId}/approve`, { adminNotes }),
   rejectSeller: (sellerId, adminNotes) => api.put(`/admin/sellers/${sellerId}/reject`, { adminNotes }),
   blockSeller: (sellerId, reason) => api.put(`/admin/sellers/${sellerId}/block`, { reason }),
@@ -728,12 +749,64 @@ export const adminAPI = {
   
   // Notifications
   getUserNotifications: (userId) => api.get(`/notifications/user/${userId}`),
+  // params: { unreadOnly, cursor, limit }; pass the response's nextCursor to load more
+  getNotificationPage: (userId, params = {}) => api.get(`/notifications/user/${userId}/page`, { params }),
   getUnreadNotifications: (userId) => api.get(`/notifications/user/${userId}/unread`),
   getUnreadNotificationCount: (userId) => api.get(`/notifications/user/${userId}/count`),
   markNotificationAsRead: (notificationId) => api.put(`/notifications/${notificationId}/read`),
   markAllNotificationsAsRead: (userId) => api.put(`/notifications/user/${userId}/read-all`),
   deleteNotification: (notificationId) => api.delete(`/notifications/${notificationId}`),
-  seedNotifications: (userId) => api.post(`/notifications/seed/${userId}`)
+  seedNotifications: (userId) => api.post(`/notifications/seed/${userId}`),
+  // Single-use ticket for opening the notification stream (the JWT never goes in a URL)
+  createNotificationStreamTicket: () => api.post('/notifications/stream/ticket'),
+  // Live stream instead of polling. Each connection uses a fresh ticket, so dropped streams
+  // reconnect with a new one after a backoff. Returns { close } to disconnect for good.
+  openNotificationStream: ({ onNotification, onUnreadCount } = {}) => {
+    let source = null;
+    let retryTimer = null;
+    let retryDelay = 2000;
+    let closed = false;
+
+    const connect = async () => {
+      try {
+        const { data } = await api.post('/notifications/stream/ticket');
+        if (closed) return;
+        source = new EventSource(`${API_BASE_URL}/notifications/stream?ticket=${encodeURIComponent(data.ticket)}`);
+      } catch (error) {
+        scheduleReconnect();
+        return;
+      }
+      source.onopen = () => {
+        retryDelay = 2000;
+      };
+      // The ticket is spent, so the browser's own retry would be rejected; reconnect with a new one
+      source.onerror = () => {
+        source.close();
+        scheduleReconnect();
+      };
+      if (onNotification) {
+        source.addEventListener('notification', (event) => onNotification(JSON.parse(event.data)));
+      }
+      if (onUnreadCount) {
+        source.addEventListener('unread-count', (event) => onUnreadCount(Number(event.data)));
+      }
+    };
+
+    const scheduleReconnect = () => {
+      if (closed) return;
+      retryTimer = setTimeout(connect, retryDelay);
+      retryDelay = Math.min(retryDelay * 2, 60000);
+    };
+
+    connect();
+    return {
+      close: () => {
+        closed = true;
+        clearTimeout(retryTimer);
+        if (source) source.close();
+      }
+    };
+  }
 };
 
 // Tree Planting API
@@ -746,10 +819,19 @@ export const treePlantingAPI = {
   getMySubmissions: () => api.get('/tree-planting/my-submissions'),
   getAllSubmissions: () => api.get('/tree-planting/all'),
   getPendingSubmissions: () => api.get('/tree-planting/pending'),
+  // Get one keyset page of the admin review queue; pass back `nextCursor` as `cursor` for the next page
+  // params: { status, ecoFriendly, from, to, sort, cursor, limit } (from/to are ISO date-times;
+  // sort is 'newest' or 'risk', and a cursor only continues the ordering it came from)
+  getReviewQueue: (params) => api.get('/tree-planting/review-queue', { params }),
   reviewSubmission: (submissionId, approved, adminNotes) => api.post(`/tree-planting/review/${submissionId}`, {
     approved,
     adminNotes
   }),
+  bulkReview: (submissionIds, approved, adminNotes) => api.post('/tree-planting/review/bulk', {
+    submissionIds,
+    approved,
+    adminNotes
+  }),
   getStats: () => api.get('/tree-planting/stats')
 };
 